@@ -11,16 +11,20 @@ import com.fulfilment.application.monolith.stores.domain.exceptions.StoreNotFoun
 import com.fulfilment.application.monolith.stores.domain.exceptions.InvalidStoreSnapshotException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.DuplicateBusinessUnitCodeException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.InsufficientCapacityException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseRequestException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationCapacityExceededException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationWarehouseLimitExceededException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.StockMismatchException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.StockOutOfRangeException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseVersionMismatchException;
 import io.quarkus.hibernate.validator.runtime.jaxrs.ResteasyReactiveViolationException;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
+import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.extern.jbosslog.JBossLog;
 import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
@@ -32,6 +36,32 @@ import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
 @JBossLog
 public class GlobalExceptionMapper {
 
+  /**
+   * HTTP status per application exception, shared by the handlers below and by endpoints that
+   * report failures per item instead of throwing them.
+   */
+  private static final Map<Class<? extends Throwable>, Integer> STATUSES = Map.ofEntries(
+      Map.entry(InvalidLocationIdentifierException.class, 400),
+      Map.entry(InvalidPageCursorException.class, 400),
+      Map.entry(WarehouseNotFoundException.class, 404),
+      Map.entry(StoreNotFoundException.class, 404),
+      Map.entry(LocationNotFoundException.class, 404),
+      Map.entry(DuplicateBusinessUnitCodeException.class, 409),
+      Map.entry(ProductAlreadyExistsException.class, 409),
+      Map.entry(StoreAlreadyExistsException.class, 409),
+      Map.entry(WarehouseAlreadyArchivedException.class, 409),
+      Map.entry(WarehouseVersionMismatchException.class, 412),
+      Map.entry(InvalidWarehouseRequestException.class, 400),
+      Map.entry(InsufficientCapacityException.class, 422),
+      Map.entry(LocationCapacityExceededException.class, 422),
+      Map.entry(LocationWarehouseLimitExceededException.class, 422),
+      Map.entry(StockMismatchException.class, 422),
+      Map.entry(StockOutOfRangeException.class, 422),
+      Map.entry(InvalidStoreRequestException.class, 422),
+      Map.entry(InvalidStoreSnapshotException.class, 500),
+      Map.entry(ProductNotFoundException.class, 404),
+      Map.entry(LegacySyncException.class, 500));
+
   @ServerExceptionMapper
   public Response handleValidation(ResteasyReactiveViolationException ex) {
     String message = ex.getConstraintViolations().stream()
@@ -62,49 +92,67 @@ public class GlobalExceptionMapper {
   @ServerExceptionMapper
   public Response handleInvalidLocationIdentifier(InvalidLocationIdentifierException ex) {
     log.warnf("Invalid location identifier: %s", ex.getMessage());
-    return buildResponse(ex, 400);
+    return buildResponse(ex);
+  }
+
+  @ServerExceptionMapper
+  public Response handleInvalidPageCursor(InvalidPageCursorException ex) {
+    log.warnf("Invalid page cursor: %s", ex.getMessage());
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleWarehouseNotFound(WarehouseNotFoundException ex) {
     log.warnf("Warehouse not found: %s", ex.getMessage());
-    return buildResponse(ex, 404);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleStoreNotFound(StoreNotFoundException ex) {
     log.warnf("Store not found: %s", ex.getMessage());
-    return buildResponse(ex, 404);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleLocationNotFound(LocationNotFoundException ex) {
     log.warnf("Location not found: %s", ex.getMessage());
-    return buildResponse(ex, 404);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleDuplicateBusinessUnitCode(DuplicateBusinessUnitCodeException ex) {
     log.warnf("Duplicate business unit code: %s", ex.getMessage());
-    return buildResponse(ex, 409);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleProductAlreadyExists(ProductAlreadyExistsException ex) {
     log.warnf("Product already exists: %s", ex.getMessage());
-    return buildResponse(ex, 409);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleStoreAlreadyExists(StoreAlreadyExistsException ex) {
     log.warnf("Store already exists: %s", ex.getMessage());
-    return buildResponse(ex, 409);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleWarehouseAlreadyArchived(WarehouseAlreadyArchivedException ex) {
     log.warnf("Warehouse already archived: %s", ex.getMessage());
-    return buildResponse(ex, 409);
+    return buildResponse(ex);
+  }
+
+  @ServerExceptionMapper
+  public Response handleWarehouseVersionMismatch(WarehouseVersionMismatchException ex) {
+    log.warnf("Warehouse precondition failed: %s", ex.getMessage());
+    return buildResponse(ex);
+  }
+
+  @ServerExceptionMapper
+  public Response handleInvalidWarehouseRequest(InvalidWarehouseRequestException ex) {
+    log.warnf("Invalid warehouse request: %s", ex.getMessage());
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
@@ -116,49 +164,55 @@ public class GlobalExceptionMapper {
   @ServerExceptionMapper
   public Response handleInsufficientCapacity(InsufficientCapacityException ex) {
     log.warnf("Insufficient capacity: %s", ex.getMessage());
-    return buildResponse(ex, 422);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleLocationCapacityExceeded(LocationCapacityExceededException ex) {
     log.warnf("Location capacity exceeded: %s", ex.getMessage());
-    return buildResponse(ex, 422);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleLocationWarehouseLimitExceeded(LocationWarehouseLimitExceededException ex) {
     log.warnf("Location warehouse limit exceeded: %s", ex.getMessage());
-    return buildResponse(ex, 422);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleStockMismatch(StockMismatchException ex) {
     log.warnf("Stock mismatch: %s", ex.getMessage());
-    return buildResponse(ex, 422);
+    return buildResponse(ex);
+  }
+
+  @ServerExceptionMapper
+  public Response handleStockOutOfRange(StockOutOfRangeException ex) {
+    log.warnf("Stock out of range: %s", ex.getMessage());
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleInvalidStoreRequest(InvalidStoreRequestException ex) {
     log.warnf("Invalid store request: %s", ex.getMessage());
-    return buildResponse(ex, 422);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleInvalidStoreSnapshot(InvalidStoreSnapshotException ex) {
     log.errorf(ex, "Invalid store snapshot state");
-    return buildResponse(ex, 500);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleProductNotFound(ProductNotFoundException ex) {
     log.warnf("Product not found: %s", ex.getMessage());
-    return buildResponse(ex, 404);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
   public Response handleLegacySync(LegacySyncException ex) {
     log.errorf(ex, "Legacy sync failed");
-    return buildResponse(ex, 500);
+    return buildResponse(ex);
   }
 
   @ServerExceptionMapper
@@ -174,6 +228,27 @@ public class GlobalExceptionMapper {
     return buildResponse(ex, 500);
   }
 
+  /**
+   * Returns the status this mapper responds with for the given exception, looking it up by the
+   * exception's class and then its superclasses.
+   *
+   * @param ex the exception to map
+   * @return the mapped HTTP status, or 500 for unmapped exceptions
+   */
+  public static int statusOf(Throwable ex) {
+    for (Class<?> type = ex.getClass(); type != null; type = type.getSuperclass()) {
+      Integer status = STATUSES.get(type);
+      if (status != null) {
+        return status;
+      }
+    }
+    return 500;
+  }
+
+  private Response buildResponse(Throwable ex) {
+    return buildResponse(ex, statusOf(ex));
+  }
+
   private Response buildResponse(Throwable ex, int status) {
     return buildResponse(ex, status, ex.getMessage());
   }
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.common;
+
+/**
+ * Exception thrown when a page cursor was not issued by this API.
+ */
+public class InvalidPageCursorException extends RuntimeException {
+
+  public InvalidPageCursorException(String cursor) {
+    super("Invalid page cursor: " + cursor);
+  }
+
+  public InvalidPageCursorException(String cursor, Throwable cause) {
+    super("Invalid page cursor: " + cursor, cause);
+  }
+}
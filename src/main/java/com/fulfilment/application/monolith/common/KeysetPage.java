@@ -0,0 +1,66 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.ws.rs.core.Link;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list.
+ *
+ * @param items the rows of this page, in sort order
+ * @param next the cursor of the following page, or null if this is the last page
+ * @param <T> the row type
+ */
+public record KeysetPage<T>(List<T> items, PageCursor next) {
+
+  /**
+   * Builds a page from rows read with a limit of {@code limit + 1}; the extra row only tells that
+   * another page follows and is dropped.
+   *
+   * @param rows the rows read, at most {@code limit + 1}
+   * @param limit the page size
+   * @param cursorOf the cursor positioned after a row
+   * @param <T> the row type
+   * @return the page
+   */
+  public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<? super T, PageCursor> cursorOf) {
+    if (rows.size() <= limit) {
+      return new KeysetPage<>(rows, null);
+    }
+    List<T> items = rows.subList(0, limit);
+    return new KeysetPage<>(items, cursorOf.apply(items.get(limit - 1)));
+  }
+
+  /**
+   * Converts the items of this page, keeping its next cursor.
+   *
+   * @param mapper the conversion of one item
+   * @param <R> the converted type
+   * @return the converted page
+   */
+  public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+    return new KeysetPage<>(items.stream().<R>map(mapper).toList(), next);
+  }
+
+  /**
+   * Returns a 200 response with the items as body and, if another page follows, a
+   * {@code Link: <...>; rel="next"} header repeating the request's query with the next cursor.
+   *
+   * @param uriInfo the current request
+   * @param limit the page size to request the next page with
+   * @return the response
+   */
+  public Response toResponse(UriInfo uriInfo, int limit) {
+    Response.ResponseBuilder response = Response.ok(items);
+    if (next != null) {
+      response.links(Link.fromUriBuilder(uriInfo.getRequestUriBuilder()
+              .replaceQueryParam(PageParams.CURSOR, next.encode())
+              .replaceQueryParam(PageParams.LIMIT, limit))
+          .rel("next")
+          .build());
+    }
+    return response.build();
+  }
+}
@@ -0,0 +1,73 @@
+package com.fulfilment.application.monolith.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page, exchanged with clients as an opaque token.
+ *
+ * <p>The next page is read with {@code WHERE (sortKey, id) > (:sortKey, :id)}, which an index on
+ * the sort key serves directly, so a page costs the same at any depth. The token is the URL-safe
+ * Base64 encoding of {@code id:sortKey}; its layout is not part of the API.</p>
+ *
+ * @param sortKey the sort key of the last row
+ * @param id the id of the last row, breaking ties between equal sort keys; null when the sort key
+ *     is unique on its own
+ */
+public record PageCursor(String sortKey, Long id) {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  /**
+   * Returns the opaque token for this cursor.
+   *
+   * @return the token to hand to clients
+   */
+  public String encode() {
+    String raw = (id == null ? "" : id.toString()) + ":" + sortKey;
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parses a token previously returned by {@link #encode()}.
+   *
+   * @param token the token, may be null
+   * @return the cursor, or null if no token was given
+   * @throws InvalidPageCursorException if the token was not produced by {@link #encode()}
+   */
+  public static PageCursor decode(String token) {
+    return decode(token, false);
+  }
+
+  /**
+   * Parses a token previously returned by {@link #encode()} for a listing whose sort key is not
+   * unique, so the id must be present to break ties.
+   *
+   * @param token the token, may be null
+   * @param requiresId whether the listing needs the id of the last row
+   * @return the cursor, or null if no token was given
+   * @throws InvalidPageCursorException if the token was not produced by {@link #encode()}, or
+   *     carries no id although the listing requires one
+   */
+  public static PageCursor decode(String token, boolean requiresId) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(':');
+      if (separator < 0) {
+        throw new InvalidPageCursorException(token);
+      }
+      String id = raw.substring(0, separator);
+      if (requiresId && id.isEmpty()) {
+        throw new InvalidPageCursorException(token);
+      }
+      return new PageCursor(raw.substring(separator + 1), id.isEmpty() ? null : Long.valueOf(id));
+    } catch (IllegalArgumentException e) {
+      // Also covers NumberFormatException from a malformed id
+      throw new InvalidPageCursorException(token, e);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.fulfilment.application.monolith.common;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.QueryParam;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+
+/**
+ * Keyset pagination query parameters shared by the list endpoints.
+ *
+ * <p>The product, store and warehouse lists returned every row before they were paged, so they only
+ * page when the request gives a cursor or a limit; see {@link #limit()}. Lists added with
+ * pagination page by default; see {@link #limitOrDefault()}.</p>
+ */
+public class PageParams {
+
+  static final String CURSOR = "cursor";
+  static final String LIMIT = "limit";
+
+  /** Page size when the request does not give one, for lists that page by default. */
+  public static final int DEFAULT_LIMIT = 100;
+
+  /** Page size of an unpaged request; one below the int maximum, so reading one extra row cannot overflow. */
+  public static final int UNLIMITED = Integer.MAX_VALUE - 1;
+
+  /** Largest page size a request may ask for. */
+  public static final int MAX_LIMIT = 1000;
+
+  @QueryParam(CURSOR)
+  @Parameter(description = "Opaque cursor from the rel=\"next\" Link header of the previous page; first page when omitted")
+  String cursor;
+
+  @QueryParam(LIMIT)
+  @Parameter(description = "Maximum number of items on the page; without cursor and limit the whole list is"
+      + " returned, except for lists that are always paged, which return " + DEFAULT_LIMIT + " items")
+  @Min(value = 1, message = "limit must be between 1 and " + MAX_LIMIT + ".")
+  @Max(value = MAX_LIMIT, message = "limit must be between 1 and " + MAX_LIMIT + ".")
+  Integer limit;
+
+  /**
+   * Returns the position to continue after.
+   *
+   * @return the decoded cursor, or null for the first page
+   * @throws InvalidPageCursorException if the cursor was not issued by this API
+   */
+  public PageCursor after() {
+    return PageCursor.decode(cursor);
+  }
+
+  /**
+   * Returns the position to continue after, for listings sorted by a non-unique key whose ties are
+   * broken by id.
+   *
+   * @return the decoded cursor, or null for the first page
+   * @throws InvalidPageCursorException if the cursor was not issued by this API or has no id
+   */
+  public PageCursor afterWithId() {
+    return PageCursor.decode(cursor, true);
+  }
+
+  /**
+   * Returns the requested page size for a list that pages only on request.
+   *
+   * @return the page size; {@link #UNLIMITED} when neither cursor nor limit is given, and
+   *     {@link #DEFAULT_LIMIT} for a cursor without a limit
+   */
+  public int limit() {
+    if (limit != null) {
+      return limit;
+    }
+    return cursor == null ? UNLIMITED : DEFAULT_LIMIT;
+  }
+
+  /**
+   * Returns the requested page size for a list that always pages.
+   *
+   * @return the page size, {@link #DEFAULT_LIMIT} when omitted
+   */
+  public int limitOrDefault() {
+    return limit == null ? DEFAULT_LIMIT : limit;
+  }
+}
@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.common;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+/**
+ * Recognises unique constraint violations raised by the database, so persistence adapters can
+ * translate them into the domain exceptions reported for duplicates.
+ *
+ * <p>Unique constraints are the source of truth for uniqueness: write paths insert or update
+ * without checking first and flush, and the adapter that issued the write translates a violation
+ * of its own constraint, using the value it was writing. Violations are recognised by SQLState
+ * and constraint name only, never by the message text, which depends on the server locale.</p>
+ */
+public final class UniqueConstraintViolations {
+
+  /** SQLState of {@code unique_violation}. */
+  private static final String UNIQUE_VIOLATION = "23505";
+
+  private UniqueConstraintViolations() {
+  }
+
+  /**
+   * Tells whether a failure was caused by a violation of the given unique constraint.
+   *
+   * @param failure the exception raised by a write
+   * @param constraintName the name of the unique constraint
+   * @return true if a unique violation of that constraint is in the cause chain
+   */
+  public static boolean isViolationOf(Throwable failure, String constraintName) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation
+          && UNIQUE_VIOLATION.equals(violation.getSQLState())
+          && constraintName.equalsIgnoreCase(violation.getConstraintName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.location;
+
+/**
+ * Exception thrown when the location catalog source cannot be read or parsed.
+ */
+public class InvalidLocationCatalogException extends RuntimeException {
+
+  public InvalidLocationCatalogException(String message) {
+    super(message);
+  }
+
+  public InvalidLocationCatalogException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, hash-indexed snapshot of all known locations.
+ *
+ * <p>Instances are built once from a CSV source and never modified afterwards, so they can be
+ * shared between threads and swapped atomically when the catalog is reloaded.</p>
+ *
+ * <p>Expected format, one location per line (blank lines and lines starting with {@code #} are
+ * ignored, as is a leading {@code identification,...} header):</p>
+ * <pre>
+ * identification,maxNumberOfWarehouses,maxCapacity
+ * ZWOLLE-001,1,40
+ * </pre>
+ */
+public final class LocationCatalog {
+
+  private static final String HEADER_PREFIX = "identification,";
+
+  private final Map<String, Location> locationsByIdentifier;
+
+  private LocationCatalog(Map<String, Location> locationsByIdentifier) {
+    this.locationsByIdentifier = Map.copyOf(locationsByIdentifier);
+  }
+
+  /**
+   * Parses a catalog from CSV content.
+   *
+   * @param reader the CSV source; not closed by this method
+   * @return the parsed catalog
+   * @throws InvalidLocationCatalogException if a line is malformed or an identifier is duplicated
+   */
+  public static LocationCatalog fromCsv(Reader reader) {
+    Map<String, Location> index = new HashMap<>();
+    BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    int lineNumber = 0;
+    try {
+      String line;
+      while ((line = lines.readLine()) != null) {
+        lineNumber++;
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith(HEADER_PREFIX)) {
+          continue;
+        }
+        Location location = parseLine(trimmed, lineNumber);
+        if (index.putIfAbsent(location.identification(), location) != null) {
+          throw new InvalidLocationCatalogException(
+              "Duplicate location '" + location.identification() + "' on line " + lineNumber);
+        }
+      }
+    } catch (IOException e) {
+      throw new InvalidLocationCatalogException("Failed to read location catalog", e);
+    }
+    return new LocationCatalog(index);
+  }
+
+  /**
+   * Looks up a location by its identifier.
+   *
+   * @param identifier the location identifier
+   * @return the location, or null if it is not part of the catalog
+   */
+  public Location find(String identifier) {
+    return locationsByIdentifier.get(identifier);
+  }
+
+  /**
+   * Returns every location in the catalog, in no particular order.
+   *
+   * @return an unmodifiable view of the locations
+   */
+  public Collection<Location> all() {
+    return locationsByIdentifier.values();
+  }
+
+  /**
+   * Returns the number of locations in the catalog.
+   *
+   * @return the catalog size
+   */
+  public int size() {
+    return locationsByIdentifier.size();
+  }
+
+  private static Location parseLine(String line, int lineNumber) {
+    String[] columns = line.split(",", -1);
+    if (columns.length != 3 || columns[0].isBlank()) {
+      throw new InvalidLocationCatalogException("Malformed location on line " + lineNumber + ": '" + line + "'");
+    }
+    try {
+      return new Location(
+          columns[0].strip(),
+          Integer.parseInt(columns[1].strip()),
+          Integer.parseInt(columns[2].strip()));
+    } catch (NumberFormatException e) {
+      throw new InvalidLocationCatalogException("Malformed location on line " + lineNumber + ": '" + line + "'", e);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.location;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Watches a single catalog file and invokes a callback whenever it is created or modified.
+ *
+ * <p>The JDK watch service works on directories, so the parent directory is registered and events
+ * are filtered by file name. Events received in one batch are coalesced into a single callback,
+ * which keeps editors that write a file in several steps from triggering redundant reloads.</p>
+ */
+@JBossLog
+final class LocationCatalogWatcher implements AutoCloseable {
+
+  private final Path file;
+  private final Runnable onChange;
+  private final WatchService watchService;
+  private final Thread thread;
+
+  LocationCatalogWatcher(Path file, Runnable onChange) throws IOException {
+    this.file = file.toAbsolutePath().normalize();
+    this.onChange = onChange;
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.file.getParent().register(watchService,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY);
+    this.thread = new Thread(this::run, "location-catalog-watcher");
+    this.thread.setDaemon(true);
+  }
+
+  void start() {
+    thread.start();
+    log.infof("Watching location catalog '%s' for changes", file);
+  }
+
+  private void run() {
+    Path fileName = file.getFileName();
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key = watchService.take();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (fileName.equals(event.context())) {
+            changed = true;
+          }
+        }
+        if (changed) {
+          try {
+            onChange.run();
+          } catch (RuntimeException e) {
+            log.errorf(e, "Failed to reload location catalog '%s', keeping previous catalog", file);
+          }
+        }
+        if (!key.reset()) {
+          log.warnf("Location catalog directory '%s' is no longer accessible, stopping watcher", file.getParent());
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      log.debug("Location catalog watcher closed");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    thread.interrupt();
+    watchService.close();
+  }
+}
@@ -1,30 +1,59 @@
 package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Optional;
 import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Gateway for resolving location information.
  * Provides access to location data including maximum warehouse count and capacity.
+ *
+ * <p>Locations are loaded from a CSV catalog into an immutable {@link LocationCatalog}. When
+ * {@code location.catalog.path} points to an external file, the file is watched and the catalog is
+ * rebuilt on change and swapped in atomically; lookups never block and never observe a partially
+ * built catalog. Without that property the catalog bundled on the classpath is used.</p>
  */
 @ApplicationScoped
 @JBossLog
 public class LocationGateway implements LocationResolver {
 
-  private static final List<Location> locations = new ArrayList<>();
+  static final String BUNDLED_CATALOG = "locations.csv";
 
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
+  @ConfigProperty(name = "location.catalog.path")
+  Optional<Path> catalogPath;
+
+  private volatile LocationCatalog catalog;
+
+  private LocationCatalogWatcher watcher;
+
+  @PostConstruct
+  void init() {
+    reload();
+    catalogPath.ifPresent(this::startWatcher);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (watcher != null) {
+      try {
+        watcher.close();
+      } catch (IOException e) {
+        log.debug("Failed to close location catalog watcher", e);
+      }
+    }
   }
 
   /**
@@ -42,17 +71,67 @@ public class LocationGateway implements LocationResolver {
       throw new InvalidLocationIdentifierException("Location identifier must be provided");
     }
 
-    return locations.stream()
-        .filter(location -> identifier.equals(location.identification()))
-        .findFirst()
-        .map(location -> {
-          log.debugf("Resolved Location for identifier '%s' -> maxWarehouses=%d, maxCapacity=%d",
-              identifier, location.maxNumberOfWarehouses(), location.maxCapacity());
-          return location;
-        })
-        .orElseThrow(() -> {
-          log.warnf("No Location found for identifier '%s'", identifier);
-          return new LocationNotFoundException(identifier);
-        });
+    Location location = catalog.find(identifier);
+    if (location == null) {
+      log.warnf("No Location found for identifier '%s'", identifier);
+      throw new LocationNotFoundException(identifier);
+    }
+    log.debugf("Resolved Location for identifier '%s' -> maxWarehouses=%d, maxCapacity=%d",
+        identifier, location.maxNumberOfWarehouses(), location.maxCapacity());
+    return location;
+  }
+
+  /**
+   * Lists every location of the current catalog.
+   *
+   * @return the locations, in no particular order
+   */
+  @Override
+  public Collection<Location> listAll() {
+    return catalog.all();
+  }
+
+  /**
+   * Rebuilds the catalog from its source and publishes it for subsequent lookups.
+   *
+   * <p>If the source cannot be parsed the exception propagates and the previous catalog stays in
+   * place.</p>
+   *
+   * @throws InvalidLocationCatalogException if the catalog source is malformed
+   */
+  public void reload() {
+    LocationCatalog loaded = catalogPath.map(LocationGateway::loadFromFile).orElseGet(LocationGateway::loadBundled);
+    catalog = loaded;
+    log.infof("Loaded location catalog with %d location(s) from %s",
+        loaded.size(), catalogPath.map(Path::toString).orElse("classpath:" + BUNDLED_CATALOG));
+  }
+
+  private void startWatcher(Path path) {
+    try {
+      watcher = new LocationCatalogWatcher(path, this::reload);
+      watcher.start();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to watch location catalog '" + path + "'", e);
+    }
+  }
+
+  static LocationCatalog loadFromFile(Path path) {
+    try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      return LocationCatalog.fromCsv(reader);
+    } catch (IOException e) {
+      throw new InvalidLocationCatalogException("Failed to read location catalog '" + path + "'", e);
+    }
+  }
+
+  static LocationCatalog loadBundled() {
+    InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(BUNDLED_CATALOG);
+    if (stream == null) {
+      throw new InvalidLocationCatalogException("Bundled location catalog '" + BUNDLED_CATALOG + "' not found");
+    }
+    try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+      return LocationCatalog.fromCsv(reader);
+    } catch (IOException e) {
+      throw new InvalidLocationCatalogException("Failed to read bundled location catalog", e);
+    }
   }
 }
@@ -5,6 +5,8 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.math.BigDecimal;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,6 +18,7 @@ import lombok.Setter;
  * Products have a unique name and optional description and price.
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Product.NAME_CONSTRAINT, columnNames = "name"))
 @Cacheable
 @Getter
 @Setter
@@ -23,11 +26,14 @@ import lombok.Setter;
 @AllArgsConstructor
 public class Product {
 
+  /** Name of the unique constraint on {@code name}; see {@code UniqueConstraintViolations}. */
+  public static final String NAME_CONSTRAINT = "uk_product_name";
+
   @Id
   @GeneratedValue
   private Long id;
 
-  @Column(length = 40, unique = true)
+  @Column(length = 40)
   private String name;
 
   @Column(nullable = true)
@@ -1,11 +1,53 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.common.KeysetPage;
+import com.fulfilment.application.monolith.common.PageCursor;
+import com.fulfilment.application.monolith.common.UniqueConstraintViolations;
+import com.fulfilment.application.monolith.products.domain.exceptions.ProductAlreadyExistsException;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
+import java.util.List;
 
 /**
  * Repository for product persistence operations.
  * Provides Panache-based data access for Product entities.
  */
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+public class ProductRepository implements PanacheRepository<Product> {
+
+  private static final Sort NAME_ORDER = Sort.by("name").and("id");
+
+  /**
+   * Persists a product and flushes, so a duplicate name is rejected by
+   * {@link Product#NAME_CONSTRAINT} within the caller's request.
+   *
+   * @param product the product to create or update
+   * @throws ProductAlreadyExistsException if another product has the same name
+   */
+  public void save(Product product) {
+    try {
+      persistAndFlush(product);
+    } catch (PersistenceException e) {
+      if (UniqueConstraintViolations.isViolationOf(e, Product.NAME_CONSTRAINT)) {
+        throw new ProductAlreadyExistsException(product.getName());
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Lists one page of products in (name, id) order, starting after a cursor.
+   *
+   * @param after the position to continue after, or null for the first page
+   * @param limit the page size
+   * @return the page, with the cursor of the next one if more products follow
+   */
+  public KeysetPage<Product> listPage(PageCursor after, int limit) {
+    List<Product> rows = after == null
+        ? findAll(NAME_ORDER).page(0, limit + 1).list()
+        : find("(name, id) > (?1, ?2)", NAME_ORDER, after.sortKey(), after.id()).page(0, limit + 1).list();
+    return KeysetPage.of(rows, limit, product -> new PageCursor(product.getName(), product.getId()));
+  }
+}
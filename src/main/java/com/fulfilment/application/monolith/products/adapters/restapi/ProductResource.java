@@ -1,19 +1,19 @@
 package com.fulfilment.application.monolith.products.adapters.restapi;
 
 import com.fulfilment.application.monolith.common.ApiError;
+import com.fulfilment.application.monolith.common.PageParams;
 import com.fulfilment.application.monolith.products.Product;
 import com.fulfilment.application.monolith.products.ProductRepository;
 import com.fulfilment.application.monolith.products.adapters.restapi.dto.CreateProductRequest;
 import com.fulfilment.application.monolith.products.adapters.restapi.dto.ProductResponse;
 import com.fulfilment.application.monolith.products.adapters.restapi.dto.UpdateProductRequest;
-import com.fulfilment.application.monolith.products.domain.exceptions.ProductAlreadyExistsException;
 import com.fulfilment.application.monolith.products.domain.exceptions.ProductNotFoundException;
-import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -22,9 +22,9 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
-import java.util.List;
-import java.util.stream.Collectors;
+import jakarta.ws.rs.core.UriInfo;
 import lombok.extern.jbosslog.JBossLog;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -50,18 +50,21 @@ public class ProductResource {
   ProductRepository productRepository;
 
   @GET
-  @Operation(summary = "List all products", description = "Retrieves a list of all products sorted by name")
+  @Operation(summary = "List products",
+      description = "Retrieves the products sorted by name. With a cursor or limit only one page is returned, and a"
+          + " Link header with rel=\"next\" points to the following page")
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "Successful operation",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid cursor or limit",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
-  public List<ProductResponse> get() {
-    return productRepository.listAll(Sort.by("name"))
-        .stream()
+  public Response get(@Valid @BeanParam PageParams page, @Context UriInfo uriInfo) {
+    return productRepository.listPage(page.afterWithId(), page.limit())
         .map(this::toResponse)
-        .collect(Collectors.toList());
+        .toResponse(uriInfo, page.limit());
   }
 
   @GET
@@ -93,19 +96,18 @@ public class ProductResource {
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductResponse.class))),
       @APIResponse(responseCode = "400", description = "Invalid request data (validation failed)",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "409", description = "Product name already exists",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
   public Response create(@NotNull(message = "Request cannot be null.") @Valid CreateProductRequest request) {
-    if (productRepository.count("name", request.name()) > 0) {
-      throw new ProductAlreadyExistsException(request.name());
-    }
     Product product = new Product();
     product.setName(request.name());
     product.setDescription(request.description());
     product.setPrice(request.price());
     product.setStock(request.stock());
-    productRepository.persist(product);
+    productRepository.save(product);
     return Response.ok(toResponse(product)).status(201).build();
   }
 
@@ -120,6 +122,8 @@ public class ProductResource {
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "400", description = "Invalid request data (validation failed)",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "409", description = "Product name already exists",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
@@ -133,19 +137,12 @@ public class ProductResource {
       throw new ProductNotFoundException(id);
     }
 
-    // Avoid an extra DB roundtrip when name is unchanged
-    if (entity.getName() == null || !entity.getName().equals(request.name())) {
-      if (productRepository.count("name = ?1 AND id <> ?2", request.name(), id) > 0) {
-        throw new ProductAlreadyExistsException(request.name());
-      }
-    }
-
     entity.setName(request.name());
     entity.setDescription(request.description());
     entity.setPrice(request.price());
     entity.setStock(request.stock());
 
-    productRepository.persist(entity);
+    productRepository.save(entity);
 
     return toResponse(entity);
   }
@@ -1,10 +1,19 @@
 package com.fulfilment.application.monolith.stores.adapters.database;
 
+import com.fulfilment.application.monolith.common.KeysetPage;
+import com.fulfilment.application.monolith.common.PageCursor;
+import com.fulfilment.application.monolith.common.UniqueConstraintViolations;
+import com.fulfilment.application.monolith.stores.domain.exceptions.StoreAlreadyExistsException;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Version;
+import java.util.List;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,13 +24,17 @@ import lombok.Setter;
  * Includes optimistic locking via version field.
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Store.NAME_CONSTRAINT, columnNames = "name"))
 @Cacheable
 @Getter
 @Setter
 @NoArgsConstructor
 public class Store extends PanacheEntity {
 
-  @Column(length = 40, unique = true)
+  /** Name of the unique constraint on {@code name}; see {@code UniqueConstraintViolations}. */
+  public static final String NAME_CONSTRAINT = "uk_store_name";
+
+  @Column(length = 40)
   private String name;
 
   private int quantityProductsInStock;
@@ -32,5 +45,37 @@ public class Store extends PanacheEntity {
   public Long getId() {
     return id;
   }
+
+  /**
+   * Persists this store and flushes, so a duplicate name is rejected by {@link #NAME_CONSTRAINT}
+   * within the caller's request.
+   *
+   * @throws StoreAlreadyExistsException if another store has the same name
+   */
+  public void save() {
+    try {
+      persistAndFlush();
+    } catch (PersistenceException e) {
+      if (UniqueConstraintViolations.isViolationOf(e, NAME_CONSTRAINT)) {
+        throw new StoreAlreadyExistsException(name);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Lists one page of stores in (name, id) order, starting after a cursor.
+   *
+   * @param after the position to continue after, or null for the first page
+   * @param limit the page size
+   * @return the page, with the cursor of the next one if more stores follow
+   */
+  public static KeysetPage<Store> listPage(PageCursor after, int limit) {
+    Sort order = Sort.by("name").and("id");
+    List<Store> rows = after == null
+        ? Store.<Store>findAll(order).page(0, limit + 1).list()
+        : Store.<Store>find("(name, id) > (?1, ?2)", order, after.sortKey(), after.id()).page(0, limit + 1).list();
+    return KeysetPage.of(rows, limit, store -> new PageCursor(store.getName(), store.getId()));
+  }
 }
 
@@ -7,6 +7,8 @@ public enum LegacySyncJobStatus {
   PENDING,
   RETRY,
   SUCCEEDED,
-  FAILED
+  FAILED,
+  /** Superseded by a newer job for the same store before it was attempted. */
+  SKIPPED
 }
 
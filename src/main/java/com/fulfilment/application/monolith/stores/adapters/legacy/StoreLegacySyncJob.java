@@ -7,7 +7,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import java.time.Instant;
@@ -16,15 +15,15 @@ import java.util.UUID;
 /**
  * Durable job record for legacy store synchronization.
  *
- * <p>This enables retries with backoff without introducing Kafka.</p>
+ * <p>This enables retries with backoff without introducing Kafka. While a worker calls the legacy
+ * system, the job is leased to it rather than locked; see {@link StoreLegacySyncJobWorker}.</p>
+ *
+ * <p>Waiting jobs are found through the partial index {@code idx_store_legacy_sync_job_due} on
+ * {@code nextAttemptAt} of the PENDING and RETRY rows, created in {@code import.sql} since a JPA
+ * index cannot carry a condition.</p>
  */
 @Entity
-@Table(
-    name = "store_legacy_sync_job",
-    indexes = {
-        @Index(name = "idx_store_legacy_sync_job_due", columnList = "status,nextAttemptAt")
-    }
-)
+@Table(name = "store_legacy_sync_job")
 public class StoreLegacySyncJob extends PanacheEntityBase {
 
   @Id
@@ -61,6 +60,18 @@ public class StoreLegacySyncJob extends PanacheEntityBase {
   @Column(length = 2000)
   public String lastError;
 
+  /**
+   * The worker holding the lease on the job while its legacy call runs, or null if not leased.
+   */
+  @Column(length = 200)
+  public String leasedBy;
+
+  /**
+   * When the lease expires; {@code nextAttemptAt} is moved there too, so an expired lease makes the
+   * job due again.
+   */
+  public Instant leaseUntil;
+
   @Version
   public Long version;
 
@@ -0,0 +1,93 @@
+package com.fulfilment.application.monolith.stores.adapters.legacy;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Listens on the {@link StoreLegacySyncJobSignal#CHANNEL} Postgres channel and wakes a worker of
+ * this node for every batch of notifications, so jobs left by another node are picked up right away.
+ *
+ * <p>The listener holds its connection for as long as it runs, so it opens a dedicated one with the
+ * datasource URL and credentials instead of taking one from the pool, which keeps its full size for
+ * requests; the database must allow one connection per node on top of the pool. If the connection
+ * breaks it reconnects after a delay, and wakes a worker once listening again in case a
+ * notification was missed meanwhile.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class StoreLegacySyncJobListener {
+
+  private static final int RECEIVE_TIMEOUT_MS = 1000;
+  private static final long RECONNECT_DELAY_MS = 5000;
+
+  @Inject StoreLegacySyncJobSignal signal;
+
+  @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+  Optional<String> jdbcUrl;
+
+  @ConfigProperty(name = "quarkus.datasource.username")
+  Optional<String> username;
+
+  @ConfigProperty(name = "quarkus.datasource.password")
+  Optional<String> password;
+
+  @ConfigProperty(name = "store.legacy-sync.listen.enabled", defaultValue = "true")
+  boolean enabled;
+
+  private Thread thread;
+
+  void start() {
+    if (!enabled) {
+      return;
+    }
+    if (jdbcUrl.isEmpty()) {
+      log.warn("No datasource JDBC URL configured, not listening for legacy sync jobs");
+      return;
+    }
+    thread = new Thread(this::listen, "store-legacy-sync-job-listener");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  void stop() {
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  private void listen() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try (Connection connection = DriverManager.getConnection(jdbcUrl.get(), username.orElse(null),
+          password.orElse(null))) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + StoreLegacySyncJobSignal.CHANNEL);
+        }
+        log.debugf("Listening for legacy sync jobs on channel %s", StoreLegacySyncJobSignal.CHANNEL);
+        signal.wakeUp();
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (!Thread.currentThread().isInterrupted()) {
+          PGNotification[] notifications = pgConnection.getNotifications(RECEIVE_TIMEOUT_MS);
+          if (notifications != null && notifications.length > 0) {
+            signal.wakeUp();
+          }
+        }
+      } catch (SQLException e) {
+        log.warnf(e, "Lost the legacy sync job listener connection, reconnecting in %dms", RECONNECT_DELAY_MS);
+        try {
+          Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
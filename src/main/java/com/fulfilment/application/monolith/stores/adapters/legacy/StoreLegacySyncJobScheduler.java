@@ -1,48 +1,106 @@
 package com.fulfilment.application.monolith.stores.adapters.legacy;
 
-import jakarta.annotation.PostConstruct;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Minimal scheduler for retrying legacy sync jobs without adding new dependencies.
+ *
+ * <p>Runs {@code store.legacy-sync.workers} workers, each on its own thread. Workers claim
+ * disjoint batches (see {@link StoreLegacySyncJobWorker#processDueJobs()}) and keep claiming
+ * without waiting while jobs are due, so throughput grows with the number of workers until the
+ * legacy system is saturated.</p>
+ *
+ * <p>An idle worker sleeps until the next waiting job is due, and is woken early by
+ * {@link StoreLegacySyncJobSignal} when an immediate attempt leaves a job to the workers on this
+ * node or, through {@link StoreLegacySyncJobListener}, on another one. With no job waiting it only polls every
+ * {@code store.legacy-sync.safety-poll-interval}, in case a wake-up was lost.</p>
  */
 @ApplicationScoped
 @JBossLog
 public class StoreLegacySyncJobScheduler {
 
-  private static final long POLL_INTERVAL_MS = 200;
+  private static final long MIN_IDLE_MS = 50;
 
   @Inject StoreLegacySyncJobWorker worker;
+  @Inject StoreLegacySyncJobSignal signal;
+  @Inject StoreLegacySyncJobListener listener;
 
-  private ScheduledExecutorService executor;
+  @ConfigProperty(name = "store.legacy-sync.workers", defaultValue = "4")
+  int workers;
 
-  @PostConstruct
-  void start() {
-    executor = Executors.newSingleThreadScheduledExecutor(r -> {
-      Thread t = new Thread(r, "store-legacy-sync-job-worker");
+  @ConfigProperty(name = "store.legacy-sync.safety-poll-interval", defaultValue = "30s")
+  Duration safetyPollInterval;
+
+  private ExecutorService executor;
+
+  void start(@Observes StartupEvent event) {
+    if (workers <= 0) {
+      log.info("Legacy sync job workers disabled");
+      return;
+    }
+    AtomicInteger threads = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(workers, r -> {
+      Thread t = new Thread(r, "store-legacy-sync-job-worker-" + threads.incrementAndGet());
       t.setDaemon(true);
       return t;
     });
-    executor.scheduleWithFixedDelay(() -> {
+    for (int i = 0; i < workers; i++) {
+      executor.execute(this::run);
+    }
+    listener.start();
+    log.infof("Started %d legacy sync job worker(s), polling every %s when idle", workers, safetyPollInterval);
+  }
+
+  private void run() {
+    while (!Thread.currentThread().isInterrupted()) {
+      long seen = signal.generation();
+      long idleMs;
       try {
-        worker.processDueJobs();
+        while (worker.processDueJobs() > 0 && !Thread.currentThread().isInterrupted()) {
+          // Claimed jobs are no longer due once processed, so this stops when the queue is drained.
+        }
+        idleMs = idleMillis(worker.nextDueAt());
       } catch (Exception e) {
         log.error("Error processing legacy sync jobs", e);
+        idleMs = safetyPollInterval.toMillis();
       }
-    }, 0, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+      try {
+        signal.await(seen, idleMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Sleeps until the next job is due, at least {@link #MIN_IDLE_MS} so that a due job locked by
+   * another worker is not polled in a busy loop, and at most the safety poll interval.
+   */
+  private long idleMillis(Instant nextDueAt) {
+    long safetyMs = safetyPollInterval.toMillis();
+    if (nextDueAt == null) {
+      return safetyMs;
+    }
+    long untilDueMs = Duration.between(Instant.now(), nextDueAt).toMillis();
+    return Math.max(MIN_IDLE_MS, Math.min(untilDueMs, safetyMs));
   }
 
   @PreDestroy
   void stop() {
+    listener.stop();
     if (executor != null) {
       executor.shutdownNow();
     }
   }
 }
-
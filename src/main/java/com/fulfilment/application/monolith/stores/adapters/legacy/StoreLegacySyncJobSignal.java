@@ -0,0 +1,73 @@
+package com.fulfilment.application.monolith.stores.adapters.legacy;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Wakes idle legacy sync workers when a job is left to them, so they need not poll for it.
+ *
+ * <p>Within a node, {@link #wakeUp()} releases one worker waiting in {@link #await(long, long)};
+ * waking them all would only have them race for the same job. Across nodes, {@link #notifyNodes()}
+ * sends a Postgres NOTIFY on {@link #CHANNEL}, which {@link StoreLegacySyncJobListener} turns into a
+ * {@link #wakeUp()} on each node listening.</p>
+ */
+@ApplicationScoped
+public class StoreLegacySyncJobSignal {
+
+  static final String CHANNEL = "store_legacy_sync_job";
+
+  @Inject EntityManager entityManager;
+
+  private long generation;
+
+  /**
+   * Returns the number of wake-ups so far; a worker reads it before looking for jobs and passes it
+   * to {@link #await(long, long)}, so a wake-up in between is not missed.
+   *
+   * @return the current generation
+   */
+  public synchronized long generation() {
+    return generation;
+  }
+
+  /**
+   * Releases one worker waiting on this node. The others see the new generation once their own
+   * wait ends, and then look for jobs without waiting.
+   */
+  public synchronized void wakeUp() {
+    generation++;
+    notify();
+  }
+
+  /**
+   * Waits until a wake-up after the given generation or until the timeout elapses.
+   *
+   * @param seen the generation read before the worker last looked for jobs
+   * @param timeoutMs the maximum time to wait in milliseconds
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public synchronized void await(long seen, long timeoutMs) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    while (generation == seen) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+  }
+
+  /**
+   * Sends a NOTIFY in the current transaction; Postgres delivers it to the listeners of all nodes
+   * when the transaction commits, and drops it if it rolls back.
+   */
+  public void notifyNodes() {
+    entityManager.createNativeQuery("NOTIFY " + CHANNEL)
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(StoreLegacySyncJob.class)
+        .executeUpdate();
+  }
+}
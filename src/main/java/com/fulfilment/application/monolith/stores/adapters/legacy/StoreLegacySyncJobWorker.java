@@ -2,27 +2,48 @@ package com.fulfilment.application.monolith.stores.adapters.legacy;
 
 import com.fulfilment.application.monolith.stores.adapters.database.Store;
 import com.fulfilment.application.monolith.stores.domain.events.StoreChangeType;
-import com.fulfilment.application.monolith.stores.domain.exceptions.LegacySyncException;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
-import jakarta.persistence.OptimisticLockException;
-import jakarta.transaction.Transactional;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
 import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Background worker that processes {@link StoreLegacySyncJob} records.
  *
  * <p>Responsibilities:</p>
  * <ul>
- *   <li>Pick up due jobs (PENDING/RETRY) and execute the legacy operation</li>
+ *   <li>Claim due jobs (PENDING/RETRY) not claimed by another worker and execute the legacy operation</li>
  *   <li>Record success/failure and schedule retries using exponential backoff</li>
  *   <li>Cap retries to a small maximum to avoid infinite loops</li>
+ *   <li>Collapse the waiting jobs of a store into the newest one, see {@link #coalesce(Long)}</li>
  * </ul>
+ *
+ * <p>A job is processed in three steps. A short transaction leases it: it records the attempt and
+ * the lease holder in {@code leasedBy}, and moves {@code nextAttemptAt} to the end of the lease in
+ * {@code leaseUntil}. The legacy call then runs outside any transaction, holding no connection or
+ * row lock. A second short transaction records the result, unless the lease has meanwhile been
+ * taken over. A lease that is never completed, for example because the node died, simply makes the
+ * job due again when it expires, so it is reclaimed by the next poll.</p>
+ *
+ * <p>The jobs of a batch are leased together but called one after another, so every lease after
+ * the first is renewed right before its call; a lease taken over meanwhile is dropped without
+ * calling the legacy system. A lease thus only has to outlast a single legacy call.</p>
+ *
+ * <p>Called within an active transaction, the worker joins it for all three steps instead.</p>
  */
 @ApplicationScoped
 @JBossLog
@@ -31,95 +52,259 @@ public class StoreLegacySyncJobWorker {
   private static final int MAX_ATTEMPTS = 5;
   private static final Duration INITIAL_BACKOFF = Duration.ofMillis(200);
   private static final Duration MAX_BACKOFF = Duration.ofSeconds(10);
-  private static final int BATCH_SIZE = 25;
+  private static final Comparator<StoreLegacySyncJob> NEWEST_LAST = Comparator
+      .comparing((StoreLegacySyncJob job) -> job.expectedVersion, Comparator.nullsFirst(Comparator.naturalOrder()))
+      .thenComparing(job -> job.createdAt);
+
+  @ConfigProperty(name = "store.legacy-sync.batch-size", defaultValue = "25")
+  int batchSize;
+
+  @ConfigProperty(name = "store.legacy-sync.lease-duration", defaultValue = "30s")
+  Duration leaseDuration;
 
   @Inject EntityManager entityManager;
   @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
+  @Inject TransactionSynchronizationRegistry transactionRegistry;
+
+  private final String instanceId = UUID.randomUUID().toString();
 
   /**
-   * Processes due jobs using pessimistic locking to prevent concurrent processing.
+   * Leases a batch of due jobs and processes them.
    *
-   * <p>Uses SELECT FOR UPDATE to ensure only one thread processes a job at a time.</p>
+   * <p>The batch is claimed with SELECT FOR UPDATE SKIP LOCKED, so concurrent workers, on this node
+   * or another, claim disjoint batches instead of waiting on each other's locks.</p>
+   *
+   * @return the number of jobs leased
    */
-  @Transactional
-  public void processDueJobs() {
-    Instant now = Instant.now();
-    List<StoreLegacySyncJob> jobs = entityManager
-        .createQuery(
-            "SELECT j FROM StoreLegacySyncJob j WHERE j.status IN :statuses AND j.nextAttemptAt <= :now ORDER BY j.createdAt",
+  public int processDueJobs() {
+    List<JobLease> leases = inTransaction(() -> {
+      Instant now = Instant.now();
+      List<JobLease> leased = new ArrayList<>();
+      Set<Long> coalesced = new HashSet<>();
+      for (StoreLegacySyncJob job : claimDueJobs(batchSize)) {
+        if (coalesced.add(job.storeId)) {
+          coalesce(job.storeId);
+        }
+        if (job.status == LegacySyncJobStatus.SKIPPED) {
+          continue;
+        }
+        JobLease lease = lease(job, now);
+        if (lease != null) {
+          leased.add(lease);
+        }
+      }
+      return leased;
+    });
+    for (int i = 0; i < leases.size(); i++) {
+      JobLease lease = leases.get(i);
+      if (i == 0 || renew(lease)) {
+        execute(lease);
+      }
+    }
+    return leases.size();
+  }
+
+  /**
+   * Extends a lease to a full lease duration from now, right before its legacy call.
+   *
+   * @return false if the lease was taken over, in which case the call must not be made
+   */
+  private boolean renew(JobLease lease) {
+    return inTransaction(() -> {
+      StoreLegacySyncJob job = entityManager.find(StoreLegacySyncJob.class, lease.jobId(), LockModeType.PESSIMISTIC_WRITE);
+      if (job == null || !lease.leasedBy().equals(job.leasedBy) || job.attemptCount != lease.attempt()) {
+        log.warnf("[%s] Lease on job %s was taken over before attempt %d started, skipping it",
+            lease.correlationId(), lease.jobId(), lease.attempt());
+        return false;
+      }
+      job.leaseUntil = Instant.now().plus(leaseDuration);
+      job.nextAttemptAt = job.leaseUntil;
+      return true;
+    });
+  }
+
+  /**
+   * Locks up to {@code limit} due jobs not locked by another transaction, longest due first whether
+   * pending or retried, in the order of the partial {@code nextAttemptAt} index.
+   */
+  @SuppressWarnings("unchecked")
+  List<StoreLegacySyncJob> claimDueJobs(int limit) {
+    return entityManager
+        .createNativeQuery(
+            "SELECT * FROM store_legacy_sync_job WHERE status IN ('PENDING', 'RETRY') AND nextAttemptAt <= :now"
+                + " ORDER BY nextAttemptAt LIMIT :limit FOR UPDATE SKIP LOCKED",
             StoreLegacySyncJob.class)
-        .setParameter("statuses", List.of(LegacySyncJobStatus.PENDING, LegacySyncJobStatus.RETRY))
-        .setParameter("now", now)
-        .setMaxResults(BATCH_SIZE)
-        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+        .setParameter("now", Instant.now())
+        .setParameter("limit", limit)
         .getResultList();
+  }
 
-    for (StoreLegacySyncJob job : jobs) {
-      processJob(job);
-    }
+  /**
+   * Returns when the next waiting job is due, leased ones included, for workers to sleep until then.
+   *
+   * @return the earliest next attempt time, or null if no job is waiting
+   */
+  public Instant nextDueAt() {
+    return inTransaction(() -> entityManager
+        .createQuery("SELECT MIN(j.nextAttemptAt) FROM StoreLegacySyncJob j WHERE j.status IN :statuses", Instant.class)
+        .setParameter("statuses", List.of(LegacySyncJobStatus.PENDING, LegacySyncJobStatus.RETRY))
+        .getSingleResult());
   }
 
   /**
-   * Processes a single job, handling optimistic locking conflicts gracefully.
+   * Collapses the waiting jobs of a store into the one with the newest expected version, falling
+   * back to creation order, and marks the others as {@link LegacySyncJobStatus#SKIPPED}. Every
+   * attempt sends the store as it is at that time, so the surviving job carries all their changes;
+   * if a skipped job was to create the store, the survivor creates it.
+   *
+   * <p>Jobs under an unexpired lease or locked by another transaction are left out, as their
+   * attempt may already be under way.</p>
    *
-   * <p>If another thread has already processed this job (OptimisticLockException), this call
-   * is a no-op.</p>
+   * @param storeId the store whose jobs to collapse
+   * @return the surviving job, or null if the store has no waiting job that could be locked
    */
-  @Transactional
-  public void processJob(StoreLegacySyncJob job) {
-    if (job == null || job.id == null) {
-      return;
+  @SuppressWarnings("unchecked")
+  StoreLegacySyncJob coalesce(Long storeId) {
+    List<StoreLegacySyncJob> waiting = entityManager
+        .createNativeQuery(
+            "SELECT * FROM store_legacy_sync_job WHERE storeId = :storeId AND status IN ('PENDING', 'RETRY')"
+                + " AND (leaseUntil IS NULL OR leaseUntil <= :now) FOR UPDATE SKIP LOCKED",
+            StoreLegacySyncJob.class)
+        .setParameter("storeId", storeId)
+        .setParameter("now", Instant.now())
+        .getResultList();
+    StoreLegacySyncJob newest = waiting.stream().max(NEWEST_LAST).orElse(null);
+    for (StoreLegacySyncJob job : waiting) {
+      if (job == newest) {
+        continue;
+      }
+      if (job.type == StoreChangeType.CREATED) {
+        newest.type = StoreChangeType.CREATED;
+      }
+      job.status = LegacySyncJobStatus.SKIPPED;
+      job.leasedBy = null;
+      job.leaseUntil = null;
+      job.nextAttemptAt = Instant.EPOCH;
+      job.updatedAt = Instant.now();
+      log.debugf("[%s] Legacy sync job %s for store %d superseded by job %s",
+          job.correlationId, job.id, job.storeId, newest.id);
     }
+    return newest;
+  }
 
-    // Reload with lock to ensure we have the latest state and prevent concurrent processing.
-    StoreLegacySyncJob lockedJob = entityManager.find(StoreLegacySyncJob.class, job.id, LockModeType.PESSIMISTIC_WRITE);
-    if (lockedJob == null) {
-      log.warnf("Job %s no longer exists", job.id);
-      return;
+  /**
+   * Processes a single job right away, whether it is due or not.
+   *
+   * <p>Jobs that are completed or currently leased by another worker are left alone.</p>
+   *
+   * @return whether the job was attempted and failed, so it waits for a retry
+   */
+  public boolean processJob(StoreLegacySyncJob job) {
+    if (job == null || job.id == null) {
+      return false;
     }
 
-    if (lockedJob.status == LegacySyncJobStatus.SUCCEEDED || lockedJob.status == LegacySyncJobStatus.FAILED) {
-      return;
-    }
+    JobLease lease = inTransaction(() -> {
+      StoreLegacySyncJob lockedJob = entityManager.find(StoreLegacySyncJob.class, job.id, LockModeType.PESSIMISTIC_WRITE);
+      if (lockedJob == null) {
+        log.warnf("Job %s no longer exists", job.id);
+        return null;
+      }
+      if (lockedJob.status == LegacySyncJobStatus.SUCCEEDED || lockedJob.status == LegacySyncJobStatus.FAILED
+          || lockedJob.status == LegacySyncJobStatus.SKIPPED) {
+        return null;
+      }
+      Instant now = Instant.now();
+      if (lockedJob.leaseUntil != null && lockedJob.leaseUntil.isAfter(now)) {
+        log.debugf("[%s] Job %s is leased by %s, skipping", lockedJob.correlationId, lockedJob.id, lockedJob.leasedBy);
+        return null;
+      }
+      return lease(lockedJob, now);
+    });
+    return lease != null && !execute(lease);
+  }
 
-    try {
-      attempt(lockedJob);
-    } catch (OptimisticLockException ex) {
-      log.debugf(ex, "[%s] Job %s was concurrently modified, skipping", lockedJob.correlationId, lockedJob.id);
+  /**
+   * Takes the lease on a locked job and reads the store to send. Jobs that cannot be attempted are
+   * failed here instead.
+   *
+   * @return the lease, or null if the job was failed
+   */
+  private JobLease lease(StoreLegacySyncJob job, Instant now) {
+    if (job.attemptCount >= MAX_ATTEMPTS) {
+      // Only a lease that expired on the last attempt gets here.
+      fail(job, job.lastError == null ? "Lease expired on the last attempt" : job.lastError);
+      log.errorf("[%s] Legacy sync permanently failed for store %d (%s) after %d attempts",
+          job.correlationId, job.storeId, job.type, job.attemptCount);
+      return null;
     }
-  }
 
-  private void attempt(StoreLegacySyncJob job) {
     job.attemptCount += 1;
-    job.updatedAt = Instant.now();
+    job.updatedAt = now;
 
     Store store = entityManager.find(Store.class, job.storeId);
     if (store == null) {
       fail(job, "Store not found: " + job.storeId);
-      return;
+      return null;
+    }
+    if (job.type != StoreChangeType.CREATED && job.type != StoreChangeType.UPDATED) {
+      fail(job, "Unknown store change type: " + job.type);
+      return null;
     }
 
+    job.leasedBy = instanceId + "/" + Thread.currentThread().getName();
+    job.leaseUntil = now.plus(leaseDuration);
+    job.nextAttemptAt = job.leaseUntil;
+    return new JobLease(job.id, job.leasedBy, job.attemptCount, job.type, job.correlationId, store);
+  }
+
+  /**
+   * Calls the legacy system for a leased job, outside of any transaction started here, and records
+   * the result.
+   *
+   * @return whether the legacy system accepted the store
+   */
+  private boolean execute(JobLease lease) {
+    Exception failure = null;
     try {
-      if (job.type == StoreChangeType.CREATED) {
-        legacyStoreManagerGateway.createStoreOnLegacySystem(store);
-      } else if (job.type == StoreChangeType.UPDATED) {
-        legacyStoreManagerGateway.updateStoreOnLegacySystem(store);
+      if (lease.type() == StoreChangeType.CREATED) {
+        legacyStoreManagerGateway.createStoreOnLegacySystem(lease.store());
       } else {
-        fail(job, "Unknown store change type: " + job.type);
-        return;
+        legacyStoreManagerGateway.updateStoreOnLegacySystem(lease.store());
       }
-
-      job.status = LegacySyncJobStatus.SUCCEEDED;
-      job.lastError = null;
-      job.nextAttemptAt = Instant.EPOCH;
-      job.updatedAt = Instant.now();
-      log.infof("[%s] Legacy sync succeeded for store %d (%s) after %d attempt(s)",
-          job.correlationId, job.storeId, job.type, job.attemptCount);
-    } catch (LegacySyncException ex) {
-      retryOrFail(job, ex);
     } catch (Exception ex) {
-      retryOrFail(job, ex);
+      failure = ex;
+    }
+
+    Exception outcome = failure;
+    inTransaction(() -> {
+      record(lease, outcome);
+      return null;
+    });
+    return failure == null;
+  }
+
+  private void record(JobLease lease, Exception failure) {
+    StoreLegacySyncJob job = entityManager.find(StoreLegacySyncJob.class, lease.jobId(), LockModeType.PESSIMISTIC_WRITE);
+    if (job == null || !lease.leasedBy().equals(job.leasedBy) || job.attemptCount != lease.attempt()) {
+      log.warnf("[%s] Lease on job %s was taken over before attempt %d completed, dropping its result",
+          lease.correlationId(), lease.jobId(), lease.attempt());
+      return;
     }
+
+    job.leasedBy = null;
+    job.leaseUntil = null;
+    if (failure != null) {
+      retryOrFail(job, failure);
+      return;
+    }
+
+    job.status = LegacySyncJobStatus.SUCCEEDED;
+    job.lastError = null;
+    job.nextAttemptAt = Instant.EPOCH;
+    job.updatedAt = Instant.now();
+    log.infof("[%s] Legacy sync succeeded for store %d (%s) after %d attempt(s)",
+        job.correlationId, job.storeId, job.type, job.attemptCount);
   }
 
   private void retryOrFail(StoreLegacySyncJob job, Exception ex) {
@@ -145,6 +330,8 @@ public class StoreLegacySyncJobWorker {
     job.status = LegacySyncJobStatus.FAILED;
     job.lastError = error;
     job.nextAttemptAt = Instant.EPOCH;
+    job.leasedBy = null;
+    job.leaseUntil = null;
     job.updatedAt = Instant.now();
   }
 
@@ -159,5 +346,22 @@ public class StoreLegacySyncJobWorker {
     long millis = INITIAL_BACKOFF.toMillis() * factor;
     return Duration.ofMillis(Math.min(millis, MAX_BACKOFF.toMillis()));
   }
-}
 
+  /**
+   * Runs work in the caller's transaction if one is active, otherwise in a short new one. A
+   * transaction that has already completed, as in an after-commit observer, does not count.
+   */
+  private <T> T inTransaction(Supplier<T> work) {
+    if (transactionRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+      return work.get();
+    }
+    return QuarkusTransaction.requiringNew().call(work::get);
+  }
+
+  /**
+   * What the legacy call of a leased job needs, read while the job was locked.
+   */
+  private record JobLease(UUID jobId, String leasedBy, int attempt, StoreChangeType type,
+      String correlationId, Store store) {
+  }
+}
@@ -3,21 +3,31 @@ package com.fulfilment.application.monolith.stores.adapters.legacy;
 import com.fulfilment.application.monolith.stores.adapters.database.Store;
 import com.fulfilment.application.monolith.stores.domain.events.StoreChangeType;
 import com.fulfilment.application.monolith.stores.domain.events.StoreChangedEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.event.Event;
 import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.event.TransactionPhase;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /**
  * Service for synchronizing store operations with legacy systems.
  *
  * <p>This service publishes a general-purpose {@link StoreChangedEvent} inside the store write
  * transaction. After a successful commit, it enqueues a durable {@link StoreLegacySyncJob} and
- * attempts it immediately. Failures are retried asynchronously by {@link StoreLegacySyncJobWorker}.</p>
+ * attempts it immediately on a bounded executor, off the request thread. Failures are retried
+ * asynchronously by {@link StoreLegacySyncJobWorker}, whose idle workers are woken through
+ * {@link StoreLegacySyncJobSignal}.</p>
  */
 @ApplicationScoped
 @JBossLog
@@ -25,8 +35,37 @@ public class StoreSyncService {
 
   @Inject StoreLegacySyncJobWorker jobWorker;
 
+  @Inject StoreLegacySyncJobSignal jobSignal;
+
   @Inject Event<StoreChangedEvent> storeEvents;
 
+  @ConfigProperty(name = "store.legacy-sync.dispatch.threads", defaultValue = "4")
+  int dispatchThreads;
+
+  @ConfigProperty(name = "store.legacy-sync.dispatch.queue-size", defaultValue = "100")
+  int dispatchQueueSize;
+
+  private ThreadPoolExecutor dispatcher;
+
+  @PostConstruct
+  void start() {
+    AtomicInteger threads = new AtomicInteger();
+    dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(dispatchQueueSize), r -> {
+          Thread t = new Thread(r, "store-legacy-sync-dispatch-" + threads.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @PreDestroy
+  void stop() {
+    if (dispatcher != null) {
+      // Jobs still queued stay in the job table for the background workers.
+      dispatcher.shutdownNow();
+    }
+  }
+
   public void scheduleCreateSync(Store store) {
     publishStoreEvent(store, StoreChangeType.CREATED);
   }
@@ -53,10 +92,13 @@ public class StoreSyncService {
   /**
    * Observes {@link StoreChangedEvent} only after a successful commit and enqueues a durable job.
    *
-   * <p>The job is attempted immediately (in a new transaction) and, if it fails, will be retried
-   * by the background worker.</p>
+   * <p>The job is persisted in a new transaction, which also collapses the jobs still waiting for the
+   * store into the newest one. That job is then handed to the dispatch executor to be attempted
+   * immediately, so the request does not wait for the legacy system. Workers are only signalled when
+   * the job is left to them: if the executor queue is full, one worker of this node is woken and the
+   * other nodes are notified, and if the attempt fails, one worker of this node is woken to sleep
+   * until the retry is due.</p>
    */
-  @Transactional(Transactional.TxType.REQUIRES_NEW)
   void onStoreChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreChangedEvent event) {
     if (event == null || event.storeId() == null) {
       return;
@@ -74,9 +116,33 @@ public class StoreSyncService {
         event.expectedVersion(),
         event.correlationId()
     );
-    job.persist();
+    StoreLegacySyncJob newest = QuarkusTransaction.requiringNew().call(() -> {
+      job.persistAndFlush();
+      return jobWorker.coalesce(job.storeId);
+    });
 
-    jobWorker.processJob(job);
+    try {
+      dispatcher.execute(() -> attempt(newest));
+    } catch (RejectedExecutionException e) {
+      // The job is durable: with the queue full, the background workers take it instead.
+      log.debugf("[%s] Immediate legacy sync queue is full, leaving job %s to the workers",
+          event.correlationId(), newest == null ? job.id : newest.id);
+      jobSignal.wakeUp();
+      QuarkusTransaction.requiringNew().run(jobSignal::notifyNodes);
+    }
   }
-}
 
+  private void attempt(StoreLegacySyncJob job) {
+    boolean failed;
+    try {
+      failed = jobWorker.processJob(job);
+    } catch (Exception e) {
+      log.errorf(e, "Immediate legacy sync attempt of job %s failed", job.id);
+      failed = true;
+    }
+    if (failed) {
+      // Lets an idle worker pick up the retry as soon as it is due.
+      jobSignal.wakeUp();
+    }
+  }
+}
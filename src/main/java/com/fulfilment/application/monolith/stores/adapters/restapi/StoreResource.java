@@ -1,20 +1,20 @@
 package com.fulfilment.application.monolith.stores.adapters.restapi;
 
 import com.fulfilment.application.monolith.common.ApiError;
+import com.fulfilment.application.monolith.common.PageParams;
 import com.fulfilment.application.monolith.stores.adapters.database.Store;
 import com.fulfilment.application.monolith.stores.adapters.legacy.StoreSyncService;
 import com.fulfilment.application.monolith.stores.adapters.restapi.dto.CreateStoreRequest;
 import com.fulfilment.application.monolith.stores.adapters.restapi.dto.PatchStoreRequest;
 import com.fulfilment.application.monolith.stores.adapters.restapi.dto.StoreResponse;
 import com.fulfilment.application.monolith.stores.adapters.restapi.dto.UpdateStoreRequest;
-import com.fulfilment.application.monolith.stores.domain.exceptions.StoreAlreadyExistsException;
 import com.fulfilment.application.monolith.stores.domain.exceptions.StoreNotFoundException;
-import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -24,10 +24,10 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
 import jakarta.persistence.OptimisticLockException;
-import java.util.List;
-import java.util.stream.Collectors;
 import lombok.extern.jbosslog.JBossLog;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
@@ -52,19 +52,21 @@ public class StoreResource {
   @Inject StoreSyncService storeSyncService;
 
   @GET
-  @Operation(summary = "List all stores", description = "Retrieves a list of all stores sorted by name")
+  @Operation(summary = "List stores",
+      description = "Retrieves the stores sorted by name. With a cursor or limit only one page is returned, and a Link"
+          + " header with rel=\"next\" points to the following page")
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "Successful operation",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = StoreResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid cursor or limit",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
-  public List<StoreResponse> get() {
-    return Store.listAll(Sort.by("name"))
-        .stream()
-        .map(Store.class::cast)
+  public Response get(@Valid @BeanParam PageParams page, @Context UriInfo uriInfo) {
+    return Store.listPage(page.afterWithId(), page.limit())
         .map(this::toResponse)
-        .collect(Collectors.toList());
+        .toResponse(uriInfo, page.limit());
   }
 
   @GET
@@ -92,17 +94,16 @@ public class StoreResource {
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = StoreResponse.class))),
       @APIResponse(responseCode = "400", description = "Invalid request data (validation failed)",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "409", description = "Store name already exists",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error or legacy sync failure",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
   public Response create(@NotNull(message = "Store cannot be null.") @Valid CreateStoreRequest request) {
-    if (Store.count("name", request.name()) > 0) {
-      throw new StoreAlreadyExistsException(request.name());
-    }
     Store store = new Store();
     store.setName(request.name());
     store.setQuantityProductsInStock(request.quantityProductsInStock());
-    store.persist();
+    store.save();
     
     log.infof("Created store: %s (id: %d)", store.getName(), store.getId());
     storeSyncService.scheduleCreateSync(store);
@@ -120,7 +121,7 @@ public class StoreResource {
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "404", description = "Store not found",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
-      @APIResponse(responseCode = "409", description = "Optimistic locking conflict",
+      @APIResponse(responseCode = "409", description = "Optimistic locking conflict or store name already exists",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error or legacy sync failure",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
@@ -136,18 +137,11 @@ public class StoreResource {
   private Store updateStore(Store entity, UpdateStoreRequest request, Long id) {
     Long originalVersion = entity.getVersion();
 
-    // Avoid an extra DB roundtrip when name is unchanged
-    if (entity.getName() == null || !entity.getName().equals(request.name())) {
-      if (Store.count("name = ?1 AND id <> ?2", request.name(), id) > 0) {
-        throw new StoreAlreadyExistsException(request.name());
-      }
-    }
-
     entity.setName(request.name());
     entity.setQuantityProductsInStock(request.quantityProductsInStock());
 
     try {
-      entity.persist();
+      entity.save();
       log.infof("Updated store: %s (id: %d, version: %d -> %d)",
           entity.getName(), entity.getId(), originalVersion, entity.getVersion());
       storeSyncService.scheduleUpdateSync(entity);
@@ -170,7 +164,7 @@ public class StoreResource {
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "404", description = "Store not found",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
-      @APIResponse(responseCode = "409", description = "Optimistic locking conflict",
+      @APIResponse(responseCode = "409", description = "Optimistic locking conflict or store name already exists",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error or legacy sync failure",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
@@ -187,14 +181,7 @@ public class StoreResource {
   private boolean applyPartialUpdates(Store entity, PatchStoreRequest request) {
     boolean updated = false;
     if (request.name() != null && !request.name().trim().isEmpty()) {
-      String newName = request.name().trim();
-      // Avoid an extra DB roundtrip when name is unchanged
-      if (entity.getName() == null || !entity.getName().equals(newName)) {
-        if (Store.count("name = ?1 AND id <> ?2", newName, entity.getId()) > 0) {
-          throw new StoreAlreadyExistsException(newName);
-        }
-      }
-      entity.setName(newName);
+      entity.setName(request.name().trim());
       updated = true;
     }
     if (request.quantityProductsInStock() != null) {
@@ -207,7 +194,7 @@ public class StoreResource {
   private Store persistAndSync(Store entity, Long id) {
     Long originalVersion = entity.getVersion();
     try {
-      entity.persist();
+      entity.save();
       log.infof("Patched store: %s (id: %d, version: %d -> %d)",
           entity.getName(), entity.getId(), originalVersion, entity.getVersion());
       storeSyncService.scheduleUpdateSync(entity);
@@ -0,0 +1,140 @@
+package com.fulfilment.application.monolith.warehouses.adapters.cache;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.annotation.Priority;
+import jakarta.decorator.Decorator;
+import jakarta.decorator.Delegate;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Read-through caching decorator for the {@link WarehouseStore} port.
+ *
+ * <p>{@link #findByBusinessUnitCode(String)} is served from {@link WarehouseCache};
+ * {@link #findCurrentByBusinessUnitCode(String)}, used by the write use cases, never is. Codes written
+ * by the current transaction bypass the cache until it completes, so a use case always reads its
+ * own writes and never publishes uncommitted state; their entries are invalidated once the
+ * transaction has completed. Writes outside a transaction invalidate immediately.</p>
+ */
+@Decorator
+@Priority(10)
+@JBossLog
+public class CachingWarehouseStore implements WarehouseStore {
+
+  private static final String WRITTEN_RESOURCE_KEY = CachingWarehouseStore.class.getName() + ".written";
+
+  @Inject
+  @Delegate
+  @Any
+  WarehouseStore delegate;
+
+  @Inject
+  WarehouseCache cache;
+
+  @Inject
+  TransactionSynchronizationRegistry transactionRegistry;
+
+  @Override
+  public void create(Warehouse warehouse) {
+    written(List.of(warehouse.getBusinessUnitCode()));
+    delegate.create(warehouse);
+  }
+
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    written(warehouses.stream().map(Warehouse::getBusinessUnitCode).toList());
+    delegate.createAll(warehouses);
+  }
+
+  @Override
+  public Warehouse update(Warehouse warehouse) {
+    written(List.of(warehouse.getBusinessUnitCode()));
+    return delegate.update(warehouse);
+  }
+
+  @Override
+  public Warehouse archive(String buCode, Long expectedVersion, ZonedDateTime archivedAt) {
+    if (buCode != null) {
+      written(List.of(buCode));
+    }
+    return delegate.archive(buCode, expectedVersion, archivedAt);
+  }
+
+  @Override
+  public Warehouse adjustStock(String buCode, int delta) {
+    written(List.of(buCode));
+    return delegate.adjustStock(buCode, delta);
+  }
+
+  @Override
+  public void remove(Warehouse warehouse) {
+    written(List.of(warehouse.getBusinessUnitCode()));
+    delegate.remove(warehouse);
+  }
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    if (!cache.isEnabled() || buCode == null || writtenInTransaction().contains(buCode)) {
+      return delegate.findByBusinessUnitCode(buCode);
+    }
+    return cache.get(buCode, delegate::findByBusinessUnitCode);
+  }
+
+  @Override
+  public Warehouse findCurrentByBusinessUnitCode(String buCode) {
+    return delegate.findCurrentByBusinessUnitCode(buCode);
+  }
+
+  @Override
+  public Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes) {
+    return delegate.findExistingBusinessUnitCodes(buCodes);
+  }
+
+  /**
+   * Records codes about to be written. Inside a transaction they are invalidated after it completes,
+   * whether it committed or not; otherwise they are invalidated right away.
+   */
+  private void written(Collection<String> buCodes) {
+    if (transactionRegistry.getTransactionKey() == null) {
+      buCodes.forEach(cache::invalidate);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<String> written = (Set<String>) transactionRegistry.getResource(WRITTEN_RESOURCE_KEY);
+    if (written == null) {
+      Set<String> codes = new HashSet<>();
+      transactionRegistry.putResource(WRITTEN_RESOURCE_KEY, codes);
+      transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+        @Override
+        public void beforeCompletion() {
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          codes.forEach(cache::invalidate);
+          log.debugf("Invalidated %d cached warehouse(s) after transaction completion", codes.size());
+        }
+      });
+      written = codes;
+    }
+    written.addAll(buCodes);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<String> writtenInTransaction() {
+    if (transactionRegistry.getTransactionKey() == null) {
+      return Set.of();
+    }
+    Set<String> written = (Set<String>) transactionRegistry.getResource(WRITTEN_RESOURCE_KEY);
+    return written == null ? Set.of() : written;
+  }
+}
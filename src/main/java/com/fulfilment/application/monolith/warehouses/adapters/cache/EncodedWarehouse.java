@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith.warehouses.adapters.cache;
+
+import java.util.function.Supplier;
+
+/**
+ * A cached warehouse with its JSON encoding, as returned by {@link WarehouseCache#getEncoded}.
+ *
+ * <p>The version is known without encoding, so a conditional request can be answered from it
+ * alone. The body is encoded on the first call to {@link #json()} and then shared by every lookup
+ * of the same cache entry.</p>
+ */
+public final class EncodedWarehouse {
+
+  private final Long version;
+
+  private final Supplier<byte[]> encoder;
+
+  private volatile byte[] json;
+
+  EncodedWarehouse(Long version, Supplier<byte[]> encoder) {
+    this.version = version;
+    this.encoder = encoder;
+  }
+
+  /**
+   * Returns the version of the warehouse, for its entity tag.
+   *
+   * @return the version
+   */
+  public Long version() {
+    return version;
+  }
+
+  /**
+   * Returns the encoded response body, encoding it on the first call.
+   *
+   * @return the JSON bytes, shared between lookups and never to be modified
+   */
+  public byte[] json() {
+    byte[] encoded = json;
+    if (encoded == null) {
+      // Racing calls may both encode; they produce the same bytes and either one is kept.
+      encoded = encoder.get();
+      json = encoded;
+    }
+    return encoded;
+  }
+}
@@ -0,0 +1,207 @@
+package com.fulfilment.application.monolith.warehouses.adapters.cache;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Bounded cache of committed warehouses by business unit code, backing {@link CachingWarehouseStore}.
+ *
+ * <p>Entries are evicted by size and by age; unknown codes are cached as negative entries with a
+ * separate, usually shorter, time to live. Cached warehouses are copied on the way in and out, so
+ * callers are free to modify what they get. An entry can also hold the JSON encoding of its
+ * warehouse, made the first time a {@link #getEncoded} lookup asks for the body, which is dropped
+ * together with it.</p>
+ *
+ * <p>A lookup that raced with an invalidation does not keep its result: every invalidation bumps
+ * a sequence number, and a loaded value is dropped again if the sequence moved while it was read.</p>
+ *
+ * <p>Rows written outside the {@link com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore}
+ * port (bulk deletes, manual fixes) are not seen until their entries expire or {@link #invalidateAll()}
+ * is called.</p>
+ *
+ * <p>The cache is local to each node and writes only invalidate it on the node that made them.
+ * Other nodes keep serving the previous warehouse, its encoding and its ETag (so also
+ * {@code 304 Not Modified}) until the entry expires: the staleness across nodes is bounded by
+ * {@code warehouse.cache.ttl}, and by {@code warehouse.cache.negative-ttl} for a code created on
+ * another node. Both are kept short for that reason; raise them only where that much staleness is
+ * acceptable.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class WarehouseCache {
+
+  @ConfigProperty(name = "warehouse.cache.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "warehouse.cache.maximum-size", defaultValue = "10000")
+  long maximumSize;
+
+  @ConfigProperty(name = "warehouse.cache.ttl", defaultValue = "10s")
+  Duration ttl;
+
+  @ConfigProperty(name = "warehouse.cache.negative-ttl", defaultValue = "5s")
+  Duration negativeTtl;
+
+  private final AtomicLong invalidations = new AtomicLong();
+  private final LongAdder negativeHits = new LongAdder();
+
+  private Cache<String, Optional<Entry>> entries;
+
+  @PostConstruct
+  void init() {
+    entries = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new TtlExpiry(ttl.toNanos(), negativeTtl.toNanos()))
+        .recordStats()
+        .build();
+    log.infof("Warehouse cache %s (maximum size %d, ttl %s, negative ttl %s)",
+        enabled ? "enabled" : "disabled", maximumSize, ttl, negativeTtl);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the cached warehouse for a business unit code, loading and caching it on a miss.
+   *
+   * @param buCode the business unit code
+   * @param loader reads the committed warehouse, returning null if it does not exist
+   * @return a copy of the warehouse, or null if it does not exist
+   */
+  public Warehouse get(String buCode, Function<String, Warehouse> loader) {
+    Entry entry = entry(buCode, loader);
+    return entry == null ? null : copy(entry.warehouse);
+  }
+
+  /**
+   * Returns the JSON encoding of the cached warehouse for a business unit code, loading and caching
+   * the warehouse on a miss. The encoding is made once per entry, when its body is first asked for,
+   * and then shared by every lookup until the entry is invalidated or expires, so the bytes must not
+   * be modified.
+   *
+   * @param buCode the business unit code
+   * @param loader reads the committed warehouse, returning null if it does not exist
+   * @param encoder encodes a warehouse as JSON
+   * @return the encoded warehouse, or null if it does not exist
+   */
+  public EncodedWarehouse getEncoded(String buCode, Function<String, Warehouse> loader,
+      Function<Warehouse, byte[]> encoder) {
+    Entry entry = entry(buCode, loader);
+    if (entry == null) {
+      return null;
+    }
+    EncodedWarehouse encoded = entry.encoded;
+    if (encoded == null) {
+      // Racing lookups may both create one; either is kept and the other is never encoded.
+      encoded = new EncodedWarehouse(entry.warehouse.getVersion(), () -> encoder.apply(copy(entry.warehouse)));
+      entry.encoded = encoded;
+    }
+    return encoded;
+  }
+
+  /**
+   * Drops the entry for a business unit code.
+   *
+   * @param buCode the business unit code
+   */
+  public void invalidate(String buCode) {
+    invalidations.incrementAndGet();
+    entries.invalidate(buCode);
+  }
+
+  /**
+   * Drops all entries, for callers that changed warehouse rows outside the store port.
+   */
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    entries.invalidateAll();
+  }
+
+  /**
+   * Returns the current hit, miss and eviction counters.
+   *
+   * @return the cache statistics
+   */
+  public WarehouseCacheStats stats() {
+    CacheStats stats = entries.stats();
+    return new WarehouseCacheStats(enabled, entries.estimatedSize(), maximumSize, stats.hitCount(),
+        negativeHits.sum(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+  }
+
+  private Entry entry(String buCode, Function<String, Warehouse> loader) {
+    Optional<Entry> cached = entries.getIfPresent(buCode);
+    if (cached != null) {
+      if (cached.isEmpty()) {
+        negativeHits.increment();
+      }
+      return cached.orElse(null);
+    }
+    long sequence = invalidations.get();
+    Optional<Entry> loaded = Optional.ofNullable(loader.apply(buCode)).map(warehouse -> new Entry(copy(warehouse)));
+    entries.put(buCode, loaded);
+    if (invalidations.get() != sequence) {
+      entries.invalidate(buCode);
+    }
+    return loaded.orElse(null);
+  }
+
+  private static Warehouse copy(Warehouse warehouse) {
+    Warehouse copy = new Warehouse();
+    copy.setBusinessUnitCode(warehouse.getBusinessUnitCode());
+    copy.setLocation(warehouse.getLocation());
+    copy.setCapacity(warehouse.getCapacity());
+    copy.setStock(warehouse.getStock());
+    copy.setCreationAt(warehouse.getCreationAt());
+    copy.setArchivedAt(warehouse.getArchivedAt());
+    copy.setVersion(warehouse.getVersion());
+    return copy;
+  }
+
+  /**
+   * A cached warehouse, never handed out itself, with its JSON encoding once one was asked for.
+   */
+  private static final class Entry {
+
+    private final Warehouse warehouse;
+
+    private volatile EncodedWarehouse encoded;
+
+    private Entry(Warehouse warehouse) {
+      this.warehouse = warehouse;
+    }
+  }
+
+  /**
+   * Expires found warehouses after the regular time to live and unknown codes after the negative one.
+   */
+  private record TtlExpiry(long ttlNanos, long negativeTtlNanos) implements Expiry<String, Optional<Entry>> {
+
+    @Override
+    public long expireAfterCreate(String key, Optional<Entry> value, long currentTime) {
+      return value.isPresent() ? ttlNanos : negativeTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Optional<Entry> value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String key, Optional<Entry> value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.warehouses.adapters.cache;
+
+/**
+ * Point-in-time counters of the {@link WarehouseCache}, used to size it.
+ *
+ * @param enabled whether lookups go through the cache
+ * @param size the approximate number of cached entries, negative entries included
+ * @param maximumSize the configured maximum number of entries
+ * @param hitCount lookups answered from the cache
+ * @param negativeHitCount hits that answered an unknown business unit code
+ * @param missCount lookups that went to the database
+ * @param evictionCount entries evicted for size or expiry
+ * @param hitRate the ratio of hits to lookups, 1.0 if there were no lookups
+ */
+public record WarehouseCacheStats(
+    boolean enabled,
+    long size,
+    long maximumSize,
+    long hitCount,
+    long negativeHitCount,
+    long missCount,
+    long evictionCount,
+    double hitRate
+) {
+}
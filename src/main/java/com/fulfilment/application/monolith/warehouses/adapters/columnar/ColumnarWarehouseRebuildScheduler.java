@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.warehouses.adapters.columnar;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Loads {@link ColumnarWarehouseRegistry} at startup and periodically rebuilds it from the database,
+ * if the registry is enabled.
+ */
+@ApplicationScoped
+@JBossLog
+public class ColumnarWarehouseRebuildScheduler {
+
+  @Inject ColumnarWarehouseRegistry registry;
+
+  @ConfigProperty(name = "warehouse.columnar.rebuild-interval", defaultValue = "10m")
+  Duration rebuildInterval;
+
+  private ScheduledExecutorService executor;
+
+  void start(@Observes StartupEvent event) {
+    if (!registry.isEnabled()) {
+      return;
+    }
+    int loaded = registry.rebuild();
+    log.infof("Columnar warehouse registry enabled with %d warehouse(s), rebuilding every %s", loaded, rebuildInterval);
+    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "columnar-warehouse-rebuilder");
+      t.setDaemon(true);
+      return t;
+    });
+    long intervalMs = rebuildInterval.toMillis();
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        registry.rebuild();
+      } catch (Exception e) {
+        log.error("Error rebuilding columnar warehouse registry", e);
+      }
+    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.fulfilment.application.monolith.warehouses.adapters.columnar;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancySnapshot;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseResponse;
+import com.fulfilment.application.monolith.warehouses.adapters.stock.StockLedger;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangeType;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseState;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Optional in-memory read model of all warehouses in columnar form, for analytical scans that run
+ * many times a second without touching the database.
+ *
+ * <p>When enabled, the columns are loaded from the warehouse table by
+ * {@link ColumnarWarehouseRebuildScheduler} at startup and then rebuilt periodically. In between,
+ * every {@link WarehouseChangedEvent} is written into its slot once the emitting transaction has
+ * committed. A change committed while a rebuild reads the table is replayed onto the rebuilt
+ * columns, so it is not lost when they replace the current ones.</p>
+ *
+ * <p>Changes are ordered by the stored warehouse version: a change that is not newer than its slot,
+ * such as one delivered after a later change or one already contained in a rebuild, is ignored. In
+ * write-behind stock mode the version only moves on flush, so a stock movement at the slot's
+ * version is added to the slot as a delta instead.</p>
+ *
+ * <p>When enabled, {@code GET /warehouse/stats} is served from {@link #occupancyByLocation(boolean)}.
+ * When disabled, the default, nothing is loaded and changes are not written.</p>
+ *
+ * <p>Like {@link com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancyView},
+ * the registry is a read model: rows written outside the use cases are only seen after the next
+ * rebuild, and warehouses moved to the archive table stay in the columns as archived until then.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class ColumnarWarehouseRegistry {
+
+  @ConfigProperty(name = "warehouse.columnar.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @ConfigProperty(name = "warehouse.columnar.fetch-size", defaultValue = "1000")
+  int fetchSize;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @Inject
+  StockLedger ledger;
+
+  private final Object writeLock = new Object();
+
+  private volatile WarehouseColumns columns = WarehouseColumns.withCapacity(0);
+
+  private List<WarehouseChangedEvent> changedDuringRebuild;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the number of warehouses held, archived ones included.
+   *
+   * @return the number of slots in use
+   */
+  public int size() {
+    return columns.size();
+  }
+
+  /**
+   * Sums active warehouses, capacity and stock per location from the columns.
+   *
+   * @param parallel whether to split the scan over the common fork-join pool
+   * @return one snapshot per location with at least one active warehouse
+   */
+  public List<LocationOccupancySnapshot> occupancyByLocation(boolean parallel) {
+    return columns.occupancyByLocation(parallel);
+  }
+
+  /**
+   * Lists the active warehouses at a location whose stock is at least a fraction of their capacity.
+   *
+   * @param locationIdentifier the location identifier, or null for every location
+   * @param minUtilization the minimum stock divided by capacity, 0 to match every warehouse
+   * @param parallel whether to split the scan over the common fork-join pool
+   * @return the business unit codes of the matching warehouses
+   */
+  public List<String> findUtilized(String locationIdentifier, double minUtilization, boolean parallel) {
+    return columns.matching(locationIdentifier, minUtilization, parallel);
+  }
+
+  /**
+   * Replaces the columns with the current contents of the warehouse table, read in one
+   * transaction with a forward-only cursor.
+   *
+   * @return the number of warehouses loaded
+   */
+  public int rebuild() {
+    synchronized (writeLock) {
+      changedDuringRebuild = new ArrayList<>();
+    }
+    WarehouseColumns rebuilt;
+    try {
+      rebuilt = QuarkusTransaction.requiringNew().call(() -> {
+        WarehouseColumns[] loading = {WarehouseColumns.withCapacity((int) warehouseRepository.count())};
+        warehouseRepository.forEachWarehouse(fetchSize, WarehouseResponse.class, warehouse ->
+            loading[0] = put(loading[0], warehouse.businessUnitCode(), warehouse.location(),
+                warehouse.capacity(), warehouse.stock(), warehouse.archivedAt() != null,
+                versionOf(warehouse.version())));
+        return loading[0];
+      });
+    } catch (RuntimeException e) {
+      synchronized (writeLock) {
+        changedDuringRebuild = null;
+      }
+      throw e;
+    }
+    synchronized (writeLock) {
+      for (WarehouseChangedEvent event : changedDuringRebuild) {
+        rebuilt = write(rebuilt, event);
+      }
+      changedDuringRebuild = null;
+      columns = rebuilt;
+    }
+    log.debugf("Rebuilt columnar warehouse registry with %d warehouse(s)", rebuilt.size());
+    return rebuilt.size();
+  }
+
+  /**
+   * Writes a change into the columns once its transaction has committed.
+   */
+  void apply(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChangedEvent event) {
+    if (!enabled) {
+      return;
+    }
+    synchronized (writeLock) {
+      if (changedDuringRebuild != null) {
+        changedDuringRebuild.add(event);
+      }
+      columns = write(columns, event);
+    }
+  }
+
+  private WarehouseColumns write(WarehouseColumns target, WarehouseChangedEvent event) {
+    WarehouseState current = event.current();
+    if (current == null) {
+      // The archived state is the previous one, carrying the version the archive wrote.
+      target.archive(event.businessUnitCode(), versionOf(event.previous().version()));
+      return target;
+    }
+    long version = versionOf(current.version());
+    if (event.type() == WarehouseChangeType.STOCK_ADJUSTED && ledger.isEnabled()
+        && target.addStock(event.businessUnitCode(), current.stock() - event.previous().stock(), version)) {
+      return target;
+    }
+    return put(target, event.businessUnitCode(), current.location(), current.capacity(), current.stock(), false,
+        version);
+  }
+
+  private static WarehouseColumns put(WarehouseColumns target, String businessUnitCode, String location,
+      Integer capacity, Integer stock, boolean archived, long version) {
+    WarehouseColumns room = target.hasRoom() ? target : target.grow();
+    room.put(businessUnitCode, location, capacity == null ? 0 : capacity, stock == null ? 0 : stock, archived,
+        version);
+    return room;
+  }
+
+  private static long versionOf(Long version) {
+    return version == null ? 0 : version;
+  }
+}
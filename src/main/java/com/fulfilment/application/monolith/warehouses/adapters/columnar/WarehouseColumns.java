@@ -0,0 +1,261 @@
+package com.fulfilment.application.monolith.warehouses.adapters.columnar;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancySnapshot;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Warehouses stored column by column in primitive arrays, one slot per warehouse.
+ *
+ * <p>Business unit codes and locations are dictionary encoded: a slot is found by its code through
+ * {@code slots}, and {@code location} holds ordinals into {@code locations}. Archived slots are
+ * marked in a {@code long[]} bitset, so the scans read the archive flag with a shift instead of a
+ * branch and add active rows with a multiplication by 0 or 1.</p>
+ *
+ * <p>Each slot keeps the stored version of its warehouse, and a write that is not newer than the
+ * slot is ignored, so changes applied out of order cannot bring a slot back to an older state.</p>
+ *
+ * <p>Writes are made by a single thread at a time, which the owning registry guarantees; scans may
+ * run concurrently from any thread once the instance has been published through a volatile field.
+ * A scan concurrent with a write may see that write in part.</p>
+ */
+final class WarehouseColumns {
+
+  /** Number of slots one scan task covers; chunks are summed sequentially and combined. */
+  static final int CHUNK = 4096;
+
+  private final Map<String, Integer> slots;
+  private final Map<String, Integer> ordinals;
+  private final String[] codes;
+  private final int[] capacity;
+  private final int[] stock;
+  private final int[] location;
+  private final long[] archived;
+  private final long[] version;
+  private final String[] locations;
+  private volatile int size;
+  private volatile int locationCount;
+
+  private WarehouseColumns(int slotCapacity, int locationCapacity, Map<String, Integer> slots,
+      Map<String, Integer> ordinals) {
+    this.slots = slots;
+    this.ordinals = ordinals;
+    this.codes = new String[slotCapacity];
+    this.capacity = new int[slotCapacity];
+    this.stock = new int[slotCapacity];
+    this.location = new int[slotCapacity];
+    this.archived = new long[(slotCapacity + 63) >>> 6];
+    this.version = new long[slotCapacity];
+    this.locations = new String[locationCapacity];
+  }
+
+  /**
+   * Creates empty columns.
+   *
+   * @param slotCapacity the number of warehouses that fit before the arrays must grow
+   * @return the columns
+   */
+  static WarehouseColumns withCapacity(int slotCapacity) {
+    return new WarehouseColumns(Math.max(slotCapacity, 64), 64, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Returns whether another warehouse and another location still fit without growing.
+   */
+  boolean hasRoom() {
+    return size < codes.length && locationCount < locations.length;
+  }
+
+  /**
+   * Copies these columns into arrays of twice the size.
+   *
+   * @return the larger copy, to be published in place of this one
+   */
+  WarehouseColumns grow() {
+    WarehouseColumns grown = new WarehouseColumns(codes.length * 2, locations.length * 2, slots, ordinals);
+    System.arraycopy(codes, 0, grown.codes, 0, size);
+    System.arraycopy(capacity, 0, grown.capacity, 0, size);
+    System.arraycopy(stock, 0, grown.stock, 0, size);
+    System.arraycopy(location, 0, grown.location, 0, size);
+    System.arraycopy(archived, 0, grown.archived, 0, archived.length);
+    System.arraycopy(version, 0, grown.version, 0, size);
+    System.arraycopy(locations, 0, grown.locations, 0, locationCount);
+    grown.locationCount = locationCount;
+    grown.size = size;
+    return grown;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Writes a warehouse into its slot if its version is newer than the slot's, appending a slot for
+   * an unknown code. The caller must have checked {@link #hasRoom()}.
+   *
+   * @return whether the slot was written
+   */
+  boolean put(String businessUnitCode, String locationIdentifier, int capacityValue, int stockValue,
+      boolean isArchived, long versionValue) {
+    Integer slot = slots.get(businessUnitCode);
+    if (slot != null && versionValue <= version[slot]) {
+      return false;
+    }
+    int index = slot == null ? size : slot;
+    codes[index] = businessUnitCode;
+    capacity[index] = capacityValue;
+    stock[index] = stockValue;
+    location[index] = ordinal(locationIdentifier);
+    version[index] = versionValue;
+    if (isArchived) {
+      archived[index >>> 6] |= 1L << index;
+    } else {
+      archived[index >>> 6] &= ~(1L << index);
+    }
+    if (slot == null) {
+      slots.put(businessUnitCode, index);
+      size = index + 1;
+    }
+    return true;
+  }
+
+  /**
+   * Adds a stock movement to the slot of a warehouse if the slot holds exactly the given version.
+   *
+   * @return whether the movement was added
+   */
+  boolean addStock(String businessUnitCode, int delta, long versionValue) {
+    Integer slot = slots.get(businessUnitCode);
+    if (slot == null || version[slot] != versionValue) {
+      return false;
+    }
+    stock[slot] += delta;
+    return true;
+  }
+
+  /**
+   * Marks the slot of a warehouse as archived if the version is newer than the slot's; unknown codes
+   * are ignored.
+   */
+  void archive(String businessUnitCode, long versionValue) {
+    Integer slot = slots.get(businessUnitCode);
+    if (slot != null && versionValue > version[slot]) {
+      archived[slot >>> 6] |= 1L << slot;
+      version[slot] = versionValue;
+    }
+  }
+
+  /**
+   * Sums active warehouses, capacity and stock per location.
+   *
+   * @param parallel whether to scan the chunks on the common fork-join pool
+   * @return one snapshot per location with at least one active warehouse, in ordinal order
+   */
+  List<LocationOccupancySnapshot> occupancyByLocation(boolean parallel) {
+    int rows = size;
+    // Sized by the dictionary array rather than the location count, so an ordinal written by a
+    // concurrent update always fits.
+    int width = locations.length;
+    long[][] totals = chunks(rows, parallel)
+        .mapToObj(chunk -> sumChunk(chunk * CHUNK, Math.min(rows, (chunk + 1) * CHUNK), width))
+        .reduce(WarehouseColumns::add)
+        .orElseGet(() -> new long[3][width]);
+    List<LocationOccupancySnapshot> snapshots = new ArrayList<>();
+    int named = locationCount;
+    for (int ordinal = 0; ordinal < named; ordinal++) {
+      if (totals[0][ordinal] > 0) {
+        snapshots.add(new LocationOccupancySnapshot(locations[ordinal],
+            totals[0][ordinal], totals[1][ordinal], totals[2][ordinal]));
+      }
+    }
+    return snapshots;
+  }
+
+  /**
+   * Lists the active warehouses at a location whose stock is at least a fraction of their capacity.
+   *
+   * @param locationIdentifier the location, or null for every location
+   * @param minUtilization the minimum stock divided by capacity
+   * @param parallel whether to scan the chunks on the common fork-join pool
+   * @return the business unit codes of the matching warehouses, in slot order
+   */
+  List<String> matching(String locationIdentifier, double minUtilization, boolean parallel) {
+    int ordinal = -1;
+    if (locationIdentifier != null) {
+      Integer known = ordinals.get(locationIdentifier);
+      if (known == null) {
+        return List.of();
+      }
+      ordinal = known;
+    }
+    int rows = size;
+    int wanted = ordinal;
+    int[] hits = chunks(rows, parallel)
+        .mapToObj(chunk -> matchChunk(chunk * CHUNK, Math.min(rows, (chunk + 1) * CHUNK), wanted, minUtilization))
+        .flatMapToInt(IntStream::of)
+        .toArray();
+    List<String> matches = new ArrayList<>(hits.length);
+    for (int slot : hits) {
+      matches.add(codes[slot]);
+    }
+    return matches;
+  }
+
+  private static IntStream chunks(int rows, boolean parallel) {
+    IntStream chunks = IntStream.range(0, (rows + CHUNK - 1) / CHUNK);
+    return parallel ? chunks.parallel() : chunks;
+  }
+
+  private long[][] sumChunk(int from, int to, int width) {
+    long[] counts = new long[width];
+    long[] capacities = new long[width];
+    long[] stocks = new long[width];
+    for (int i = from; i < to; i++) {
+      long active = 1L - ((archived[i >>> 6] >>> i) & 1L);
+      int ordinal = location[i];
+      counts[ordinal] += active;
+      capacities[ordinal] += active * capacity[i];
+      stocks[ordinal] += active * stock[i];
+    }
+    return new long[][] {counts, capacities, stocks};
+  }
+
+  private int[] matchChunk(int from, int to, int ordinal, double minUtilization) {
+    int[] hits = new int[to - from];
+    int count = 0;
+    boolean anyLocation = ordinal < 0;
+    for (int i = from; i < to; i++) {
+      int active = 1 - (int) ((archived[i >>> 6] >>> i) & 1L);
+      int atLocation = anyLocation | location[i] == ordinal ? 1 : 0;
+      int utilized = stock[i] >= minUtilization * capacity[i] ? 1 : 0;
+      hits[count] = i;
+      count += active & atLocation & utilized;
+    }
+    return Arrays.copyOf(hits, count);
+  }
+
+  private static long[][] add(long[][] left, long[][] right) {
+    for (int column = 0; column < left.length; column++) {
+      for (int ordinal = 0; ordinal < left[column].length; ordinal++) {
+        left[column][ordinal] += right[column][ordinal];
+      }
+    }
+    return left;
+  }
+
+  private int ordinal(String locationIdentifier) {
+    Integer ordinal = ordinals.get(locationIdentifier);
+    if (ordinal != null) {
+      return ordinal;
+    }
+    int added = locationCount;
+    locations[added] = locationIdentifier;
+    ordinals.put(locationIdentifier, added);
+    locationCount = added + 1;
+    return added;
+  }
+}
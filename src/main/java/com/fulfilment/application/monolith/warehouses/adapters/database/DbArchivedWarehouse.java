@@ -0,0 +1,44 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity for an archived warehouse moved out of the hot 'warehouse' table.
+ * Maps to the 'warehouse_archive' table.
+ *
+ * <p>Rows are only inserted by {@link WarehouseRepository#moveArchived(LocalDateTime, int)}, which
+ * deletes them from the warehouse table in the same statement, and are never updated: an archived
+ * warehouse cannot be replaced, archived again or receive stock. The id and version are copied.</p>
+ */
+@Entity
+@Table(name = "warehouse_archive", uniqueConstraints = @UniqueConstraint(
+    name = "uk_warehouse_archive_business_unit_code", columnNames = "businessUnitCode"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DbArchivedWarehouse {
+
+  @Id
+  private Long id;
+
+  private String businessUnitCode;
+
+  private String location;
+
+  private Integer capacity;
+
+  private Integer stock;
+
+  private LocalDateTime createdAt;
+
+  private LocalDateTime archivedAt;
+
+  private Long version;
+}
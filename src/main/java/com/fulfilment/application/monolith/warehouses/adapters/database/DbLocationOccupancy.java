@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity holding the reserved warehouse slots per location.
+ * Maps to the 'location_occupancy' table.
+ *
+ * <p>Rows are only ever changed through conditional bulk updates in
+ * {@link LocationOccupancyRepository}, which makes the row lock taken by the update the only
+ * serialization point between concurrent writers at the same location.</p>
+ */
+@Entity
+@Table(name = "location_occupancy")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DbLocationOccupancy {
+
+  @Id
+  private String location;
+
+  @Column(nullable = false)
+  private int activeWarehouses;
+
+  @Column(nullable = false)
+  private long totalCapacity;
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity for a stock movement accepted in write-behind mode but not yet applied to the
+ * warehouse row. Maps to the 'warehouse_stock_movement' table.
+ *
+ * <p>Rows are only appended by requests and removed by {@link StockMovementLog#flush()}, which
+ * applies them to the warehouse table in the same statement.</p>
+ */
+@Entity
+@Table(name = "warehouse_stock_movement",
+    indexes = @Index(name = "ix_stock_movement_business_unit_code", columnList = "businessUnitCode"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DbStockMovement {
+
+  @Id
+  @GeneratedValue
+  private Long id;
+
+  @Column(nullable = false)
+  private String businessUnitCode;
+
+  @Column(nullable = false)
+  private int delta;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+}
@@ -4,7 +4,10 @@ import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,15 +16,24 @@ import lombok.Setter;
 /**
  * JPA entity representing a warehouse in the database.
  * Maps to the 'warehouse' table.
+ * Includes optimistic locking via version field.
+ * The unique constraint also serves lookups by business unit code; the partial index on the
+ * location of active warehouses cannot be expressed here and is created in {@code import.sql}.
  */
 @Entity
-@Table(name = "warehouse")
+@Table(name = "warehouse",
+    uniqueConstraints = @UniqueConstraint(
+        name = DbWarehouse.BUSINESS_UNIT_CODE_CONSTRAINT, columnNames = "businessUnitCode"),
+    indexes = @Index(name = "idx_warehouse_archived_at", columnList = "archivedAt"))
 @Cacheable
 @Getter
 @Setter
 @NoArgsConstructor
 public class DbWarehouse {
 
+  /** Name of the unique constraint on {@code businessUnitCode}; see {@code UniqueConstraintViolations}. */
+  public static final String BUSINESS_UNIT_CODE_CONSTRAINT = "uk_warehouse_business_unit_code";
+
   @Id
   @GeneratedValue
   private Long id;
@@ -37,4 +49,7 @@ public class DbWarehouse {
   private LocalDateTime createdAt;
 
   private LocalDateTime archivedAt;
+
+  @Version
+  private Long version;
 }
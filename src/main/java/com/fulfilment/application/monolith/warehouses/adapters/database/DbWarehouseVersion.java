@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * JPA entity for one immutable version of a warehouse. Maps to the 'warehouse_version' table.
+ *
+ * <p>Rows are appended by {@link WarehouseHistory} and only ever changed to close their validity:
+ * a version is valid from {@code validFrom} (inclusive) to {@code validTo} (exclusive), and the
+ * current version has no {@code validTo}. The index on {@code (businessUnitCode, validFrom)} finds
+ * the version valid at any instant with one descending index probe.</p>
+ */
+@Entity
+@Table(name = "warehouse_version",
+    indexes = @Index(name = "idx_warehouse_version_valid_from", columnList = "businessUnitCode, validFrom"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DbWarehouseVersion {
+
+  /** Sequence of the version ids; versions are inserted with native statements drawing from it. */
+  static final String SEQUENCE = "warehouse_version_seq";
+
+  @Id
+  @GeneratedValue(generator = SEQUENCE)
+  @SequenceGenerator(name = SEQUENCE, sequenceName = SEQUENCE, allocationSize = 1)
+  private Long id;
+
+  private String businessUnitCode;
+
+  private String location;
+
+  private Integer capacity;
+
+  private Integer stock;
+
+  private LocalDateTime createdAt;
+
+  private LocalDateTime archivedAt;
+
+  private Long version;
+
+  private LocalDateTime validFrom;
+
+  private LocalDateTime validTo;
+}
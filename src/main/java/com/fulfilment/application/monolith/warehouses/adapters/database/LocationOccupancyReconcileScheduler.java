@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Seeds {@link LocationOccupancyView} at startup and periodically reconciles it with the database.
+ *
+ * <p>The slot ledger of {@link LocationOccupancyRepository} is re-counted on its own interval, one
+ * location per short transaction, so no row lock is held for longer than one count. A
+ * non-positive {@code warehouse.occupancy.ledger-resync-interval} disables it.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class LocationOccupancyReconcileScheduler {
+
+  @Inject LocationOccupancyView occupancyView;
+
+  @Inject LocationOccupancyRepository occupancyRepository;
+
+  @ConfigProperty(name = "warehouse.occupancy.reconcile-interval", defaultValue = "60s")
+  Duration reconcileInterval;
+
+  @ConfigProperty(name = "warehouse.occupancy.ledger-resync-interval", defaultValue = "5m")
+  Duration ledgerResyncInterval;
+
+  private ScheduledExecutorService executor;
+
+  void start(@Observes StartupEvent event) {
+    occupancyView.reconcile();
+    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "location-occupancy-reconciler");
+      t.setDaemon(true);
+      return t;
+    });
+    long intervalMs = reconcileInterval.toMillis();
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        occupancyView.reconcile();
+      } catch (Exception e) {
+        log.error("Error reconciling location occupancy", e);
+      }
+    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    long resyncMs = ledgerResyncInterval.toMillis();
+    if (resyncMs > 0) {
+      executor.scheduleWithFixedDelay(() -> {
+        try {
+          resyncLedger();
+        } catch (Exception e) {
+          log.error("Error re-counting reserved location slots", e);
+        }
+      }, resyncMs, resyncMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Re-counts the reserved slots of every location against the warehouse table.
+   *
+   * @return the number of locations whose counters were corrected
+   */
+  int resyncLedger() {
+    List<String> locations = QuarkusTransaction.requiringNew().call(occupancyRepository::locations);
+    int corrected = 0;
+    for (String location : locations) {
+      if (QuarkusTransaction.requiringNew().call(() -> occupancyRepository.resync(location))) {
+        corrected++;
+      }
+    }
+    log.debugf("Re-counted reserved slots of %d location(s), %d corrected", locations.size(), corrected);
+    return corrected;
+  }
+
+  @PreDestroy
+  void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
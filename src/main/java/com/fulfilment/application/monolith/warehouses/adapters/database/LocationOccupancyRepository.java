@@ -0,0 +1,191 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.util.List;
+import lombok.extern.jbosslog.JBossLog;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Repository reserving and releasing warehouse slots per location.
+ *
+ * <p>A reservation is a single conditional update that only succeeds while the location is below
+ * its limit, so the row lock it takes is held by one writer per location and creates at different
+ * locations never contend. All operations join the caller's transaction; a rollback releases the
+ * reservation together with the warehouse write it guarded.</p>
+ *
+ * <p>Rows are created lazily from the warehouse table the first time a location is reserved. Rows
+ * changed outside the use cases make the counters drift; a reservation that would be rejected is
+ * therefore re-counted against the warehouse table under the row lock before it is refused. That
+ * only corrects an over-count, so {@link LocationOccupancyReconcileScheduler} also re-counts every
+ * row periodically with {@link #resync(String)}, which corrects an under-count before it lets a
+ * location exceed its limit for long.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class LocationOccupancyRepository implements PanacheRepositoryBase<DbLocationOccupancy, String> {
+
+  private static final String RESERVE = "activeWarehouses = activeWarehouses + 1, totalCapacity = totalCapacity + ?1"
+      + " where location = ?2 and activeWarehouses < ?3";
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  /**
+   * Reserves one warehouse slot and the given capacity at a location.
+   *
+   * @param locationIdentifier the location identifier
+   * @param capacity the capacity of the warehouse taking the slot
+   * @param maxWarehouses the maximum number of warehouses allowed at the location
+   * @return {@code true} if the slot was reserved, {@code false} if the location is full
+   */
+  public boolean tryReserve(String locationIdentifier, int capacity, int maxWarehouses) {
+    if (reserve(locationIdentifier, capacity, maxWarehouses)) {
+      return true;
+    }
+    if (insertFromWarehouses(locationIdentifier) == 1) {
+      log.debugf("Initialised occupancy row for location '%s'", locationIdentifier);
+    }
+    if (reserve(locationIdentifier, capacity, maxWarehouses)) {
+      return true;
+    }
+    resync(locationIdentifier);
+    return reserve(locationIdentifier, capacity, maxWarehouses);
+  }
+
+  /**
+   * Reserves slots for several warehouses at one location under a single row lock, granting them
+   * in order until the location is full.
+   *
+   * @param locationIdentifier the location identifier
+   * @param capacities the capacities of the warehouses asking for a slot, in priority order
+   * @param maxWarehouses the maximum number of warehouses allowed at the location
+   * @return the number of leading capacities that were granted a slot
+   */
+  public int reserveUpTo(String locationIdentifier, int[] capacities, int maxWarehouses) {
+    Integer current = lockActiveWarehouses(locationIdentifier);
+    if (current == null) {
+      insertFromWarehouses(locationIdentifier);
+      current = lockActiveWarehouses(locationIdentifier);
+    }
+    if (current + capacities.length > maxWarehouses) {
+      resync(locationIdentifier);
+      current = lockActiveWarehouses(locationIdentifier);
+    }
+    int granted = Math.max(0, Math.min(capacities.length, maxWarehouses - current));
+    if (granted > 0) {
+      long capacity = 0;
+      for (int i = 0; i < granted; i++) {
+        capacity += capacities[i];
+      }
+      update("activeWarehouses = activeWarehouses + ?1, totalCapacity = totalCapacity + ?2 where location = ?3",
+          granted, capacity, locationIdentifier);
+    }
+    return granted;
+  }
+
+  /**
+   * Releases one warehouse slot and the given capacity at a location.
+   *
+   * @param locationIdentifier the location identifier
+   * @param capacity the capacity of the warehouse giving up the slot
+   */
+  public void release(String locationIdentifier, int capacity) {
+    int updated = update("activeWarehouses = activeWarehouses - 1, totalCapacity = totalCapacity - ?1"
+        + " where location = ?2 and activeWarehouses > 0", (long) capacity, locationIdentifier);
+    if (updated == 0) {
+      log.warnf("No reserved slot to release for location '%s'", locationIdentifier);
+    }
+  }
+
+  /**
+   * Adjusts the reserved capacity at a location without changing its slot count.
+   *
+   * @param locationIdentifier the location identifier
+   * @param capacityDelta the signed capacity change
+   */
+  public void adjustCapacity(String locationIdentifier, int capacityDelta) {
+    update("totalCapacity = totalCapacity + ?1 where location = ?2", (long) capacityDelta, locationIdentifier);
+  }
+
+  /**
+   * Returns the number of reserved warehouse slots at a location.
+   *
+   * @param locationIdentifier the location identifier
+   * @return the reserved slot count, zero if the location was never reserved
+   */
+  public int reservedWarehouses(String locationIdentifier) {
+    return getEntityManager()
+        .createQuery("SELECT o.activeWarehouses FROM DbLocationOccupancy o WHERE o.location = ?1", Integer.class)
+        .setParameter(1, locationIdentifier)
+        .getResultStream()
+        .findFirst()
+        .orElse(0);
+  }
+
+  private boolean reserve(String locationIdentifier, int capacity, int maxWarehouses) {
+    return update(RESERVE, (long) capacity, locationIdentifier, maxWarehouses) == 1;
+  }
+
+  /**
+   * Creates the occupancy row for a location from the committed warehouse table, unless another
+   * transaction created it first.
+   */
+  private int insertFromWarehouses(String locationIdentifier) {
+    return getEntityManager()
+        .createNativeQuery("INSERT INTO location_occupancy (location, activeWarehouses, totalCapacity)"
+            + " SELECT ?1, COUNT(*), COALESCE(SUM(w.capacity), 0) FROM warehouse w"
+            + " WHERE w.location = ?1 AND w.archivedAt IS NULL"
+            + " ON CONFLICT (location) DO NOTHING")
+        .setParameter(1, locationIdentifier)
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(DbLocationOccupancy.class)
+        .executeUpdate();
+  }
+
+  /**
+   * Lists the locations that have an occupancy row.
+   *
+   * @return the location identifiers
+   */
+  public List<String> locations() {
+    return getEntityManager()
+        .createQuery("SELECT o.location FROM DbLocationOccupancy o", String.class)
+        .getResultList();
+  }
+
+  /**
+   * Locks the occupancy row and replaces its counters with a fresh count of the warehouse table.
+   * The count runs after the lock is granted, so it sees every warehouse committed by writers that
+   * held the lock before us. Run it in a short transaction of its own, as it holds the row lock
+   * until the transaction ends.
+   *
+   * @param locationIdentifier the location identifier
+   * @return {@code true} if the counters had drifted and were corrected
+   */
+  public boolean resync(String locationIdentifier) {
+    lockActiveWarehouses(locationIdentifier);
+    LocationOccupancySnapshot actual = warehouseRepository.occupancyOf(locationIdentifier);
+    int drifted = update("activeWarehouses = ?1, totalCapacity = ?2 where location = ?3"
+            + " and (activeWarehouses <> ?1 or totalCapacity <> ?2)",
+        (int) actual.activeWarehouses(), actual.totalCapacity(), locationIdentifier);
+    if (drifted > 0) {
+      log.warnf("Corrected reserved slots for location '%s' to %d", locationIdentifier, actual.activeWarehouses());
+    }
+    return drifted > 0;
+  }
+
+  /**
+   * Locks the occupancy row of a location and returns its reserved slot count.
+   *
+   * @return the reserved slot count, or null if the location has no row yet
+   */
+  private Integer lockActiveWarehouses(String locationIdentifier) {
+    List<?> rows = getEntityManager()
+        .createNativeQuery("SELECT activeWarehouses FROM location_occupancy WHERE location = ?1 FOR UPDATE")
+        .setParameter(1, locationIdentifier)
+        .getResultList();
+    return rows.isEmpty() ? null : ((Number) rows.get(0)).intValue();
+  }
+}
@@ -0,0 +1,16 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+/**
+ * Point-in-time occupancy of a single location, counting active (non-archived) warehouses only.
+ *
+ * @param location the location identifier
+ * @param activeWarehouses number of active warehouses at the location
+ * @param totalCapacity summed capacity of the active warehouses at the location
+ * @param totalStock summed stock of the active warehouses at the location
+ */
+public record LocationOccupancySnapshot(
+    String location,
+    long activeWarehouses,
+    long totalCapacity,
+    long totalStock
+) {}
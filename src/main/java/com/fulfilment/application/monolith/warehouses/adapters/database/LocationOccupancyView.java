@@ -0,0 +1,209 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseState;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * In-memory occupancy per location: active warehouse count, summed capacity and summed stock.
+ *
+ * <p>Committed counters are seeded from the database at startup, advanced by
+ * {@link WarehouseChangedEvent}s after the emitting transaction commits, and periodically
+ * reconciled against the database by {@link LocationOccupancyReconcileScheduler}. They serve
+ * {@code GET /warehouse/stats} and never expose uncommitted state.</p>
+ *
+ * <p>Changes that commit while a reconciliation reads the database are recorded and, unless the read
+ * already saw them (judged by the versions it read), applied on top of its result, so a
+ * reconciliation neither loses nor double counts them.</p>
+ *
+ * <p>The view is a read model: rows written outside the use cases (bulk deletes, manual fixes) make
+ * the counters drift until the next reconciliation. Location limits are enforced by the slot
+ * reservations in {@link LocationOccupancyRepository}, not by these counters. In write-behind stock
+ * mode a reconciliation resets the stock to the last flushed value until the next movement.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class LocationOccupancyView {
+
+  private static final WarehouseFilter ACTIVE = new WarehouseFilter(null, false, null, null, null, null, null, null);
+
+  private final ConcurrentMap<String, Counters> committed = new ConcurrentHashMap<>();
+
+  private final Object writeLock = new Object();
+
+  private List<WarehouseChangedEvent> changedDuringReconcile;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @ConfigProperty(name = "warehouse.occupancy.fetch-size", defaultValue = "1000")
+  int fetchSize;
+
+  /**
+   * Returns the committed counters of every location that has or had active warehouses, without
+   * reading the database.
+   *
+   * @return one snapshot per known location, possibly with zero counts
+   */
+  public List<LocationOccupancySnapshot> committedSnapshots() {
+    List<LocationOccupancySnapshot> snapshots = new ArrayList<>(committed.size());
+    committed.forEach((location, counters) -> snapshots.add(counters.snapshot(location)));
+    return snapshots;
+  }
+
+  /**
+   * Replaces all committed counters with the current database aggregates. The active warehouses are
+   * read in a transaction of their own, so changes committed meanwhile are applied on top of the read.
+   */
+  public void reconcile() {
+    synchronized (writeLock) {
+      changedDuringReconcile = new ArrayList<>();
+    }
+    Map<String, Counters> loaded = new HashMap<>();
+    Map<String, Long> versions = new HashMap<>();
+    try {
+      QuarkusTransaction.requiringNew().run(() -> warehouseRepository.forEachWarehouse(fetchSize,
+          WarehouseOccupancyRow.class, ACTIVE, row -> {
+            loaded.computeIfAbsent(row.location(), key -> new Counters()).add(1, row.capacity(), row.stock());
+            versions.put(row.businessUnitCode(), row.version());
+          }));
+    } catch (RuntimeException e) {
+      synchronized (writeLock) {
+        changedDuringReconcile = null;
+      }
+      throw e;
+    }
+    int drifted = 0;
+    synchronized (writeLock) {
+      for (WarehouseChangedEvent event : changedDuringReconcile) {
+        if (!readBefore(event, versions)) {
+          forEachDelta(event, (location, warehouses, capacity, stock) ->
+              loaded.computeIfAbsent(location, key -> new Counters()).add(warehouses, capacity, stock));
+          advance(versions, event);
+        }
+      }
+      changedDuringReconcile = null;
+      for (Map.Entry<String, Counters> entry : loaded.entrySet()) {
+        if (counters(entry.getKey()).set(entry.getValue().snapshot(entry.getKey())) != 0) {
+          drifted++;
+        }
+      }
+      for (Map.Entry<String, Counters> entry : committed.entrySet()) {
+        if (!loaded.containsKey(entry.getKey())) {
+          LocationOccupancySnapshot empty = new LocationOccupancySnapshot(entry.getKey(), 0, 0, 0);
+          if (entry.getValue().set(empty) != 0) {
+            drifted++;
+          }
+        }
+      }
+    }
+    log.debugf("Reconciled occupancy for %d location(s), %d had drifted", loaded.size(), drifted);
+  }
+
+  /**
+   * Applies a change to the committed counters once its transaction has committed.
+   */
+  void apply(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChangedEvent event) {
+    synchronized (writeLock) {
+      if (changedDuringReconcile != null) {
+        changedDuringReconcile.add(event);
+      }
+      forEachDelta(event, (location, warehouses, capacity, stock) -> counters(location).add(warehouses, capacity, stock));
+    }
+  }
+
+  /**
+   * Tells whether a reconciliation read already included a change: an archived warehouse must be
+   * missing from the read, any other change must have been read at its version or a later one.
+   */
+  private static boolean readBefore(WarehouseChangedEvent event, Map<String, Long> versions) {
+    Long read = versions.get(event.businessUnitCode());
+    WarehouseState current = event.current();
+    if (current == null) {
+      return read == null;
+    }
+    return read != null && current.version() != null && read >= current.version();
+  }
+
+  /**
+   * Records a change applied on top of a reconciliation read, so later changes of the same
+   * warehouse are compared against it.
+   */
+  private static void advance(Map<String, Long> versions, WarehouseChangedEvent event) {
+    WarehouseState current = event.current();
+    if (current == null) {
+      versions.remove(event.businessUnitCode());
+    } else if (current.version() != null) {
+      versions.put(event.businessUnitCode(), current.version());
+    }
+  }
+
+  private Counters counters(String locationIdentifier) {
+    return committed.computeIfAbsent(locationIdentifier, key -> new Counters());
+  }
+
+  private static void forEachDelta(WarehouseChangedEvent event, DeltaConsumer consumer) {
+    WarehouseState previous = event.previous();
+    if (previous != null) {
+      consumer.accept(previous.location(), -1, -previous.capacity(), -previous.stock());
+    }
+    WarehouseState current = event.current();
+    if (current != null) {
+      consumer.accept(current.location(), 1, current.capacity(), current.stock());
+    }
+  }
+
+  @FunctionalInterface
+  private interface DeltaConsumer {
+    void accept(String location, int warehouses, long capacity, long stock);
+  }
+
+  /**
+   * Committed counters for one location, shared between threads.
+   */
+  private static final class Counters {
+
+    private final AtomicInteger activeWarehouses = new AtomicInteger();
+    private final AtomicLong totalCapacity = new AtomicLong();
+    private final AtomicLong totalStock = new AtomicLong();
+
+    void add(int warehouses, long capacity, long stock) {
+      activeWarehouses.addAndGet(warehouses);
+      totalCapacity.addAndGet(capacity);
+      totalStock.addAndGet(stock);
+    }
+
+    /**
+     * Reads the three counters one after the other; a concurrent change may be seen in part.
+     */
+    LocationOccupancySnapshot snapshot(String location) {
+      return new LocationOccupancySnapshot(location, activeWarehouses.get(), totalCapacity.get(), totalStock.get());
+    }
+
+    /**
+     * Sets the committed counters from a database snapshot.
+     *
+     * @return the difference between the previous and the corrected warehouse count
+     */
+    int set(LocationOccupancySnapshot snapshot) {
+      int warehouses = (int) snapshot.activeWarehouses();
+      totalCapacity.set(snapshot.totalCapacity());
+      totalStock.set(snapshot.totalStock());
+      return activeWarehouses.getAndSet(warehouses) - warehouses;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+/**
+ * Stock of a warehouse including committed movements that were not flushed yet.
+ *
+ * @param stock the flushed stock plus pending movements
+ * @param capacity the warehouse capacity
+ * @param archived whether the warehouse is archived
+ */
+public record ProjectedStock(
+    long stock,
+    int capacity,
+    boolean archived
+) {
+}
@@ -0,0 +1,119 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.jbosslog.JBossLog;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Durable log of stock movements accepted in write-behind mode.
+ *
+ * <p>Appending a movement inserts a new row, so concurrent movements on the same warehouse do not
+ * wait on each other's row lock. {@link #applyPending()} moves every committed movement into the
+ * warehouse table with one statement; after a crash the same flush applies whatever was logged but
+ * not yet flushed.</p>
+ *
+ * <p>Movements whose warehouse row no longer exists (removed, or moved to the archive table) are
+ * not applied and stay in the log, where {@link #orphans()} reports them for manual
+ * reconciliation.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class StockMovementLog implements PanacheRepository<DbStockMovement> {
+
+  @Inject
+  WarehouseHistory history;
+
+  /**
+   * Appends a movement in the caller's transaction.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @param delta the stock change
+   */
+  public void append(String businessUnitCode, int delta) {
+    DbStockMovement movement = new DbStockMovement();
+    movement.setBusinessUnitCode(businessUnitCode);
+    movement.setDelta(delta);
+    movement.setCreatedAt(LocalDateTime.now());
+    persist(movement);
+  }
+
+  /**
+   * Returns the flushed stock plus all committed pending movements of a warehouse.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @return the projected stock, or null if the warehouse does not exist
+   */
+  public ProjectedStock projectedStock(String businessUnitCode) {
+    List<?> rows = getEntityManager()
+        .createNativeQuery("SELECT w.stock + COALESCE((SELECT SUM(m.delta) FROM warehouse_stock_movement m"
+            + " WHERE m.businessUnitCode = w.businessUnitCode), 0) AS stock, w.capacity AS capacity,"
+            + " w.archivedAt IS NOT NULL AS archived FROM warehouse w WHERE w.businessUnitCode = ?1")
+        .setParameter(1, businessUnitCode)
+        .unwrap(NativeQuery.class)
+        .addScalar("stock", Long.class)
+        .addScalar("capacity", Integer.class)
+        .addScalar("archived", Boolean.class)
+        .getResultList();
+    if (rows.isEmpty()) {
+      return null;
+    }
+    Object[] row = (Object[]) rows.get(0);
+    return new ProjectedStock((Long) row[0], (Integer) row[1], (Boolean) row[2]);
+  }
+
+  /**
+   * Applies all committed movements to the warehouse table and removes them from the log, in one
+   * statement. The target warehouse rows are locked first, so only movements whose warehouse
+   * still exists are removed, and it cannot be removed or archived-moved before they are applied.
+   * Movements committed while the flush runs are left for the next one.
+   *
+   * @return the business unit codes of the warehouses whose stock changed
+   */
+  public List<String> applyPending() {
+    List<?> rows = getEntityManager()
+        .createNativeQuery("WITH targets AS (SELECT w.businessUnitCode FROM warehouse w"
+            + " WHERE w.businessUnitCode IN (SELECT businessUnitCode FROM warehouse_stock_movement) FOR UPDATE),"
+            + " moved AS (DELETE FROM warehouse_stock_movement m USING targets t"
+            + " WHERE m.businessUnitCode = t.businessUnitCode RETURNING m.businessUnitCode, m.delta),"
+            + " totals AS (SELECT businessUnitCode, SUM(delta) AS total FROM moved GROUP BY businessUnitCode)"
+            + " UPDATE warehouse w SET stock = w.stock + t.total, version = w.version + 1"
+            + " FROM totals t WHERE w.businessUnitCode = t.businessUnitCode"
+            + " RETURNING w.businessUnitCode, w.id")
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(DbStockMovement.class)
+        .addSynchronizedEntityClass(DbWarehouse.class)
+        .addScalar("businessUnitCode", String.class)
+        .addScalar("id", Long.class)
+        .getResultList();
+    List<String> flushed = new ArrayList<>(rows.size());
+    for (Object row : rows) {
+      Object[] columns = (Object[]) row;
+      flushed.add((String) columns[0]);
+      getEntityManager().getEntityManagerFactory().getCache().evict(DbWarehouse.class, columns[1]);
+    }
+    history.recordAll(flushed);
+    if (!flushed.isEmpty()) {
+      log.debugf("Flushed stock movements of %d warehouse(s)", flushed.size());
+    }
+    return flushed;
+  }
+
+  /**
+   * Returns the business unit codes of logged movements whose warehouse row no longer exists.
+   *
+   * @return the business unit codes, each listed once
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> orphans() {
+    return getEntityManager()
+        .createNativeQuery("SELECT DISTINCT m.businessUnitCode FROM warehouse_stock_movement m"
+            + " WHERE NOT EXISTS (SELECT 1 FROM warehouse w WHERE w.businessUnitCode = m.businessUnitCode)",
+            String.class)
+        .getResultList();
+  }
+}
@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.adapters.snapshot.WarehouseSnapshotView;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Periodically moves warehouses archived longer than {@code warehouse.archive.move-after} from the
+ * warehouse table to the warehouse archive table, so queries on the warehouse table only scan
+ * active and recently archived rows.
+ */
+@ApplicationScoped
+@JBossLog
+public class WarehouseArchiveScheduler {
+
+  private static final ZoneId UTC = ZoneId.of("UTC");
+
+  @Inject WarehouseRepository warehouseRepository;
+
+  @Inject WarehouseSnapshotView snapshotView;
+
+  @ConfigProperty(name = "warehouse.archive.move-after", defaultValue = "1h")
+  Duration moveAfter;
+
+  @ConfigProperty(name = "warehouse.archive.move-interval", defaultValue = "5m")
+  Duration moveInterval;
+
+  @ConfigProperty(name = "warehouse.archive.batch-size", defaultValue = "500")
+  int batchSize;
+
+  private ScheduledExecutorService executor;
+
+  void start(@Observes StartupEvent event) {
+    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "warehouse-archive-mover");
+      t.setDaemon(true);
+      return t;
+    });
+    long intervalMs = moveInterval.toMillis();
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        moveArchived(LocalDateTime.now(UTC).minus(moveAfter));
+      } catch (Exception e) {
+        log.error("Error moving archived warehouses", e);
+      }
+    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Moves all warehouses archived before a cutoff, one short transaction per batch, and rebuilds
+   * the warehouse snapshot if any were moved.
+   *
+   * @param cutoff the archive timestamp, in UTC, before which warehouses are moved
+   * @return the number of warehouses moved
+   */
+  public int moveArchived(LocalDateTime cutoff) {
+    int total = 0;
+    int moved;
+    do {
+      moved = QuarkusTransaction.requiringNew().call(() -> warehouseRepository.moveArchived(cutoff, batchSize));
+      total += moved;
+    } while (moved == batchSize);
+    if (total > 0) {
+      log.infof("Moved %d archived warehouse(s) to the archive table", total);
+      if (snapshotView.isEnabled()) {
+        snapshotView.rebuild();
+      }
+    }
+    return total;
+  }
+}
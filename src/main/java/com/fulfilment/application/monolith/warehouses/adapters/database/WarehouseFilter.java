@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria for listing warehouses; null criteria do not restrict the result.
+ *
+ * @param location only warehouses at this location identifier
+ * @param archived only archived warehouses if true, only active ones if false
+ * @param minCapacity inclusive lower capacity bound
+ * @param maxCapacity inclusive upper capacity bound
+ * @param minStock inclusive lower stock bound
+ * @param maxStock inclusive upper stock bound
+ * @param minUtilization inclusive lower bound of stock divided by capacity, between 0 and 1
+ * @param asOf the instant, in UTC, whose warehouse versions to match instead of the current warehouses
+ */
+public record WarehouseFilter(
+    String location,
+    Boolean archived,
+    Integer minCapacity,
+    Integer maxCapacity,
+    Integer minStock,
+    Integer maxStock,
+    Double minUtilization,
+    LocalDateTime asOf) {
+
+  /** Filter matching every warehouse. */
+  public static final WarehouseFilter NONE = new WarehouseFilter(null, null, null, null, null, null, null, null);
+}
@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.jbosslog.JBossLog;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Append-only version history of warehouses, kept in the 'warehouse_version' table.
+ *
+ * <p>Every write to the warehouse table records the rows it changed in the same transaction: the
+ * open version of each warehouse is closed and the row as now stored is appended as the new open
+ * version, both in one statement. Versions are never updated otherwise or deleted, so the state of
+ * a warehouse at any past instant can be read back without replaying logs.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class WarehouseHistory {
+
+  private static final ZoneId UTC = ZoneId.of("UTC");
+
+  private static final String COLUMNS = "businessUnitCode, location, capacity, stock, createdAt, archivedAt, version";
+
+  @Inject
+  EntityManager entityManager;
+
+  /**
+   * Records the current state of a warehouse as its new version.
+   *
+   * @param businessUnitCode the business unit code of the changed warehouse
+   */
+  public void record(String businessUnitCode) {
+    recordAll(List.of(businessUnitCode));
+  }
+
+  /**
+   * Records the current state of warehouses as their new versions, valid from now. Only the
+   * version table is synchronized, so pending changes to the warehouses must have been flushed.
+   *
+   * @param businessUnitCodes the business unit codes of the changed warehouses
+   */
+  public void recordAll(Collection<String> businessUnitCodes) {
+    if (businessUnitCodes.isEmpty()) {
+      return;
+    }
+    int appended = entityManager
+        .createNativeQuery("WITH closed AS (UPDATE warehouse_version SET validTo = :now"
+            + " WHERE businessUnitCode IN (:codes) AND validTo IS NULL)"
+            + " INSERT INTO warehouse_version (id, " + COLUMNS + ", validFrom)"
+            + " SELECT nextval('" + DbWarehouseVersion.SEQUENCE + "'), " + COLUMNS + ", :now"
+            + " FROM warehouse WHERE businessUnitCode IN (:codes)")
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(DbWarehouseVersion.class)
+        .setParameter("now", LocalDateTime.now(UTC))
+        .setParameter("codes", businessUnitCodes)
+        .executeUpdate();
+    log.debugf("Recorded %d warehouse version(s)", appended);
+  }
+
+  /**
+   * Closes the open version of a warehouse that no longer exists.
+   *
+   * @param businessUnitCode the business unit code of the removed warehouse
+   */
+  public void close(String businessUnitCode) {
+    entityManager
+        .createNativeQuery("UPDATE warehouse_version SET validTo = :now"
+            + " WHERE businessUnitCode = :code AND validTo IS NULL")
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(DbWarehouseVersion.class)
+        .setParameter("now", LocalDateTime.now(UTC))
+        .setParameter("code", businessUnitCode)
+        .executeUpdate();
+  }
+}
@@ -0,0 +1,32 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import java.time.LocalDateTime;
+
+/**
+ * The attributes of one warehouse that count towards its location's occupancy, with the version
+ * they were read at.
+ *
+ * @param businessUnitCode the business unit code
+ * @param location the location identifier
+ * @param capacity the warehouse capacity
+ * @param stock the warehouse stock
+ * @param version the stored version
+ */
+public record WarehouseOccupancyRow(
+    String businessUnitCode,
+    String location,
+    int capacity,
+    int stock,
+    long version
+) {
+
+  /**
+   * Projection constructor for {@link WarehouseRepository#forEachWarehouse(int, Class, WarehouseFilter,
+   * java.util.function.Consumer)}, which selects every stored column.
+   */
+  public WarehouseOccupancyRow(String businessUnitCode, String location, Integer capacity, Integer stock,
+      LocalDateTime createdAt, LocalDateTime archivedAt, Long version) {
+    this(businessUnitCode, location, capacity == null ? 0 : capacity, stock == null ? 0 : stock,
+        version == null ? 0 : version);
+  }
+}
@@ -1,13 +1,37 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.common.KeysetPage;
+import com.fulfilment.application.monolith.common.PageCursor;
+import com.fulfilment.application.monolith.common.UniqueConstraintViolations;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.DuplicateBusinessUnitCodeException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.extern.jbosslog.JBossLog;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.SelectionQuery;
 
 /**
  * Repository implementation for warehouse persistence operations.
@@ -18,53 +42,271 @@ import lombok.extern.jbosslog.JBossLog;
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
   /**
-   * Creates a new warehouse in the database.
-   * Sets the creation timestamp if not already set.
+   * Columns selected by read-only queries, in the order expected by projection constructors:
+   * business unit code, location, capacity, stock, creation and archive timestamps, version.
+   */
+  private static final String READ_COLUMNS =
+      "w.businessUnitCode, w.location, w.capacity, w.stock, w.createdAt, w.archivedAt, w.version";
+
+  private static final String ID_ORDER = " ORDER BY w.id";
+  private static final String BUSINESS_UNIT_CODE_ORDER = " ORDER BY w.businessUnitCode";
+
+  /** Matches the {@link DbWarehouseVersion} valid at the {@code :asOf} instant. */
+  private static final String VALID_AT = "w.validFrom <= :asOf AND (w.validTo IS NULL OR w.validTo > :asOf)";
+
+  /**
+   * Columns returned by conditional updates: the {@link #READ_COLUMNS} followed by the row id.
+   */
+  private static final String RETURNING_COLUMNS =
+      "businessUnitCode, location, capacity, stock, createdAt, archivedAt, version, id";
+
+  private static final ZoneId UTC = ZoneId.of("UTC");
+
+  /**
+   * First key of the transaction-scoped advisory locks taken per business unit code, so they do
+   * not collide with advisory locks taken for anything else.
+   */
+  private static final int BUSINESS_UNIT_CODE_LOCK = 0x57480001;
+
+  @Inject
+  WarehouseHistory history;
+
+  /**
+   * Creates a new warehouse in the database and flushes, so a duplicate business unit code is
+   * rejected here by the unique constraint.
+   * The unique constraint only covers the warehouse table, and moved warehouses keep their code, so
+   * the archive table is checked too, under the code's lock (see {@link #lockBusinessUnitCodes}).
+   * Sets the creation timestamp if not already set, and the initial version once persisted.
    *
    * @param warehouse the warehouse domain entity to persist
+   * @throws DuplicateBusinessUnitCodeException if the business unit code already exists
    */
   @Override
   public void create(Warehouse warehouse) {
     log.debugf("Creating warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
+    lockBusinessUnitCodes(List.of(warehouse.getBusinessUnitCode()));
+    if (!archivedAmong(List.of(warehouse.getBusinessUnitCode())).isEmpty()) {
+      throw new DuplicateBusinessUnitCodeException(warehouse.getBusinessUnitCode());
+    }
     DbWarehouse dbWarehouse = toDbEntity(warehouse);
     if (dbWarehouse.getCreatedAt() == null) {
       dbWarehouse.setCreatedAt(LocalDateTime.now());
       log.debugf("Set creation timestamp for warehouse '%s'", warehouse.getBusinessUnitCode());
     }
-    persist(dbWarehouse);
+    try {
+      persistAndFlush(dbWarehouse);
+    } catch (PersistenceException e) {
+      throw translateDuplicate(e, () -> new DuplicateBusinessUnitCodeException(warehouse.getBusinessUnitCode()));
+    }
+    warehouse.setVersion(dbWarehouse.getVersion());
+    history.record(warehouse.getBusinessUnitCode());
     log.infof("Successfully persisted warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
   }
 
   /**
-   * Updates an existing warehouse in the database.
-   * Throws {@link WarehouseNotFoundException} if warehouse is not found.
+   * Creates new warehouses in the database with a single flush, so the inserts are sent as
+   * JDBC batches. Like {@link #create(Warehouse)}, the archive table is checked under the codes' locks.
+   * Sets the creation timestamp of each warehouse if not already set, and its initial version once
+   * persisted.
+   *
+   * @param warehouses the warehouse domain entities to persist
+   * @throws DuplicateBusinessUnitCodeException if one of the business unit codes already exists
+   */
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    log.debugf("Creating %d warehouses", warehouses.size());
+    List<String> buCodes = warehouses.stream().map(Warehouse::getBusinessUnitCode).toList();
+    lockBusinessUnitCodes(buCodes);
+    Set<String> archived = archivedAmong(buCodes);
+    if (!archived.isEmpty()) {
+      throw new DuplicateBusinessUnitCodeException(archived.iterator().next());
+    }
+    LocalDateTime now = LocalDateTime.now();
+    List<DbWarehouse> dbWarehouses = warehouses.stream().map(warehouse -> {
+      DbWarehouse dbWarehouse = toDbEntity(warehouse);
+      if (dbWarehouse.getCreatedAt() == null) {
+        dbWarehouse.setCreatedAt(now);
+      }
+      return dbWarehouse;
+    }).toList();
+    persist(dbWarehouses);
+    try {
+      flush();
+    } catch (PersistenceException e) {
+      throw translateDuplicate(e, () -> new DuplicateBusinessUnitCodeException(buCodes));
+    }
+    for (int i = 0; i < warehouses.size(); i++) {
+      warehouses.get(i).setVersion(dbWarehouses.get(i).getVersion());
+    }
+    history.recordAll(buCodes);
+    log.infof("Successfully persisted %d warehouses", warehouses.size());
+  }
+
+  /**
+   * Updates an existing warehouse in the database with a single update statement that returns the
+   * updated row. The warehouse is not loaded first.
+   * If the warehouse carries a version, the statement only matches the row at that version, so a
+   * change made since the caller read the warehouse is detected by the same statement.
    *
    * @param warehouse the warehouse domain entity with updated values
+   * @return the warehouse as stored, with its new version
    * @throws WarehouseNotFoundException if warehouse with the business unit code is not found
+   * @throws OptimisticLockException if the stored version differs from the warehouse version
    */
   @Override
-  public void update(Warehouse warehouse) {
+  public Warehouse update(Warehouse warehouse) {
     log.debugf("Updating warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
-    DbWarehouse existing = find("businessUnitCode", warehouse.getBusinessUnitCode())
-        .firstResultOptional()
-        .orElseThrow(() -> {
-          log.errorf("Warehouse not found for update: '%s'", warehouse.getBusinessUnitCode());
-          return new WarehouseNotFoundException(warehouse.getBusinessUnitCode());
-        });
-    
-    existing.setLocation(warehouse.getLocation());
-    existing.setCapacity(warehouse.getCapacity());
-    existing.setStock(warehouse.getStock());
-    
+    StringBuilder sql = new StringBuilder(
+        "UPDATE warehouse SET location = :location, capacity = :capacity, stock = :stock, version = version + 1");
     if (warehouse.getArchivedAt() != null) {
-      existing.setArchivedAt(warehouse.getArchivedAt()
-          .withZoneSameInstant(ZoneId.of("UTC"))
-          .toLocalDateTime());
-      log.debugf("Updated archived timestamp for warehouse '%s'", warehouse.getBusinessUnitCode());
+      sql.append(", archivedAt = :archivedAt");
     }
-    
-    persist(existing);
-    log.infof("Successfully updated warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
+    sql.append(" WHERE businessUnitCode = :businessUnitCode");
+    if (warehouse.getVersion() != null) {
+      sql.append(" AND version = :version");
+    }
+    NativeQuery<?> query = returning(sql)
+        .setParameter("location", warehouse.getLocation(), String.class)
+        .setParameter("capacity", warehouse.getCapacity(), Integer.class)
+        .setParameter("stock", warehouse.getStock(), Integer.class)
+        .setParameter("businessUnitCode", warehouse.getBusinessUnitCode(), String.class);
+    if (warehouse.getArchivedAt() != null) {
+      query.setParameter("archivedAt", warehouse.getArchivedAt().withZoneSameInstant(UTC).toLocalDateTime(),
+          LocalDateTime.class);
+    }
+    if (warehouse.getVersion() != null) {
+      query.setParameter("version", warehouse.getVersion(), Long.class);
+    }
+
+    Warehouse updated = singleReturned(query);
+    if (updated != null) {
+      history.record(updated.getBusinessUnitCode());
+      log.infof("Successfully updated warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
+      return updated;
+    }
+    if (warehouse.getVersion() != null && count("businessUnitCode", warehouse.getBusinessUnitCode()) > 0) {
+      log.warnf("Version conflict updating warehouse '%s' (expected: %d)",
+          warehouse.getBusinessUnitCode(), warehouse.getVersion());
+      throw new OptimisticLockException("Warehouse '" + warehouse.getBusinessUnitCode() + "' was modified concurrently");
+    }
+    log.errorf("Warehouse not found for update: '%s'", warehouse.getBusinessUnitCode());
+    throw new WarehouseNotFoundException(warehouse.getBusinessUnitCode());
+  }
+
+  /**
+   * Archives an active warehouse with a single conditional update that returns the archived row.
+   *
+   * @param buCode the business unit code
+   * @param expectedVersion the version the warehouse must have, or null to archive any version
+   * @param archivedAt the archive timestamp
+   * @return the warehouse as archived, or null if no active warehouse at the expected version matched
+   */
+  @Override
+  public Warehouse archive(String buCode, Long expectedVersion, ZonedDateTime archivedAt) {
+    log.debugf("Archiving warehouse with business unit code '%s'", buCode);
+    StringBuilder sql = new StringBuilder("UPDATE warehouse SET archivedAt = :archivedAt, version = version + 1"
+        + " WHERE businessUnitCode = :businessUnitCode AND archivedAt IS NULL");
+    if (expectedVersion != null) {
+      sql.append(" AND version = :version");
+    }
+    NativeQuery<?> query = returning(sql)
+        .setParameter("archivedAt", archivedAt.withZoneSameInstant(UTC).toLocalDateTime(), LocalDateTime.class)
+        .setParameter("businessUnitCode", buCode, String.class);
+    if (expectedVersion != null) {
+      query.setParameter("version", expectedVersion, Long.class);
+    }
+
+    Warehouse archived = singleReturned(query);
+    if (archived == null) {
+      log.debugf("Archive rejected for warehouse '%s'", buCode);
+      return null;
+    }
+    history.record(buCode);
+    log.infof("Successfully archived warehouse with business unit code '%s'", buCode);
+    return archived;
+  }
+
+  /**
+   * Adds a signed delta to the stock of an active warehouse with a single conditional update, so
+   * concurrent movements neither read-modify-write nor wait on each other beyond the row update.
+   * The condition is evaluated in 64-bit arithmetic, so no delta can overflow the stock column.
+   * The updated row is returned by the same statement and its second-level cache entry evicted.
+   *
+   * @param buCode the business unit code
+   * @param delta the stock change
+   * @return the warehouse after the movement, or null if no active warehouse satisfied the condition
+   */
+  @Override
+  public Warehouse adjustStock(String buCode, int delta) {
+    log.debugf("Adjusting stock of warehouse '%s' by %d", buCode, delta);
+    NativeQuery<?> query = returning(new StringBuilder("UPDATE warehouse SET stock = stock + :delta, version = version + 1"
+        + " WHERE businessUnitCode = :businessUnitCode AND archivedAt IS NULL"
+        + " AND stock + CAST(:delta AS bigint) BETWEEN 0 AND capacity"))
+        .setParameter("delta", delta, Integer.class)
+        .setParameter("businessUnitCode", buCode, String.class);
+
+    Warehouse adjusted = singleReturned(query);
+    if (adjusted == null) {
+      log.debugf("Stock movement of %d rejected for warehouse '%s'", delta, buCode);
+      return null;
+    }
+    history.record(buCode);
+    log.infof("Adjusted stock of warehouse '%s' by %d to %d", buCode, delta, adjusted.getStock());
+    return adjusted;
+  }
+
+  /**
+   * Translates a violation of the business unit code constraint into the given duplicate
+   * exception; any other failure is returned unchanged.
+   */
+  private static RuntimeException translateDuplicate(PersistenceException failure,
+      Supplier<DuplicateBusinessUnitCodeException> duplicate) {
+    return UniqueConstraintViolations.isViolationOf(failure, DbWarehouse.BUSINESS_UNIT_CODE_CONSTRAINT)
+        ? duplicate.get()
+        : failure;
+  }
+
+  /**
+   * Completes a warehouse update statement with a clause returning the updated row, typed for
+   * {@link #singleReturned(NativeQuery)}.
+   */
+  private NativeQuery<?> returning(StringBuilder updateSql) {
+    return readScalars(getEntityManager()
+        .createNativeQuery(updateSql.append(" RETURNING ").append(RETURNING_COLUMNS).toString())
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(DbWarehouse.class))
+        .addScalar("id", Long.class);
+  }
+
+  /**
+   * Declares the {@link #READ_COLUMNS} as the leading scalars of a native query, in the order
+   * expected by {@link #toDomainEntity(Object[])}.
+   */
+  private static NativeQuery<?> readScalars(NativeQuery<?> query) {
+    return query
+        .addScalar("businessUnitCode", String.class)
+        .addScalar("location", String.class)
+        .addScalar("capacity", Integer.class)
+        .addScalar("stock", Integer.class)
+        .addScalar("createdAt", LocalDateTime.class)
+        .addScalar("archivedAt", LocalDateTime.class)
+        .addScalar("version", Long.class);
+  }
+
+  /**
+   * Executes an update built by {@link #returning(StringBuilder)} and evicts the second-level cache
+   * entry of the updated row.
+   *
+   * @return the updated warehouse, or null if the statement matched no row
+   */
+  private Warehouse singleReturned(NativeQuery<?> query) {
+    List<?> rows = query.getResultList();
+    if (rows.isEmpty()) {
+      return null;
+    }
+    Object[] row = (Object[]) rows.get(0);
+    getEntityManager().getEntityManagerFactory().getCache().evict(DbWarehouse.class, row[7]);
+    return toDomainEntity(row);
   }
 
   /**
@@ -84,11 +326,14 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
           return new WarehouseNotFoundException(warehouse.getBusinessUnitCode());
         });
     delete(dbWarehouse);
+    history.close(warehouse.getBusinessUnitCode());
     log.infof("Successfully removed warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
   }
 
   /**
-   * Finds a warehouse by its business unit code.
+   * Finds a warehouse by its business unit code, in the warehouse table or, once moved there, the
+   * archive table. Both unique indexes are probed by one statement, so a miss costs a single round
+   * trip. Selects plain columns, so no entity is loaded into the persistence context.
    *
    * @param buCode the business unit code to search for
    * @return the warehouse domain entity if found, null otherwise
@@ -96,31 +341,393 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
   @Override
   public Warehouse findByBusinessUnitCode(String buCode) {
     log.debugf("Finding warehouse by business unit code '%s'", buCode);
-    Warehouse result = find("businessUnitCode", buCode)
-        .firstResultOptional()
-        .map(this::toDomainEntity)
-        .orElse(null);
-    if (result == null) {
+    String columns = "businessUnitCode, location, capacity, stock, createdAt, archivedAt, version";
+    List<?> rows = readScalars(getEntityManager()
+        .createNativeQuery("SELECT " + columns + " FROM warehouse WHERE businessUnitCode = :businessUnitCode"
+            + " UNION ALL SELECT " + columns + " FROM warehouse_archive WHERE businessUnitCode = :businessUnitCode")
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(DbWarehouse.class)
+        .addSynchronizedEntityClass(DbArchivedWarehouse.class))
+        .setParameter("businessUnitCode", buCode, String.class)
+        .getResultList();
+    if (rows.isEmpty()) {
       log.debugf("Warehouse not found for business unit code '%s'", buCode);
-    } else {
-      log.debugf("Found warehouse with business unit code '%s'", buCode);
+      return null;
+    }
+    log.debugf("Found warehouse with business unit code '%s'", buCode);
+    return toDomainEntity((Object[]) rows.get(0));
+  }
+
+  /**
+   * Same as {@link #findByBusinessUnitCode(String)}, which always reads the database.
+   *
+   * @param buCode the business unit code to search for
+   * @return the warehouse domain entity if found, null otherwise
+   */
+  @Override
+  public Warehouse findCurrentByBusinessUnitCode(String buCode) {
+    return findByBusinessUnitCode(buCode);
+  }
+
+  /**
+   * Finds the version of a warehouse that was valid at an instant. The latest version starting at
+   * or before the instant is read with one descending probe of the
+   * {@code (businessUnitCode, validFrom)} index; it only matches if it had not been closed by then.
+   *
+   * @param buCode the business unit code to search for
+   * @param asOf the instant, in UTC
+   * @return the warehouse as it was at that instant, or null if it did not exist then
+   */
+  public Warehouse findByBusinessUnitCodeAsOf(String buCode, LocalDateTime asOf) {
+    log.debugf("Finding warehouse '%s' as of %s", buCode, asOf);
+    List<Object[]> rows = getEntityManager().unwrap(Session.class)
+        .createSelectionQuery("SELECT " + READ_COLUMNS + ", w.validTo FROM DbWarehouseVersion w"
+            + " WHERE w.businessUnitCode = ?1 AND w.validFrom <= ?2 ORDER BY w.validFrom DESC, w.id DESC", Object[].class)
+        .setParameter(1, buCode)
+        .setParameter(2, asOf)
+        .setMaxResults(1)
+        .setReadOnly(true)
+        .getResultList();
+    if (rows.isEmpty() || (rows.get(0)[7] != null && !((LocalDateTime) rows.get(0)[7]).isAfter(asOf))) {
+      log.debugf("No version of warehouse '%s' valid as of %s", buCode, asOf);
+      return null;
+    }
+    return toDomainEntity(rows.get(0));
+  }
+
+  /**
+   * Returns which of the given business unit codes already exist, using a single IN query.
+   *
+   * @param buCodes the business unit codes to check
+   * @return the subset of codes that already exist
+   */
+  @Override
+  public Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes) {
+    if (buCodes.isEmpty()) {
+      return Set.of();
     }
-    return result;
+    Set<String> existing = new HashSet<>(getEntityManager()
+        .createQuery("SELECT w.businessUnitCode FROM DbWarehouse w WHERE w.businessUnitCode IN ?1", String.class)
+        .setParameter(1, buCodes)
+        .getResultList());
+    existing.addAll(archivedAmong(buCodes));
+    return existing;
   }
 
   /**
-   * Counts the number of active (non-archived) warehouses at a given location.
+   * Lists all warehouses in id order, projected straight into the given type through a constructor
+   * expression. Nothing is added to the persistence context, so there is no entity to manage or
+   * dirty check.
    *
-   * @param locationIdentifier the location identifier to count warehouses for
-   * @return the count of active warehouses at the location
+   * @param projection a type with a public constructor taking the {@link #READ_COLUMNS}:
+   *     {@code (String, String, Integer, Integer, LocalDateTime, LocalDateTime, Long)}
+   * @param <T> the projection type
+   * @return one projection per warehouse
    */
-  public long countByLocation(String locationIdentifier) {
-    log.debugf("Counting active warehouses for location '%s'", locationIdentifier);
-    long count = count("location = ?1 AND archivedAt IS NULL", locationIdentifier);
-    log.debugf("Found %d active warehouses for location '%s'", count, locationIdentifier);
+  public <T> List<T> listAllAs(Class<T> projection) {
+    return listAs(projection, WarehouseFilter.NONE);
+  }
+
+  /**
+   * Lists the warehouses matching a filter in id order, projected like {@link #listAllAs(Class)}.
+   * Every criterion is bound as a parameter. A location criterion on active warehouses is served by
+   * {@code idx_warehouse_active_location}, and the archived criterion by {@code idx_warehouse_archived_at}.
+   * The location index is partial on {@code archivedAt IS NULL}, so a location criterion without
+   * {@code archived=false} has no index of its own and is filtered from the other criteria's rows.
+   *
+   * @param projection the projection type, see {@link #listAllAs(Class)}
+   * @param filter the criteria to match
+   * @param <T> the projection type
+   * @return one projection per matching warehouse
+   */
+  public <T> List<T> listAs(Class<T> projection, WarehouseFilter filter) {
+    return selectWarehouses(projection, filter, null, ID_ORDER)
+        .setReadOnly(true)
+        .getResultList();
+  }
+
+  /**
+   * Lists the warehouses with the given business unit codes, projected like {@link #listAllAs(Class)}.
+   * Codes without a row in the warehouse table are left out.
+   *
+   * @param projection the projection type, see {@link #listAllAs(Class)}
+   * @param buCodes the business unit codes to read
+   * @param <T> the projection type
+   * @return one projection per warehouse found, in no particular order
+   */
+  public <T> List<T> listByBusinessUnitCodesAs(Class<T> projection, Collection<String> buCodes) {
+    if (buCodes.isEmpty()) {
+      return List.of();
+    }
+    return getEntityManager().unwrap(Session.class)
+        .createSelectionQuery(projectionQuery(projection, "DbWarehouse") + " WHERE w.businessUnitCode IN :codes",
+            projection)
+        .setParameter("codes", buCodes)
+        .setReadOnly(true)
+        .getResultList();
+  }
+
+  /**
+   * Lists one page of the warehouses matching a filter in business unit code order, projected like
+   * {@link #listAllAs(Class)}. The code is unique, so the page continues with
+   * {@code businessUnitCode > :after} on its unique index and costs the same at any depth. With an
+   * {@code asOf} instant the page walks the {@code (businessUnitCode, validFrom)} index of the versions.
+   *
+   * @param projection the projection type, see {@link #listAllAs(Class)}
+   * @param filter the criteria to match
+   * @param after the position to continue after, or null for the first page
+   * @param limit the page size
+   * @param businessUnitCodeOf reads the business unit code of a projected row
+   * @param <T> the projection type
+   * @return the page, with the cursor of the next one if more warehouses match
+   */
+  public <T> KeysetPage<T> listPageAs(Class<T> projection, WarehouseFilter filter, PageCursor after, int limit,
+      Function<? super T, String> businessUnitCodeOf) {
+    List<T> rows = selectWarehouses(projection, filter, after == null ? null : after.sortKey(), BUSINESS_UNIT_CODE_ORDER)
+        .setMaxResults(limit + 1)
+        .setReadOnly(true)
+        .getResultList();
+    return KeysetPage.of(rows, limit, row -> new PageCursor(businessUnitCodeOf.apply(row), null));
+  }
+
+  /**
+   * Reads all warehouses with a forward-only cursor and hands them to the consumer one at a time,
+   * projected like {@link #listAllAs(Class)}. Memory use does not grow with the number of rows.
+   * Must be called within a transaction, which keeps the cursor open and lets the driver honour
+   * the fetch size.
+   *
+   * @param fetchSize the number of rows fetched per round trip
+   * @param projection the projection type, see {@link #listAllAs(Class)}
+   * @param consumer receives each warehouse in id order
+   * @param <T> the projection type
+   * @return the number of warehouses read
+   */
+  public <T> long forEachWarehouse(int fetchSize, Class<T> projection, Consumer<? super T> consumer) {
+    return forEachWarehouse(fetchSize, projection, WarehouseFilter.NONE, consumer);
+  }
+
+  /**
+   * Streams the warehouses matching a filter like {@link #forEachWarehouse(int, Class, Consumer)}.
+   *
+   * @param fetchSize the number of rows fetched per round trip
+   * @param projection the projection type, see {@link #listAllAs(Class)}
+   * @param filter the criteria to match
+   * @param consumer receives each matching warehouse in id order
+   * @param <T> the projection type
+   * @return the number of warehouses read
+   */
+  public <T> long forEachWarehouse(int fetchSize, Class<T> projection, WarehouseFilter filter,
+      Consumer<? super T> consumer) {
+    long count = 0;
+    try (ScrollableResults<T> rows = selectWarehouses(projection, filter, null, ID_ORDER)
+        .setFetchSize(fetchSize)
+        .setReadOnly(true)
+        .scroll(ScrollMode.FORWARD_ONLY)) {
+      while (rows.next()) {
+        consumer.accept(rows.get());
+        count++;
+      }
+    }
+    log.debugf("Streamed %d warehouses", count);
     return count;
   }
 
+  /**
+   * Moves warehouses archived before a cutoff from the warehouse table to the archive table in a
+   * single statement, oldest ids first. Rows locked by another transaction are skipped, so the
+   * move never waits on a concurrent writer, and so are warehouses with stock movements still
+   * waiting in the {@link StockMovementLog}, until a flush has applied them. Once the rows are
+   * picked and locked, the move takes their codes' advisory locks without waiting, skipping codes a
+   * create holds; see {@link #lockBusinessUnitCodes(Collection)}. Codes of rows beyond the limit are
+   * never locked, so creates of them do not wait for the move.
+   *
+   * @param cutoff the archive timestamp, in UTC, before which warehouses are moved
+   * @param limit the maximum number of warehouses to move
+   * @return the number of warehouses moved
+   */
+  public int moveArchived(LocalDateTime cutoff, int limit) {
+    String columns = "id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version";
+    return getEntityManager()
+        .createNativeQuery("WITH picked AS MATERIALIZED ("
+            + "SELECT id, businessUnitCode FROM warehouse w WHERE archivedAt < :cutoff AND NOT EXISTS ("
+            + "SELECT 1 FROM warehouse_stock_movement m WHERE m.businessUnitCode = w.businessUnitCode)"
+            + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED),"
+            + " moved AS (DELETE FROM warehouse WHERE id IN ("
+            + "SELECT id FROM picked WHERE pg_try_advisory_xact_lock(:namespace, hashtext(businessUnitCode)))"
+            + " RETURNING " + columns + ")"
+            + " INSERT INTO warehouse_archive (" + columns + ") SELECT " + columns + " FROM moved")
+        .unwrap(NativeQuery.class)
+        .addSynchronizedEntityClass(DbWarehouse.class)
+        .addSynchronizedEntityClass(DbArchivedWarehouse.class)
+        .setParameter("cutoff", cutoff, LocalDateTime.class)
+        .setParameter("namespace", BUSINESS_UNIT_CODE_LOCK, Integer.class)
+        .setParameter("limit", limit, Integer.class)
+        .executeUpdate();
+  }
+
+  /**
+   * Lists one page of the warehouses moved to the archive table in business unit code order,
+   * projected like {@link #listAllAs(Class)}.
+   *
+   * @param projection the projection type, see {@link #listAllAs(Class)}
+   * @param after the position to continue after, or null for the first page
+   * @param limit the page size
+   * @param businessUnitCodeOf reads the business unit code of a projected row
+   * @param <T> the projection type
+   * @return the page, with the cursor of the next one if more archived warehouses follow
+   */
+  public <T> KeysetPage<T> listArchivedPageAs(Class<T> projection, PageCursor after, int limit,
+      Function<? super T, String> businessUnitCodeOf) {
+    SelectionQuery<T> query = getEntityManager().unwrap(Session.class).createSelectionQuery(
+        "SELECT new " + projection.getName() + "(" + READ_COLUMNS + ") FROM DbArchivedWarehouse w"
+            + (after == null ? "" : " WHERE w.businessUnitCode > :after") + BUSINESS_UNIT_CODE_ORDER,
+        projection);
+    if (after != null) {
+      query.setParameter("after", after.sortKey());
+    }
+    List<T> rows = query.setMaxResults(limit + 1).setReadOnly(true).getResultList();
+    return KeysetPage.of(rows, limit, row -> new PageCursor(businessUnitCodeOf.apply(row), null));
+  }
+
+  /**
+   * Returns the codes among the given ones that belong to warehouses moved to the archive table.
+   */
+  private Set<String> archivedAmong(Collection<String> buCodes) {
+    return new HashSet<>(getEntityManager()
+        .createQuery("SELECT w.businessUnitCode FROM DbArchivedWarehouse w WHERE w.businessUnitCode IN ?1", String.class)
+        .setParameter(1, buCodes)
+        .getResultList());
+  }
+
+  /**
+   * Takes a transaction-scoped advisory lock per business unit code. The codes are sorted and
+   * de-duplicated here and locked in array order, since Postgres would evaluate the lock calls
+   * before any ORDER BY in the query; locking in code order keeps concurrent creates from
+   * deadlocking. {@link #moveArchived(LocalDateTime, int)} only moves a warehouse whose
+   * code lock it gets, so a create either sees the moved row in the archive table or still finds
+   * the archived row in the warehouse table, where the unique constraint rejects it.
+   */
+  private void lockBusinessUnitCodes(Collection<String> buCodes) {
+    getEntityManager()
+        .createNativeQuery("SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:namespace, hashtext(c))"
+            + " FROM unnest(ARRAY[:codes]) AS c) locked")
+        .setParameter("namespace", BUSINESS_UNIT_CODE_LOCK)
+        .setParameter("codes", new ArrayList<>(new TreeSet<>(buCodes)))
+        .getSingleResult();
+  }
+
+  /**
+   * Aggregates active (non-archived) warehouse count, capacity and stock per location in a single query.
+   *
+   * @return one snapshot per location that has at least one active warehouse
+   */
+  public List<LocationOccupancySnapshot> occupancyByLocation() {
+    return getEntityManager()
+        .createQuery("SELECT new " + LocationOccupancySnapshot.class.getName()
+            + "(w.location, COUNT(w), COALESCE(SUM(w.capacity), 0), COALESCE(SUM(w.stock), 0)) FROM DbWarehouse w"
+            + " WHERE w.archivedAt IS NULL GROUP BY w.location", LocationOccupancySnapshot.class)
+        .getResultList();
+  }
+
+  /**
+   * Aggregates active (non-archived) warehouse count, capacity and stock for one location.
+   *
+   * @param locationIdentifier the location identifier
+   * @return the occupancy snapshot, with zero counts if the location has no active warehouses
+   */
+  public LocationOccupancySnapshot occupancyOf(String locationIdentifier) {
+    Object[] row = getEntityManager()
+        .createQuery("SELECT COUNT(w), COALESCE(SUM(w.capacity), 0), COALESCE(SUM(w.stock), 0) FROM DbWarehouse w"
+            + " WHERE w.location = ?1 AND w.archivedAt IS NULL", Object[].class)
+        .setParameter(1, locationIdentifier)
+        .getSingleResult();
+    return new LocationOccupancySnapshot(locationIdentifier,
+        ((Number) row[0]).longValue(), ((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+  }
+
+  private static String projectionQuery(Class<?> projection, String entity) {
+    return "SELECT new " + projection.getName() + "(" + READ_COLUMNS + ") FROM " + entity + " w";
+  }
+
+  /**
+   * Builds the projection query for a filter, in the given order, with one bound parameter per criterion.
+   * A filter with an {@code asOf} instant reads the versions valid at that instant instead of the
+   * warehouse table; the versions carry the same columns, so every other criterion applies unchanged.
+   */
+  private <T> SelectionQuery<T> selectWarehouses(Class<T> projection, WarehouseFilter filter,
+      String afterBusinessUnitCode, String orderBy) {
+    List<String> conditions = new ArrayList<>();
+    Map<String, Object> parameters = new HashMap<>();
+    if (filter.asOf() != null) {
+      conditions.add(VALID_AT);
+      parameters.put("asOf", filter.asOf());
+    }
+    if (afterBusinessUnitCode != null) {
+      conditions.add("w.businessUnitCode > :afterBusinessUnitCode");
+      parameters.put("afterBusinessUnitCode", afterBusinessUnitCode);
+    }
+    if (filter.location() != null) {
+      conditions.add("w.location = :location");
+      parameters.put("location", filter.location());
+    }
+    if (filter.archived() != null) {
+      conditions.add(filter.archived() ? "w.archivedAt IS NOT NULL" : "w.archivedAt IS NULL");
+    }
+    if (filter.minCapacity() != null) {
+      conditions.add("w.capacity >= :minCapacity");
+      parameters.put("minCapacity", filter.minCapacity());
+    }
+    if (filter.maxCapacity() != null) {
+      conditions.add("w.capacity <= :maxCapacity");
+      parameters.put("maxCapacity", filter.maxCapacity());
+    }
+    if (filter.minStock() != null) {
+      conditions.add("w.stock >= :minStock");
+      parameters.put("minStock", filter.minStock());
+    }
+    if (filter.maxStock() != null) {
+      conditions.add("w.stock <= :maxStock");
+      parameters.put("maxStock", filter.maxStock());
+    }
+    if (filter.minUtilization() != null) {
+      // Multiplied out rather than divided, so warehouses without capacity need no special case.
+      conditions.add("w.stock >= :minUtilization * w.capacity");
+      parameters.put("minUtilization", filter.minUtilization());
+    }
+
+    StringBuilder jpql = new StringBuilder(
+        projectionQuery(projection, filter.asOf() == null ? "DbWarehouse" : "DbWarehouseVersion"));
+    if (!conditions.isEmpty()) {
+      jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+    }
+    jpql.append(orderBy);
+    SelectionQuery<T> query = getEntityManager().unwrap(Session.class).createSelectionQuery(jpql.toString(), projection);
+    parameters.forEach(query::setParameter);
+    return query;
+  }
+
+  /**
+   * Converts a row of {@link #READ_COLUMNS} to a domain entity.
+   *
+   * @param row the selected columns
+   * @return the domain warehouse entity
+   */
+  private Warehouse toDomainEntity(Object[] row) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode((String) row[0]);
+    warehouse.setLocation((String) row[1]);
+    warehouse.setCapacity((Integer) row[2]);
+    warehouse.setStock((Integer) row[3]);
+    if (row[4] != null) {
+      warehouse.setCreationAt(((LocalDateTime) row[4]).atZone(UTC));
+    }
+    if (row[5] != null) {
+      warehouse.setArchivedAt(((LocalDateTime) row[5]).atZone(UTC));
+    }
+    warehouse.setVersion((Long) row[6]);
+    return warehouse;
+  }
+
   /**
    * Converts a domain warehouse entity to a database entity.
    * Handles timezone conversion for timestamps.
@@ -137,41 +744,16 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     
     if (warehouse.getCreationAt() != null) {
       dbWarehouse.setCreatedAt(warehouse.getCreationAt()
-          .withZoneSameInstant(ZoneId.of("UTC"))
+          .withZoneSameInstant(UTC)
           .toLocalDateTime());
     }
     
     if (warehouse.getArchivedAt() != null) {
       dbWarehouse.setArchivedAt(warehouse.getArchivedAt()
-          .withZoneSameInstant(ZoneId.of("UTC"))
+          .withZoneSameInstant(UTC)
           .toLocalDateTime());
     }
     
     return dbWarehouse;
   }
-
-  /**
-   * Converts a database warehouse entity to a domain entity.
-   * Handles timezone conversion for timestamps.
-   *
-   * @param dbWarehouse the database warehouse entity
-   * @return the domain warehouse entity
-   */
-  private Warehouse toDomainEntity(DbWarehouse dbWarehouse) {
-    Warehouse warehouse = new Warehouse();
-    warehouse.setBusinessUnitCode(dbWarehouse.getBusinessUnitCode());
-    warehouse.setLocation(dbWarehouse.getLocation());
-    warehouse.setCapacity(dbWarehouse.getCapacity());
-    warehouse.setStock(dbWarehouse.getStock());
-    
-    if (dbWarehouse.getCreatedAt() != null) {
-      warehouse.setCreationAt(dbWarehouse.getCreatedAt().atZone(ZoneId.of("UTC")));
-    }
-    
-    if (dbWarehouse.getArchivedAt() != null) {
-      warehouse.setArchivedAt(dbWarehouse.getArchivedAt().atZone(ZoneId.of("UTC")));
-    }
-    
-    return warehouse;
-  }
 }
@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseRequestException;
+import jakarta.ws.rs.core.EntityTag;
+
+/**
+ * Maps warehouse versions to strong entity tags and back.
+ *
+ * <p>The tag is the quoted version number, e.g. {@code "3"}. A warehouse is identified by its
+ * business unit code, so the version alone tells two representations apart.</p>
+ */
+final class WarehouseETags {
+
+  private WarehouseETags() {
+  }
+
+  /**
+   * Returns the entity tag for a warehouse version.
+   *
+   * @param version the warehouse version
+   * @return the strong entity tag
+   */
+  static EntityTag of(Long version) {
+    return new EntityTag(String.valueOf(version));
+  }
+
+  /**
+   * Returns the version an {@code If-Match} header requires.
+   *
+   * @param ifMatch the header value, may be null
+   * @return the required version, or null if the header is absent or {@code *}
+   * @throws InvalidWarehouseRequestException if the header is not a single warehouse entity tag
+   */
+  static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String tag = ifMatch.trim();
+    if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+      throw new InvalidWarehouseRequestException("If-Match must be a single strong entity tag, got: " + ifMatch);
+    }
+    try {
+      return Long.valueOf(tag.substring(1, tag.length() - 1));
+    } catch (NumberFormatException e) {
+      throw new InvalidWarehouseRequestException("If-Match is not a warehouse entity tag: " + ifMatch, e);
+    }
+  }
+}
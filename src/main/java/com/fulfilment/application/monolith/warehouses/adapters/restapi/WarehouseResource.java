@@ -1,35 +1,77 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fulfilment.application.monolith.common.ApiError;
-import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.fulfilment.application.monolith.common.GlobalExceptionMapper;
+import com.fulfilment.application.monolith.common.PageParams;
+import com.fulfilment.application.monolith.warehouses.adapters.cache.EncodedWarehouse;
+import com.fulfilment.application.monolith.warehouses.adapters.cache.WarehouseCache;
+import com.fulfilment.application.monolith.warehouses.adapters.cache.WarehouseCacheStats;
+import com.fulfilment.application.monolith.warehouses.adapters.columnar.ColumnarWarehouseRegistry;
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancyView;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseFilter;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.AsOfInstant;
 import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.CreateWarehouseRequest;
 import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.ReplaceWarehouseRequest;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.StockMovementRequest;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseBatchItemResponse;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseBatchResponse;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseListFilter;
 import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseResponse;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseStatsResponse;
+import com.fulfilment.application.monolith.warehouses.adapters.snapshot.WarehouseSnapshot;
+import com.fulfilment.application.monolith.warehouses.adapters.snapshot.WarehouseSnapshotView;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.AdjustWarehouseStockUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseBatchUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import java.time.ZoneId;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -50,6 +92,12 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 @Tag(name = "Warehouses", description = "Warehouse management operations")
 public class WarehouseResource {
 
+  static final int MAX_BATCH_SIZE = 1000;
+
+  static final String NDJSON = "application/x-ndjson";
+
+  static final String SNAPSHOT_SEQUENCE_HEADER = "X-Snapshot-Sequence";
+
   @Inject
   CreateWarehouseUseCase createWarehouseUseCase;
 
@@ -59,27 +107,108 @@ public class WarehouseResource {
   @Inject
   ArchiveWarehouseUseCase archiveWarehouseUseCase;
 
+  @Inject
+  CreateWarehouseBatchUseCase createWarehouseBatchUseCase;
+
+  @Inject
+  AdjustWarehouseStockUseCase adjustWarehouseStockUseCase;
+
   @Inject
   WarehouseStore warehouseStore;
 
   @Inject
   WarehouseRepository warehouseRepository;
 
+  @Inject
+  LocationOccupancyView occupancyView;
+
+  @Inject
+  ColumnarWarehouseRegistry columnarRegistry;
+
+  @Inject
+  LocationResolver locationResolver;
+
+  @Inject
+  WarehouseCache warehouseCache;
+
+  @Inject
+  WarehouseSnapshotView snapshotView;
+
+  @Inject
+  Validator validator;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "warehouse.export.fetch-size", defaultValue = "500")
+  int exportFetchSize;
+
+  @ConfigProperty(name = "warehouse.export.timeout", defaultValue = "10m")
+  Duration exportTimeout;
+
   @GET
-  @Operation(summary = "List all warehouses", description = "Retrieves a list of all warehouses in the system")
+  @Operation(summary = "List warehouses",
+      description = "Retrieves the warehouses matching the optional filters, sorted by business unit code, or with"
+          + " asOf the versions that were valid at that instant. With a cursor or limit only one page is returned,"
+          + " and a Link header with rel=\"next\" points to the following page. Without asOf and with the warehouse snapshot enabled, the list is served from the"
+          + " in-memory snapshot, whose sequence number is returned in the X-Snapshot-Sequence header")
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "Successful operation",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid filter, cursor or limit",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
-  public List<WarehouseResponse> listAllWarehousesUnits() {
-    log.debug("Listing all warehouses");
-    return warehouseRepository.listAll()
-        .stream()
-        .map(this::toDomainWarehouse)
-        .map(this::toResponseWarehouse)
-        .collect(Collectors.toList());
+  public Response listAllWarehousesUnits(@Valid @BeanParam WarehouseListFilter filter,
+      @Valid @BeanParam PageParams page, @Context UriInfo uriInfo) {
+    log.debug("Listing warehouses");
+    WarehouseFilter criteria = filter.toFilter();
+    if (snapshotView.isEnabled() && criteria.asOf() == null) {
+      WarehouseSnapshot snapshot = snapshotView.current();
+      Response listed = snapshot.page(criteria, page.after(), page.limit()).toResponse(uriInfo, page.limit());
+      return Response.fromResponse(listed)
+          .header(SNAPSHOT_SEQUENCE_HEADER, snapshot.sequence())
+          .build();
+    }
+    return warehouseRepository
+        .listPageAs(WarehouseResponse.class, criteria, page.after(), page.limit(),
+            WarehouseResponse::businessUnitCode)
+        .toResponse(uriInfo, page.limit());
+  }
+
+  @GET
+  @Produces(NDJSON)
+  @Operation(summary = "Stream warehouses",
+      description = "Streams the warehouses matching the optional filters as newline-delimited JSON,"
+          + " one warehouse per line, while they are read")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Successful operation",
+          content = @Content(mediaType = NDJSON, schema = @Schema(implementation = WarehouseResponse.class))),
+      @APIResponse(responseCode = "500", description = "Internal server error",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+  })
+  public StreamingOutput streamAllWarehousesUnits(@Valid @BeanParam WarehouseListFilter filter) {
+    log.debug("Streaming warehouses");
+    WarehouseFilter criteria = filter.toFilter();
+    return output -> {
+      try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+        generator.setRootValueSeparator(null);
+        long count = QuarkusTransaction.requiringNew()
+            .timeout((int) exportTimeout.toSeconds())
+            .call(() -> warehouseRepository.forEachWarehouse(exportFetchSize, WarehouseResponse.class, criteria, warehouse -> {
+              try {
+                generator.writeObject(warehouse);
+                generator.writeRaw('\n');
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            }));
+        log.debugf("Streamed %d warehouses", count);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    };
   }
 
   @POST
@@ -116,35 +245,195 @@ public class WarehouseResource {
     return Response.ok(toResponseWarehouse(created)).status(Response.Status.CREATED).build();
   }
 
+  @POST
+  @Path("/batch")
+  @Transactional
+  @Operation(summary = "Create warehouses in batch",
+      description = "Creates several warehouses in one request; each item is validated and reported individually")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Batch processed; see the per-item status for the outcome",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseBatchResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid request (empty or oversized batch)",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "500", description = "Internal server error",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+  })
+  public WarehouseBatchResponse createWarehouseUnitsInBatch(
+      @NotNull(message = "Request cannot be null.")
+      @Size(min = 1, max = MAX_BATCH_SIZE, message = "Batch must contain between 1 and " + MAX_BATCH_SIZE + " warehouses.")
+      List<CreateWarehouseRequest> requests) {
+    log.debugf("Creating batch of %d warehouses", requests.size());
+
+    WarehouseBatchItemResponse[] items = new WarehouseBatchItemResponse[requests.size()];
+    List<Integer> indexes = new ArrayList<>();
+    List<Warehouse> warehouses = new ArrayList<>();
+    for (int i = 0; i < requests.size(); i++) {
+      CreateWarehouseRequest request = requests.get(i);
+      ApiError violations = validateBatchItem(request);
+      if (violations != null) {
+        items[i] = new WarehouseBatchItemResponse(i, request == null ? null : request.businessUnitCode(),
+            violations.code(), null, violations);
+        continue;
+      }
+      Warehouse warehouse = new Warehouse();
+      warehouse.setBusinessUnitCode(request.businessUnitCode());
+      warehouse.setLocation(request.location());
+      warehouse.setCapacity(request.capacity());
+      warehouse.setStock(request.stock());
+      indexes.add(i);
+      warehouses.add(warehouse);
+    }
+
+    List<WarehouseCreationResult> results = warehouses.isEmpty()
+        ? List.of()
+        : createWarehouseBatchUseCase.createAll(warehouses);
+    int created = 0;
+    for (int i = 0; i < results.size(); i++) {
+      int index = indexes.get(i);
+      WarehouseCreationResult result = results.get(i);
+      String businessUnitCode = result.warehouse().getBusinessUnitCode();
+      if (result.isCreated()) {
+        created++;
+        items[index] = new WarehouseBatchItemResponse(index, businessUnitCode, Response.Status.CREATED.getStatusCode(),
+            toResponseWarehouse(result.warehouse()), null);
+      } else {
+        int status = GlobalExceptionMapper.statusOf(result.failure());
+        items[index] = new WarehouseBatchItemResponse(index, businessUnitCode, status, null,
+            ApiError.of(result.failure().getClass().getName(), status, result.failure().getMessage()));
+      }
+    }
+
+    log.infof("Created %d of %d warehouses in batch", created, requests.size());
+    return new WarehouseBatchResponse(created, requests.size() - created, List.of(items));
+  }
+
   @GET
   @Path("/{id}")
-  @Operation(summary = "Get warehouse by business unit code", description = "Retrieves a specific warehouse by its business unit code")
+  @Operation(summary = "Get warehouse by business unit code",
+      description = "Retrieves a specific warehouse by its business unit code, or with asOf the version that was"
+          + " valid at that instant. The ETag carries the warehouse version;"
+          + " a matching If-None-Match is answered with 304 and no body")
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "Warehouse found",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseResponse.class))),
-      @APIResponse(responseCode = "404", description = "Warehouse not found",
+      @APIResponse(responseCode = "304", description = "Warehouse not modified since the ETag in If-None-Match"),
+      @APIResponse(responseCode = "400", description = "Invalid asOf date-time",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "404", description = "Warehouse not found, or it did not exist at asOf",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
-  public WarehouseResponse getAWarehouseUnitByID(
+  public Response getAWarehouseUnitByID(
       @Parameter(description = "Business unit code of the warehouse", required = true)
-      @PathParam("id") String id) {
+      @PathParam("id") String id,
+      @Parameter(description = "ISO-8601 date-time with offset, e.g. 2024-07-01T12:00:00Z, to read the warehouse as of")
+      @QueryParam(AsOfInstant.PARAM) String asOf,
+      @Context Request request) {
     log.debugf("Getting warehouse with id '%s'", id);
     
-    Warehouse warehouse = warehouseStore.findByBusinessUnitCode(id);
+    LocalDateTime instant = AsOfInstant.parse(asOf);
+    if (instant == null && warehouseCache.isEnabled()) {
+      // Hot path: the ETag comes from the cached version, and the body is only encoded, once per cache
+      // entry, when a 200 is returned.
+      EncodedWarehouse encoded = warehouseCache.getEncoded(id, warehouseRepository::findByBusinessUnitCode,
+          this::encode);
+      if (encoded == null) {
+        log.warnf("Warehouse not found with id '%s'", id);
+        throw new WarehouseNotFoundException(id);
+      }
+      EntityTag etag = WarehouseETags.of(encoded.version());
+      Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+      if (notModified != null) {
+        return notModified.tag(etag).build();
+      }
+      return Response.ok(encoded.json(), MediaType.APPLICATION_JSON_TYPE).tag(etag).build();
+    }
+
+    Warehouse warehouse = instant == null
+        ? warehouseStore.findByBusinessUnitCode(id)
+        : warehouseRepository.findByBusinessUnitCodeAsOf(id, instant);
     if (warehouse == null) {
       log.warnf("Warehouse not found with id '%s'", id);
       throw new WarehouseNotFoundException(id);
     }
-    
-    return toResponseWarehouse(warehouse);
+
+    EntityTag etag = WarehouseETags.of(warehouse.getVersion());
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+    if (notModified != null) {
+      return notModified.tag(etag).build();
+    }
+    return Response.ok(toResponseWarehouse(warehouse)).tag(etag).build();
+  }
+
+  private byte[] encode(Warehouse warehouse) {
+    try {
+      return objectMapper.writeValueAsBytes(toResponseWarehouse(warehouse));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @GET
+  @Path("/archive")
+  @Operation(summary = "List archived warehouse history",
+      description = "Retrieves one page of the warehouses moved to the archive, sorted by business unit code;"
+          + " a Link header with rel=\"next\" points to the following page. Recently archived warehouses are"
+          + " listed by GET /warehouse?status=archived until they are moved")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Successful operation",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid cursor or limit",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "500", description = "Internal server error",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+  })
+  public Response listArchivedWarehouses(@Valid @BeanParam PageParams page, @Context UriInfo uriInfo) {
+    log.debug("Listing archived warehouses");
+    return warehouseRepository
+        .listArchivedPageAs(WarehouseResponse.class, page.after(), page.limitOrDefault(),
+            WarehouseResponse::businessUnitCode)
+        .toResponse(uriInfo, page.limitOrDefault());
+  }
+
+  @GET
+  @Path("/stats")
+  @Operation(summary = "Get warehouse utilization",
+      description = "Returns active warehouse count, capacity, stock, utilization and headroom against the location"
+          + " limits per location and in total, from counters maintained by the write paths, or from a scan of"
+          + " the columnar registry when it is enabled")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Successful operation",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseStatsResponse.class))),
+      @APIResponse(responseCode = "500", description = "Internal server error",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+  })
+  public WarehouseStatsResponse getWarehouseStats() {
+    if (columnarRegistry.isEnabled()) {
+      return WarehouseStatsResponse.of(locationResolver.listAll(), columnarRegistry.occupancyByLocation(false));
+    }
+    return WarehouseStatsResponse.of(locationResolver.listAll(), occupancyView.committedSnapshots());
+  }
+
+  @GET
+  @Path("/cache/stats")
+  @Operation(summary = "Get warehouse cache statistics",
+      description = "Returns the size and hit, miss and eviction counters of the warehouse lookup cache")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Successful operation",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseCacheStats.class))),
+      @APIResponse(responseCode = "500", description = "Internal server error",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+  })
+  public WarehouseCacheStats getWarehouseCacheStats() {
+    return warehouseCache.stats();
   }
 
   @PUT
   @Path("/{id}")
   @Transactional
-  @Operation(summary = "Replace warehouse", description = "Replaces an existing warehouse with new data")
+  @Operation(summary = "Replace warehouse",
+      description = "Replaces an existing warehouse with new data; with If-Match only if the ETag is still current")
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "Warehouse replaced successfully",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseResponse.class))),
@@ -152,16 +441,20 @@ public class WarehouseResource {
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "404", description = "Warehouse or location not found",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
-      @APIResponse(responseCode = "409", description = "Optimistic locking conflict",
+      @APIResponse(responseCode = "409", description = "Optimistic locking conflict or warehouse archived",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "412", description = "If-Match does not match the current warehouse version",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "422", description = "Business logic validation failed (stock mismatch, insufficient capacity, capacity exceeded)",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
-  public WarehouseResponse replaceWarehouseUnit(
+  public Response replaceWarehouseUnit(
       @Parameter(description = "Business unit code of the warehouse", required = true)
-      @PathParam("id") String id, 
+      @PathParam("id") String id,
+      @Parameter(description = "ETag the warehouse must still have")
+      @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
       @NotNull(message = "Request cannot be null.") @Valid ReplaceWarehouseRequest request) {
     log.debugf("Replacing warehouse with id '%s'", id);
     
@@ -170,38 +463,71 @@ public class WarehouseResource {
     warehouse.setLocation(request.location());
     warehouse.setCapacity(request.capacity());
     warehouse.setStock(request.stock());
+    warehouse.setVersion(WarehouseETags.expectedVersion(ifMatch));
     
-    replaceWarehouseUseCase.replace(warehouse);
-    
-    Warehouse replaced = warehouseStore.findByBusinessUnitCode(id);
+    Warehouse replaced = replaceWarehouseUseCase.replace(warehouse);
     log.infof("Replaced warehouse: %s (business unit code: %s)", replaced.getLocation(), replaced.getBusinessUnitCode());
     
-    return toResponseWarehouse(replaced);
+    return Response.ok(toResponseWarehouse(replaced)).tag(WarehouseETags.of(replaced.getVersion())).build();
+  }
+
+  @POST
+  @Path("/{id}/stock-movements")
+  @Transactional
+  @Operation(summary = "Move warehouse stock",
+      description = "Adds a signed delta to the stock of an active warehouse in one conditional update;"
+          + " the resulting stock must stay between zero and the warehouse capacity")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Stock moved",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = WarehouseResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid request data (missing or zero delta)",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "404", description = "Warehouse not found",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "409", description = "Warehouse archived",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "422", description = "Stock would drop below zero or exceed the capacity",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "500", description = "Internal server error",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
+  })
+  public Response moveWarehouseUnitStock(
+      @Parameter(description = "Business unit code of the warehouse", required = true)
+      @PathParam("id") String id,
+      @NotNull(message = "Request cannot be null.") @Valid StockMovementRequest request) {
+    log.debugf("Moving stock of warehouse '%s' by %d", id, request.delta());
+
+    Warehouse adjusted = adjustWarehouseStockUseCase.adjustStock(id, request.delta());
+
+    return Response.ok(toResponseWarehouse(adjusted)).tag(WarehouseETags.of(adjusted.getVersion())).build();
   }
 
   @DELETE
   @Path("/{id}")
   @Transactional
-  @Operation(summary = "Archive warehouse", description = "Archives a warehouse by setting its archived timestamp")
+  @Operation(summary = "Archive warehouse",
+      description = "Archives a warehouse by setting its archived timestamp; with If-Match only if the ETag is still current")
   @APIResponses(value = {
       @APIResponse(responseCode = "204", description = "Warehouse archived successfully"),
       @APIResponse(responseCode = "404", description = "Warehouse not found",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "409", description = "Warehouse already archived",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
+      @APIResponse(responseCode = "412", description = "If-Match does not match the current warehouse version",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))),
       @APIResponse(responseCode = "500", description = "Internal server error",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class)))
   })
   public Response archiveAWarehouseUnitByID(
       @Parameter(description = "Business unit code of the warehouse", required = true)
-      @PathParam("id") String id) {
+      @PathParam("id") String id,
+      @Parameter(description = "ETag the warehouse must still have")
+      @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
     log.debugf("Archiving warehouse with id '%s'", id);
     
-    Warehouse warehouse = warehouseStore.findByBusinessUnitCode(id);
-    if (warehouse == null) {
-      log.warnf("Warehouse not found for archiving with id '%s'", id);
-      throw new WarehouseNotFoundException(id);
-    }
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode(id);
+    warehouse.setVersion(WarehouseETags.expectedVersion(ifMatch));
     
     archiveWarehouseUseCase.archive(warehouse);
     log.infof("Archived warehouse with business unit code '%s'", id);
@@ -209,19 +535,26 @@ public class WarehouseResource {
     return Response.status(Response.Status.NO_CONTENT).build();
   }
 
-  private Warehouse toDomainWarehouse(DbWarehouse dbWarehouse) {
-    Warehouse warehouse = new Warehouse();
-    warehouse.setBusinessUnitCode(dbWarehouse.getBusinessUnitCode());
-    warehouse.setLocation(dbWarehouse.getLocation());
-    warehouse.setCapacity(dbWarehouse.getCapacity());
-    warehouse.setStock(dbWarehouse.getStock());
-    if (dbWarehouse.getCreatedAt() != null) {
-      warehouse.setCreationAt(dbWarehouse.getCreatedAt().atZone(ZoneId.of("UTC")));
+  /**
+   * Applies the single-create bean validation to one batch item.
+   *
+   * @return the validation error in the shape the single create would return, or null if valid
+   */
+  private ApiError validateBatchItem(CreateWarehouseRequest request) {
+    if (request == null) {
+      return ApiError.of(ConstraintViolationException.class.getName(), 400, "Request cannot be null.");
     }
-    if (dbWarehouse.getArchivedAt() != null) {
-      warehouse.setArchivedAt(dbWarehouse.getArchivedAt().atZone(ZoneId.of("UTC")));
+    Set<ConstraintViolation<CreateWarehouseRequest>> violations = validator.validate(request);
+    if (violations.isEmpty()) {
+      return null;
     }
-    return warehouse;
+    return ApiError.withViolations(
+        ConstraintViolationException.class.getName(),
+        400,
+        violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(", ")),
+        violations.stream()
+            .map(v -> new ApiError.Violation(v.getPropertyPath().toString(), v.getMessage(), String.valueOf(v.getInvalidValue())))
+            .collect(Collectors.toList()));
   }
 
   private WarehouseResponse toResponseWarehouse(Warehouse warehouse) {
@@ -231,7 +564,8 @@ public class WarehouseResource {
         warehouse.getCapacity(),
         warehouse.getStock(),
         warehouse.getCreationAt(),
-        warehouse.getArchivedAt()
+        warehouse.getArchivedAt(),
+        warehouse.getVersion()
     );
   }
 }
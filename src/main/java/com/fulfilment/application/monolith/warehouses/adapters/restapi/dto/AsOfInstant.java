@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi.dto;
+
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseRequestException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the {@code asOf} query parameter of the warehouse reads.
+ *
+ * <p>The value is an ISO-8601 date-time with offset, e.g. {@code 2024-07-01T12:00:00Z}, and is
+ * converted to UTC, the zone warehouse timestamps are stored in.</p>
+ */
+public final class AsOfInstant {
+
+  /** Name of the query parameter. */
+  public static final String PARAM = "asOf";
+
+  private AsOfInstant() {
+  }
+
+  /**
+   * Returns the instant a parameter value denotes.
+   *
+   * @param value the parameter value, may be null
+   * @return the instant in UTC, or null if the parameter is absent
+   * @throws InvalidWarehouseRequestException if the value is not a date-time with offset
+   */
+  public static LocalDateTime parse(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return OffsetDateTime.parse(value.trim()).withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    } catch (DateTimeParseException e) {
+      throw new InvalidWarehouseRequestException(
+          "asOf must be an ISO-8601 date-time with offset, e.g. 2024-07-01T12:00:00Z, got: " + value, e);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request DTO for a stock movement on a warehouse.
+ */
+public record StockMovementRequest(
+    @NotNull(message = "Delta is required.")
+    Integer delta
+) {}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fulfilment.application.monolith.common.ApiError;
+
+/**
+ * Outcome of one item of a batch warehouse creation.
+ *
+ * @param index position of the item in the request
+ * @param businessUnitCode business unit code of the item, as requested
+ * @param status HTTP status the item would have received as a single create
+ * @param warehouse the created warehouse, set when the item succeeded
+ * @param error the reason the item failed, set when the item failed
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WarehouseBatchItemResponse(
+    int index,
+    String businessUnitCode,
+    int status,
+    WarehouseResponse warehouse,
+    ApiError error
+) {}
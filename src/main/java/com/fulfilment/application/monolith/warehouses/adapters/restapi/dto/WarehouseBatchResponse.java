@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for batch warehouse creation.
+ */
+public record WarehouseBatchResponse(
+    int created,
+    int failed,
+    List<WarehouseBatchItemResponse> items
+) {}
@@ -0,0 +1,69 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi.dto;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseFilter;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.ws.rs.QueryParam;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+
+/**
+ * Query parameters filtering the warehouse list; every parameter is optional.
+ */
+public class WarehouseListFilter {
+
+  @QueryParam("location")
+  @Parameter(description = "Only warehouses at this location identifier")
+  String location;
+
+  @QueryParam("status")
+  @Parameter(description = "Only active or only archived warehouses; both when omitted."
+      + " Warehouses moved to the archive are listed by GET /warehouse/archive")
+  @Pattern(regexp = "active|archived", message = "Status must be 'active' or 'archived'.")
+  String status;
+
+  @QueryParam("minCapacity")
+  @Parameter(description = "Inclusive lower capacity bound")
+  @Min(value = 0, message = "minCapacity cannot be negative.")
+  Integer minCapacity;
+
+  @QueryParam("maxCapacity")
+  @Parameter(description = "Inclusive upper capacity bound")
+  @Min(value = 0, message = "maxCapacity cannot be negative.")
+  Integer maxCapacity;
+
+  @QueryParam("minStock")
+  @Parameter(description = "Inclusive lower stock bound")
+  @Min(value = 0, message = "minStock cannot be negative.")
+  Integer minStock;
+
+  @QueryParam("maxStock")
+  @Parameter(description = "Inclusive upper stock bound")
+  @Min(value = 0, message = "maxStock cannot be negative.")
+  Integer maxStock;
+
+  @QueryParam("minUtilization")
+  @Parameter(description = "Only warehouses whose stock is at least this fraction of their capacity, between 0 and 1")
+  @DecimalMin(value = "0", message = "minUtilization must be between 0 and 1.")
+  @DecimalMax(value = "1", message = "minUtilization must be between 0 and 1.")
+  Double minUtilization;
+
+  @QueryParam(AsOfInstant.PARAM)
+  @Parameter(description = "List the warehouses as they were at this ISO-8601 date-time with offset,"
+      + " e.g. 2024-07-01T12:00:00Z, instead of as they are now")
+  String asOf;
+
+  /**
+   * Converts the query parameters to repository criteria.
+   *
+   * @return the filter to list warehouses with
+   * @throws com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseRequestException
+   *     if {@code asOf} is not a date-time with offset
+   */
+  public WarehouseFilter toFilter() {
+    Boolean archived = status == null ? null : "archived".equals(status);
+    return new WarehouseFilter(location, archived, minCapacity, maxCapacity, minStock, maxStock, minUtilization,
+        AsOfInstant.parse(asOf));
+  }
+}
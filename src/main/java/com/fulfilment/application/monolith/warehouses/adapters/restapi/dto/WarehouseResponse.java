@@ -1,5 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi.dto;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
 /**
@@ -11,6 +13,22 @@ public record WarehouseResponse(
     Integer capacity,
     Integer stock,
     ZonedDateTime creationAt,
-    ZonedDateTime archivedAt
-) {}
+    ZonedDateTime archivedAt,
+    Long version
+) {
+
+  private static final ZoneId UTC = ZoneId.of("UTC");
+
+  /**
+   * Projection constructor for read queries selecting the stored columns, whose timestamps are UTC.
+   * Used as a JPQL constructor expression so rows map straight to the response without an entity.
+   */
+  public WarehouseResponse(String businessUnitCode, String location, Integer capacity, Integer stock,
+      LocalDateTime createdAt, LocalDateTime archivedAt, Long version) {
+    this(businessUnitCode, location, capacity, stock,
+        createdAt == null ? null : createdAt.atZone(UTC),
+        archivedAt == null ? null : archivedAt.atZone(UTC),
+        version);
+  }
+}
 
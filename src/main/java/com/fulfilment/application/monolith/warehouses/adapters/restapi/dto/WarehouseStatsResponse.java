@@ -0,0 +1,106 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi.dto;
+
+import com.fulfilment.application.monolith.location.Location;
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancySnapshot;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilization of active warehouses per location and across all locations.
+ *
+ * @param total the totals over all locations
+ * @param locations one entry per catalog location and per location that still has warehouses, by identifier
+ */
+public record WarehouseStatsResponse(
+    Totals total,
+    List<LocationTotals> locations
+) {
+
+  /**
+   * Combines the location limits with their occupancy. Locations without warehouses count as
+   * empty; locations no longer in the catalog are reported with zero limits.
+   *
+   * @param catalog the known locations
+   * @param occupancy the occupancy counters per location
+   * @return the statistics
+   */
+  public static WarehouseStatsResponse of(Collection<Location> catalog, Collection<LocationOccupancySnapshot> occupancy) {
+    Map<String, Location> limits = new HashMap<>();
+    catalog.forEach(location -> limits.put(location.identification(), location));
+    Map<String, LocationOccupancySnapshot> occupied = new HashMap<>();
+    occupancy.forEach(snapshot -> occupied.put(snapshot.location(), snapshot));
+
+    List<LocationTotals> locations = new ArrayList<>();
+    long warehouses = 0;
+    long capacity = 0;
+    long stock = 0;
+    long maxWarehouses = 0;
+    long maxCapacity = 0;
+    for (String identifier : union(limits.keySet(), occupied.keySet())) {
+      Location location = limits.get(identifier);
+      LocationOccupancySnapshot snapshot = occupied.get(identifier);
+      Totals totals = Totals.of(
+          snapshot == null ? 0 : snapshot.activeWarehouses(),
+          snapshot == null ? 0 : snapshot.totalCapacity(),
+          snapshot == null ? 0 : snapshot.totalStock(),
+          location == null ? 0 : location.maxNumberOfWarehouses(),
+          location == null ? 0 : (long) location.maxNumberOfWarehouses() * location.maxCapacity());
+      locations.add(new LocationTotals(identifier, totals));
+      warehouses += totals.activeWarehouses();
+      capacity += totals.totalCapacity();
+      stock += totals.totalStock();
+      maxWarehouses += totals.maxNumberOfWarehouses();
+      maxCapacity += totals.maxTotalCapacity();
+    }
+    locations.sort(Comparator.comparing(LocationTotals::location));
+    return new WarehouseStatsResponse(Totals.of(warehouses, capacity, stock, maxWarehouses, maxCapacity), locations);
+  }
+
+  private static Collection<String> union(Collection<String> first, Collection<String> second) {
+    List<String> identifiers = new ArrayList<>(first);
+    second.stream().filter(identifier -> !first.contains(identifier)).forEach(identifiers::add);
+    return identifiers;
+  }
+
+  /**
+   * Totals of one location.
+   *
+   * @param location the location identifier
+   * @param totals its totals
+   */
+  public record LocationTotals(String location, Totals totals) {}
+
+  /**
+   * Aggregated utilization of active warehouses.
+   *
+   * @param activeWarehouses the number of active warehouses
+   * @param totalCapacity the summed capacity of the active warehouses
+   * @param totalStock the summed stock of the active warehouses
+   * @param utilization stock divided by capacity, 0 without capacity
+   * @param maxNumberOfWarehouses the number of warehouses the location limits allow
+   * @param warehouseHeadroom the number of warehouses that can still be created
+   * @param maxTotalCapacity the capacity the location limits allow, {@code maxNumberOfWarehouses}
+   *     times the {@code maxCapacity} of each warehouse
+   * @param capacityHeadroom the capacity that can still be added
+   */
+  public record Totals(
+      long activeWarehouses,
+      long totalCapacity,
+      long totalStock,
+      double utilization,
+      long maxNumberOfWarehouses,
+      long warehouseHeadroom,
+      long maxTotalCapacity,
+      long capacityHeadroom
+  ) {
+
+    static Totals of(long warehouses, long capacity, long stock, long maxWarehouses, long maxCapacity) {
+      return new Totals(warehouses, capacity, stock, capacity == 0 ? 0 : (double) stock / capacity,
+          maxWarehouses, maxWarehouses - warehouses, maxCapacity, maxCapacity - capacity);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package com.fulfilment.application.monolith.warehouses.adapters.snapshot;
+
+import com.fulfilment.application.monolith.common.KeysetPage;
+import com.fulfilment.application.monolith.common.PageCursor;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseFilter;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the warehouse table: the rows sorted by business unit code plus a hash index
+ * from code to position. Changes produce a new snapshot with the next sequence number; an existing
+ * snapshot is never modified, so any number of threads can read it without locking.
+ *
+ * <p>Codes are compared by {@link String#compareTo(String)}, so pages follow code point order,
+ * which may differ from the database collation used when the list is read from the database.</p>
+ */
+public final class WarehouseSnapshot {
+
+  static final WarehouseSnapshot EMPTY = new WarehouseSnapshot(0, new WarehouseResponse[0]);
+
+  private static final Comparator<WarehouseResponse> BY_CODE = Comparator.comparing(WarehouseResponse::businessUnitCode);
+
+  private final long sequence;
+  private final WarehouseResponse[] rows;
+  private final String[] codes;
+  private final Map<String, Integer> index;
+
+  private WarehouseSnapshot(long sequence, WarehouseResponse[] sortedRows) {
+    this.sequence = sequence;
+    this.rows = sortedRows;
+    this.codes = new String[sortedRows.length];
+    this.index = new HashMap<>(sortedRows.length * 4 / 3 + 1);
+    for (int i = 0; i < sortedRows.length; i++) {
+      codes[i] = sortedRows[i].businessUnitCode();
+      index.put(codes[i], i);
+    }
+  }
+
+  /**
+   * Creates a snapshot from rows in any order.
+   *
+   * @param sequence the sequence number of the snapshot
+   * @param rows the warehouses, one per business unit code
+   * @return the snapshot
+   */
+  static WarehouseSnapshot of(long sequence, Collection<WarehouseResponse> rows) {
+    WarehouseResponse[] sorted = rows.toArray(new WarehouseResponse[0]);
+    Arrays.sort(sorted, BY_CODE);
+    return new WarehouseSnapshot(sequence, sorted);
+  }
+
+  /**
+   * Returns the sequence number; every published change increments it.
+   *
+   * @return the sequence number
+   */
+  public long sequence() {
+    return sequence;
+  }
+
+  public int size() {
+    return rows.length;
+  }
+
+  /**
+   * Returns a warehouse by business unit code through the hash index.
+   *
+   * @param businessUnitCode the business unit code
+   * @return the warehouse, or null if the snapshot does not hold it
+   */
+  public WarehouseResponse find(String businessUnitCode) {
+    Integer position = index.get(businessUnitCode);
+    return position == null ? null : rows[position];
+  }
+
+  /**
+   * Lists one page of the warehouses matching a filter in business unit code order. The page
+   * starts with a binary search for the cursor and reads on until it has {@code limit + 1} matches.
+   *
+   * @param filter the criteria to match; its {@code asOf} must be null, the snapshot only holds the present
+   * @param after the position to continue after, or null for the first page
+   * @param limit the page size
+   * @return the page, with the cursor of the next one if more warehouses match
+   */
+  public KeysetPage<WarehouseResponse> page(WarehouseFilter filter, PageCursor after, int limit) {
+    int start = 0;
+    if (after != null) {
+      int found = Arrays.binarySearch(codes, after.sortKey());
+      start = found >= 0 ? found + 1 : -found - 1;
+    }
+    List<WarehouseResponse> matches = new ArrayList<>(Math.min(limit + 1, rows.length - start));
+    for (int i = start; i < rows.length && matches.size() <= limit; i++) {
+      if (matches(rows[i], filter)) {
+        matches.add(rows[i]);
+      }
+    }
+    return KeysetPage.of(matches, limit, row -> new PageCursor(row.businessUnitCode(), null));
+  }
+
+  /**
+   * Returns a copy with changed rows written and removed codes dropped, numbered with the next
+   * sequence. A changed row only replaces a held row of a lower or equal version, so a change
+   * published late does not undo a later one.
+   *
+   * @param changed the warehouses as read after their change
+   * @param removed the business unit codes no longer in the warehouse table
+   * @return the new snapshot
+   */
+  WarehouseSnapshot with(Collection<WarehouseResponse> changed, Collection<String> removed) {
+    WarehouseResponse[] next = Arrays.copyOf(rows, rows.length);
+    List<WarehouseResponse> added = new ArrayList<>();
+    for (WarehouseResponse row : changed) {
+      Integer position = index.get(row.businessUnitCode());
+      if (position == null) {
+        added.add(row);
+      } else if (!isOlder(row, next[position])) {
+        next[position] = row;
+      }
+    }
+    boolean dropped = false;
+    for (String code : removed) {
+      Integer position = index.get(code);
+      if (position != null) {
+        next[position] = null;
+        dropped = true;
+      }
+    }
+    if (added.isEmpty() && !dropped) {
+      return new WarehouseSnapshot(sequence + 1, next);
+    }
+    List<WarehouseResponse> merged = new ArrayList<>(next.length + added.size());
+    for (WarehouseResponse row : next) {
+      if (row != null) {
+        merged.add(row);
+      }
+    }
+    merged.addAll(added);
+    return of(sequence + 1, merged);
+  }
+
+  /**
+   * Returns a freshly loaded snapshot numbered after this one, in which the warehouses changed while
+   * it was loaded are taken from this snapshot where this one holds a newer version or no longer
+   * holds them at all.
+   *
+   * @param loaded the snapshot read from the database
+   * @param changedWhileLoading the business unit codes published while the database was read
+   * @return the snapshot to publish
+   */
+  WarehouseSnapshot rebuiltFrom(WarehouseSnapshot loaded, Collection<String> changedWhileLoading) {
+    List<WarehouseResponse> changed = new ArrayList<>();
+    List<String> removed = new ArrayList<>();
+    for (String code : changedWhileLoading) {
+      WarehouseResponse held = find(code);
+      if (held == null) {
+        removed.add(code);
+      } else {
+        changed.add(held);
+      }
+    }
+    WarehouseSnapshot rebuilt = loaded.with(changed, removed);
+    return new WarehouseSnapshot(sequence + 1, rebuilt.rows);
+  }
+
+  private static boolean isOlder(WarehouseResponse row, WarehouseResponse than) {
+    return row.version() != null && than.version() != null && row.version() < than.version();
+  }
+
+  private static boolean matches(WarehouseResponse row, WarehouseFilter filter) {
+    if (filter.location() != null && !filter.location().equals(row.location())) {
+      return false;
+    }
+    if (filter.archived() != null && filter.archived() != (row.archivedAt() != null)) {
+      return false;
+    }
+    if (!atLeast(row.capacity(), filter.minCapacity()) || !atMost(row.capacity(), filter.maxCapacity())) {
+      return false;
+    }
+    if (!atLeast(row.stock(), filter.minStock()) || !atMost(row.stock(), filter.maxStock())) {
+      return false;
+    }
+    // Same comparison as the query: null columns never match a criterion.
+    return filter.minUtilization() == null
+        || (row.stock() != null && row.capacity() != null && row.stock() >= filter.minUtilization() * row.capacity());
+  }
+
+  private static boolean atLeast(Integer value, Integer bound) {
+    return bound == null || (value != null && value >= bound);
+  }
+
+  private static boolean atMost(Integer value, Integer bound) {
+    return bound == null || (value != null && value <= bound);
+  }
+}
@@ -0,0 +1,58 @@
+package com.fulfilment.application.monolith.warehouses.adapters.snapshot;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Loads {@link WarehouseSnapshotView} at startup and periodically rebuilds it from the database,
+ * if the snapshot is enabled. Changes committed on other nodes are only published here by a
+ * rebuild, so the interval bounds how long this node serves them stale.
+ */
+@ApplicationScoped
+@JBossLog
+public class WarehouseSnapshotRebuildScheduler {
+
+  @Inject WarehouseSnapshotView snapshotView;
+
+  @ConfigProperty(name = "warehouse.snapshot.rebuild-interval", defaultValue = "30s")
+  Duration rebuildInterval;
+
+  private ScheduledExecutorService executor;
+
+  void start(@Observes StartupEvent event) {
+    if (!snapshotView.isEnabled()) {
+      return;
+    }
+    int loaded = snapshotView.rebuild().size();
+    log.infof("Warehouse snapshot enabled with %d warehouse(s), rebuilding every %s", loaded, rebuildInterval);
+    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "warehouse-snapshot-rebuilder");
+      t.setDaemon(true);
+      return t;
+    });
+    long intervalMs = rebuildInterval.toMillis();
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        snapshotView.rebuild();
+      } catch (Exception e) {
+        log.error("Error rebuilding warehouse snapshot", e);
+      }
+    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
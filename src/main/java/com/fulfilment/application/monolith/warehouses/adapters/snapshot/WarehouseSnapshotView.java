@@ -0,0 +1,152 @@
+package com.fulfilment.application.monolith.warehouses.adapters.snapshot;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseResponse;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Serves the warehouse list from an immutable {@link WarehouseSnapshot} of the warehouse table,
+ * enabled with {@code warehouse.snapshot.enabled}.
+ *
+ * <p>The snapshot is loaded at startup and rebuilt periodically by
+ * {@link WarehouseSnapshotRebuildScheduler}. A transaction that changes warehouses reads the changed
+ * rows back within it, with one query just before it commits, and once it has committed a new
+ * snapshot with all rows it changed is published by swapping an atomic reference. Readers only dereference the current snapshot: they
+ * take no lock and no database connection, and see either the whole change or none of it.</p>
+ *
+ * <p>Rows changed outside the use cases must be pushed with {@link #refresh(Collection)} or
+ * {@link #rebuild()}; the write-behind stock flush and the archive mover do so. Changes committed
+ * on other nodes are only seen after the next rebuild, so the snapshot is disabled by default.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class WarehouseSnapshotView {
+
+  private static final String CHANGED_RESOURCE_KEY = WarehouseSnapshotView.class.getName() + ".changed";
+
+  @ConfigProperty(name = "warehouse.snapshot.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @Inject
+  TransactionSynchronizationRegistry transactionRegistry;
+
+  private final AtomicReference<WarehouseSnapshot> current = new AtomicReference<>(WarehouseSnapshot.EMPTY);
+
+  private volatile Set<String> changedDuringRebuild;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the latest published snapshot.
+   *
+   * @return the snapshot
+   */
+  public WarehouseSnapshot current() {
+    return current.get();
+  }
+
+  /**
+   * Replaces the snapshot with the whole warehouse table. Changes published while the table was
+   * read are kept where they are newer than the rows read.
+   *
+   * @return the published snapshot
+   */
+  public synchronized WarehouseSnapshot rebuild() {
+    Set<String> changed = ConcurrentHashMap.newKeySet();
+    changedDuringRebuild = changed;
+    WarehouseSnapshot published;
+    try {
+      WarehouseSnapshot loaded = WarehouseSnapshot.of(0, QuarkusTransaction.requiringNew()
+          .call(() -> warehouseRepository.listAllAs(WarehouseResponse.class)));
+      published = current.updateAndGet(previous -> previous.rebuiltFrom(loaded, changed));
+    } finally {
+      changedDuringRebuild = null;
+    }
+    log.debugf("Rebuilt warehouse snapshot %d with %d warehouse(s)", published.sequence(), published.size());
+    return published;
+  }
+
+  /**
+   * Re-reads warehouses in a new transaction and publishes them; codes no longer in the warehouse
+   * table are dropped from the snapshot.
+   *
+   * @param businessUnitCodes the business unit codes to re-read
+   */
+  public void refresh(Collection<String> businessUnitCodes) {
+    if (!enabled || businessUnitCodes.isEmpty()) {
+      return;
+    }
+    List<WarehouseResponse> rows = QuarkusTransaction.requiringNew()
+        .call(() -> warehouseRepository.listByBusinessUnitCodesAs(WarehouseResponse.class, businessUnitCodes));
+    publish(businessUnitCodes, rows);
+  }
+
+  /**
+   * Records a warehouse changed by the current transaction. All warehouses it changed are read
+   * back with one query before it commits, and published once it has committed.
+   */
+  void stage(@Observes WarehouseChangedEvent event) {
+    if (!enabled || transactionRegistry.getTransactionKey() == null) {
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<String> changed = (Set<String>) transactionRegistry.getResource(CHANGED_RESOURCE_KEY);
+    if (changed == null) {
+      Set<String> codes = new HashSet<>();
+      List<WarehouseResponse> rows = new ArrayList<>();
+      transactionRegistry.putResource(CHANGED_RESOURCE_KEY, codes);
+      transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+        @Override
+        public void beforeCompletion() {
+          rows.addAll(warehouseRepository.listByBusinessUnitCodesAs(WarehouseResponse.class, codes));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          if (status != Status.STATUS_COMMITTED) {
+            return;
+          }
+          try {
+            publish(codes, rows);
+          } catch (RuntimeException e) {
+            log.error("Could not publish changed warehouses to the snapshot", e);
+          }
+        }
+      });
+      changed = codes;
+    }
+    changed.add(event.businessUnitCode());
+  }
+
+  private void publish(Collection<String> codes, List<WarehouseResponse> rows) {
+    Set<String> rebuilding = changedDuringRebuild;
+    if (rebuilding != null) {
+      rebuilding.addAll(codes);
+    }
+    Set<String> removed = new HashSet<>(codes);
+    rows.forEach(row -> removed.remove(row.businessUnitCode()));
+    WarehouseSnapshot published = current.updateAndGet(previous -> previous.with(rows, removed));
+    log.debugf("Published warehouse snapshot %d with %d changed warehouse(s)", published.sequence(), codes.size());
+  }
+}
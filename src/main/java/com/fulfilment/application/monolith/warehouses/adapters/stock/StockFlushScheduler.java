@@ -0,0 +1,100 @@
+package com.fulfilment.application.monolith.warehouses.adapters.stock;
+
+import com.fulfilment.application.monolith.warehouses.adapters.cache.WarehouseCache;
+import com.fulfilment.application.monolith.warehouses.adapters.database.StockMovementLog;
+import com.fulfilment.application.monolith.warehouses.adapters.snapshot.WarehouseSnapshotView;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Applies the write-behind {@link StockMovementLog} to the warehouse table.
+ *
+ * <p>At startup any movements left by a previous run are applied, whether or not write-behind mode
+ * is enabled; with the mode enabled the log is then flushed at a fixed delay and once more on
+ * shutdown. Movements left for warehouses that no longer exist are reported once at startup.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class StockFlushScheduler {
+
+  @Inject StockLedger ledger;
+
+  @Inject StockMovementLog movementLog;
+
+  @Inject WarehouseCache warehouseCache;
+
+  @Inject WarehouseSnapshotView snapshotView;
+
+  @ConfigProperty(name = "warehouse.stock.write-behind.flush-interval", defaultValue = "100ms")
+  Duration flushInterval;
+
+  private ScheduledExecutorService executor;
+
+  void start(@Observes StartupEvent event) {
+    int recovered = flush();
+    if (recovered > 0) {
+      log.infof("Recovered pending stock movements of %d warehouse(s)", recovered);
+    }
+    List<String> orphans = QuarkusTransaction.requiringNew().call(movementLog::orphans);
+    if (!orphans.isEmpty()) {
+      log.warnf("Stock movements kept for %d warehouse(s) that no longer exist: %s", orphans.size(), orphans);
+    }
+    if (!ledger.isEnabled()) {
+      return;
+    }
+    executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "warehouse-stock-flusher");
+      t.setDaemon(true);
+      return t;
+    });
+    long intervalMs = flushInterval.toMillis();
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        flush();
+      } catch (Exception e) {
+        log.error("Error flushing stock movements", e);
+      }
+    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    log.infof("Write-behind stock mode enabled, flushing every %s", flushInterval);
+  }
+
+  void stop(@Observes ShutdownEvent event) {
+    if (executor == null) {
+      return;
+    }
+    executor.shutdown();
+    try {
+      if (executor.awaitTermination(5, TimeUnit.SECONDS)) {
+        flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.error("Error flushing stock movements on shutdown", e);
+    }
+  }
+
+  /**
+   * Applies all committed movements in a new transaction, drops the cached warehouses they changed
+   * and republishes them to the warehouse snapshot.
+   *
+   * @return the number of warehouses whose stock changed
+   */
+  public int flush() {
+    List<String> flushed = QuarkusTransaction.requiringNew().call(movementLog::applyPending);
+    flushed.forEach(warehouseCache::invalidate);
+    snapshotView.refresh(flushed);
+    return flushed.size();
+  }
+}
@@ -0,0 +1,190 @@
+package com.fulfilment.application.monolith.warehouses.adapters.stock;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.ProjectedStock;
+import com.fulfilment.application.monolith.warehouses.adapters.database.StockMovementLog;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangeType;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InsufficientCapacityException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.jbosslog.JBossLog;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * In-memory stock counters for write-behind mode, one per warehouse.
+ *
+ * <p>A counter holds the projected stock: the flushed stock plus every movement accepted since.
+ * Movements are admitted with a compare-and-set against the warehouse capacity, so the bounds are
+ * enforced without touching the database. Counters are seeded from the warehouse table and the
+ * pending movement log the first time a warehouse is moved, and follow capacity changes and
+ * archiving through {@link WarehouseChangedEvent}s. A lower capacity is applied ahead of its commit
+ * with {@link #lowerCapacity(String, int)}, so it is checked against the projected stock.</p>
+ *
+ * <p>The bounds are local to this instance: write-behind mode assumes a single instance accepts the
+ * movements of a warehouse.</p>
+ */
+@ApplicationScoped
+@JBossLog
+public class StockLedger {
+
+  @ConfigProperty(name = "warehouse.stock.write-behind.enabled", defaultValue = "false")
+  boolean enabled;
+
+  @Inject
+  StockMovementLog movementLog;
+
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Admits a movement if the projected stock stays between zero and the capacity.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @param delta the stock change
+   * @return the projected stock after the movement, or empty if the warehouse does not exist, is
+   *     archived or the movement is out of range
+   */
+  public OptionalLong reserve(String businessUnitCode, int delta) {
+    Counter counter = counterOf(businessUnitCode);
+    return counter == null ? OptionalLong.empty() : counter.tryAdd(delta);
+  }
+
+  /**
+   * Applies a lower capacity to the counter of a warehouse before the change that sets it commits,
+   * so neither the pending movements nor those admitted from now on exceed it. A higher capacity
+   * is left to the committed change.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @param capacity the new capacity
+   * @return the capacity to restore with {@link #restoreCapacity(String, int)} if the change does
+   *     not commit, or empty if the counter was not changed
+   * @throws InsufficientCapacityException if the projected stock exceeds the new capacity
+   */
+  public OptionalInt lowerCapacity(String businessUnitCode, int capacity) {
+    Counter counter = counterOf(businessUnitCode);
+    if (counter == null || capacity >= counter.capacity) {
+      return OptionalInt.empty();
+    }
+    int previous = counter.capacity;
+    counter.capacity = capacity;
+    // Read after the capacity is lowered: a movement admitted against the previous capacity is
+    // either seen here or sees the lowered capacity when it re-checks, see Counter#tryAdd.
+    long stock = counter.stock.get();
+    if (stock > capacity) {
+      counter.capacity = previous;
+      throw new InsufficientCapacityException(capacity, (int) stock);
+    }
+    return OptionalInt.of(previous);
+  }
+
+  /**
+   * Restores the capacity lowered by a change that did not commit.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @param capacity the capacity returned by {@link #lowerCapacity(String, int)}
+   */
+  public void restoreCapacity(String businessUnitCode, int capacity) {
+    Counter counter = counters.get(businessUnitCode);
+    if (counter != null) {
+      counter.capacity = capacity;
+    }
+  }
+
+  private Counter counterOf(String businessUnitCode) {
+    Counter counter = counters.get(businessUnitCode);
+    if (counter == null) {
+      ProjectedStock projected = movementLog.projectedStock(businessUnitCode);
+      if (projected == null) {
+        return null;
+      }
+      counter = counters.computeIfAbsent(businessUnitCode, key -> new Counter(projected));
+    }
+    return counter;
+  }
+
+  /**
+   * Reverts an admitted movement whose log entry was not committed.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @param delta the stock change that was admitted
+   */
+  public void release(String businessUnitCode, int delta) {
+    Counter counter = counters.get(businessUnitCode);
+    if (counter != null) {
+      counter.stock.addAndGet(-delta);
+    }
+  }
+
+  /**
+   * Drops all counters; they are seeded again on the next movement.
+   */
+  public void clear() {
+    counters.clear();
+  }
+
+  /**
+   * Follows committed capacity changes and archiving.
+   */
+  void onWarehouseChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseChangedEvent event) {
+    Counter counter = counters.get(event.businessUnitCode());
+    if (counter == null) {
+      return;
+    }
+    if (event.type() == WarehouseChangeType.ARCHIVED) {
+      counter.archived = true;
+    } else if (event.current() != null) {
+      counter.capacity = event.current().capacity();
+    }
+  }
+
+  /**
+   * Projected stock of one warehouse, shared between threads.
+   */
+  private static final class Counter {
+
+    private final AtomicLong stock;
+    private volatile int capacity;
+    private volatile boolean archived;
+
+    Counter(ProjectedStock projected) {
+      this.stock = new AtomicLong(projected.stock());
+      this.capacity = projected.capacity();
+      this.archived = projected.archived();
+    }
+
+    OptionalLong tryAdd(int delta) {
+      while (true) {
+        if (archived) {
+          return OptionalLong.empty();
+        }
+        long current = stock.get();
+        long next = current + delta;
+        if (next < 0 || next > capacity) {
+          return OptionalLong.empty();
+        }
+        if (stock.compareAndSet(current, next)) {
+          if (delta > 0 && next > capacity) {
+            // The capacity was lowered after it was read above.
+            stock.addAndGet(-delta);
+            return OptionalLong.empty();
+          }
+          return OptionalLong.of(next);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.fulfilment.application.monolith.warehouses.adapters.stock;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.StockMovementLog;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.annotation.Priority;
+import jakarta.decorator.Decorator;
+import jakarta.decorator.Delegate;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+/**
+ * Write-behind stock mode for the {@link WarehouseStore} port, enabled with
+ * {@code warehouse.stock.write-behind.enabled}.
+ *
+ * <p>Instead of updating the warehouse row, {@link #adjustStock(String, int)} admits the movement
+ * against the {@link StockLedger} and appends it to the {@link StockMovementLog} in the caller's
+ * transaction; {@link StockFlushScheduler} applies the log to the warehouse table in batches. If the
+ * transaction does not commit, the admitted movement is reverted. Until the next flush the stored
+ * stock lags the stock returned here.</p>
+ *
+ * <p>Because of that lag, {@link #update(Warehouse)} checks a lower capacity against the projected
+ * stock of the ledger rather than the stored one, and holds it in the ledger until the transaction
+ * completes.</p>
+ */
+@Decorator
+@Priority(5)
+public abstract class WriteBehindStockStore implements WarehouseStore {
+
+  @Inject
+  @Delegate
+  @Any
+  WarehouseStore delegate;
+
+  @Inject
+  StockLedger ledger;
+
+  @Inject
+  StockMovementLog movementLog;
+
+  @Inject
+  TransactionSynchronizationRegistry transactionRegistry;
+
+  @Override
+  public Warehouse update(Warehouse warehouse) {
+    if (!ledger.isEnabled()) {
+      return delegate.update(warehouse);
+    }
+    String buCode = warehouse.getBusinessUnitCode();
+    OptionalInt previousCapacity = ledger.lowerCapacity(buCode, warehouse.getCapacity());
+    if (previousCapacity.isPresent()) {
+      onRollback(() -> ledger.restoreCapacity(buCode, previousCapacity.getAsInt()));
+    }
+    return delegate.update(warehouse);
+  }
+
+  @Override
+  public Warehouse adjustStock(String buCode, int delta) {
+    if (!ledger.isEnabled()) {
+      return delegate.adjustStock(buCode, delta);
+    }
+    OptionalLong stock = ledger.reserve(buCode, delta);
+    if (stock.isEmpty()) {
+      return null;
+    }
+    try {
+      movementLog.append(buCode, delta);
+    } catch (RuntimeException e) {
+      ledger.release(buCode, delta);
+      throw e;
+    }
+    onRollback(() -> ledger.release(buCode, delta));
+    Warehouse warehouse = delegate.findCurrentByBusinessUnitCode(buCode);
+    warehouse.setStock((int) stock.getAsLong());
+    return warehouse;
+  }
+
+  /**
+   * Runs an undo action if the current transaction does not commit.
+   */
+  private void onRollback(Runnable undo) {
+    if (transactionRegistry.getTransactionKey() != null) {
+      transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+        @Override
+        public void beforeCompletion() {
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          if (status != Status.STATUS_COMMITTED) {
+            undo.run();
+          }
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.warehouses.domain.events;
+
+/**
+ * Warehouse lifecycle changes emitted by the warehouses bounded context.
+ */
+public enum WarehouseChangeType {
+  CREATED,
+  REPLACED,
+  ARCHIVED,
+  STOCK_ADJUSTED
+}
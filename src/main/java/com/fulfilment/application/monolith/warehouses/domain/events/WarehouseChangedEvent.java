@@ -0,0 +1,50 @@
+package com.fulfilment.application.monolith.warehouses.domain.events;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+
+/**
+ * Domain event emitted by the warehouse use cases inside the write transaction.
+ *
+ * <p>Carries the active state before and after the change so read models can apply it as a delta:
+ * {@code previous} is null for {@link WarehouseChangeType#CREATED} and {@code current} is null for
+ * {@link WarehouseChangeType#ARCHIVED}, since an archived warehouse no longer occupies its location.
+ * Observers that maintain committed state should use {@code during = TransactionPhase.AFTER_SUCCESS}.</p>
+ */
+public record WarehouseChangedEvent(
+    String businessUnitCode,
+    WarehouseChangeType type,
+    WarehouseState previous,
+    WarehouseState current
+) {
+
+  public static WarehouseChangedEvent created(Warehouse warehouse) {
+    return new WarehouseChangedEvent(warehouse.getBusinessUnitCode(), WarehouseChangeType.CREATED,
+        null, WarehouseState.of(warehouse));
+  }
+
+  public static WarehouseChangedEvent replaced(Warehouse previous, Warehouse current) {
+    return new WarehouseChangedEvent(current.getBusinessUnitCode(), WarehouseChangeType.REPLACED,
+        WarehouseState.of(previous), WarehouseState.of(current));
+  }
+
+  /**
+   * Creates the event for a stock movement; only the stock differs between the two states. The
+   * version before the movement is not known, so the previous state carries none. In write-behind
+   * stock mode the stored version only changes on flush, so consecutive movements of a warehouse
+   * may carry the same version.
+   *
+   * @param adjusted the warehouse after the movement
+   * @param delta the applied stock change
+   */
+  public static WarehouseChangedEvent stockAdjusted(Warehouse adjusted, int delta) {
+    WarehouseState current = WarehouseState.of(adjusted);
+    return new WarehouseChangedEvent(adjusted.getBusinessUnitCode(), WarehouseChangeType.STOCK_ADJUSTED,
+        new WarehouseState(current.location(), current.capacity(), current.stock() - delta, null),
+        current);
+  }
+
+  public static WarehouseChangedEvent archived(Warehouse warehouse) {
+    return new WarehouseChangedEvent(warehouse.getBusinessUnitCode(), WarehouseChangeType.ARCHIVED,
+        WarehouseState.of(warehouse), null);
+  }
+}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.warehouses.domain.events;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+
+/**
+ * Immutable copy of the warehouse attributes carried by {@link WarehouseChangedEvent}.
+ *
+ * @param location the location identifier
+ * @param capacity the warehouse capacity
+ * @param stock the warehouse stock
+ * @param version the stored version of the warehouse, by which read models order the changes they
+ *     receive; null if not known
+ */
+public record WarehouseState(
+    String location,
+    int capacity,
+    int stock,
+    Long version
+) {
+
+  public static WarehouseState of(Warehouse warehouse) {
+    return new WarehouseState(warehouse.getLocation(), warehouse.getCapacity(), warehouse.getStock(),
+        warehouse.getVersion());
+  }
+}
@@ -1,5 +1,6 @@
 package com.fulfilment.application.monolith.warehouses.domain.exceptions;
 
+import java.util.Collection;
 import lombok.Getter;
 
 /**
@@ -9,11 +10,17 @@ import lombok.Getter;
 @Getter
 public class DuplicateBusinessUnitCodeException extends RuntimeException {
 
+  /** The duplicate code, or null if it is only known to be one of a batch. */
   private final String businessUnitCode;
 
   public DuplicateBusinessUnitCodeException(String businessUnitCode) {
     super("Warehouse with business unit code '" + businessUnitCode + "' already exists.");
     this.businessUnitCode = businessUnitCode;
   }
+
+  public DuplicateBusinessUnitCodeException(Collection<String> businessUnitCodes) {
+    super("A warehouse with one of the business unit codes " + businessUnitCodes + " already exists.");
+    this.businessUnitCode = null;
+  }
 }
 
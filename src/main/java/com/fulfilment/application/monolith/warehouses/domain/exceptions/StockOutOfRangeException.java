@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.warehouses.domain.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a stock movement would take warehouse stock below zero or above capacity.
+ */
+@Getter
+public class StockOutOfRangeException extends RuntimeException {
+
+  private final String businessUnitCode;
+  private final int stock;
+  private final int delta;
+  private final int capacity;
+
+  public StockOutOfRangeException(String businessUnitCode, int stock, int delta, int capacity) {
+    super("Stock movement of " + delta + " on warehouse '" + businessUnitCode + "' would change stock " + stock
+        + " to " + ((long) stock + delta) + ", outside 0.." + capacity + ".");
+    this.businessUnitCode = businessUnitCode;
+    this.stock = stock;
+    this.delta = delta;
+    this.capacity = capacity;
+  }
+}
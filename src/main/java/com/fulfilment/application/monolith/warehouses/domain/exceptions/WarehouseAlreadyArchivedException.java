@@ -3,9 +3,8 @@ package com.fulfilment.application.monolith.warehouses.domain.exceptions;
 import lombok.Getter;
 
 /**
- * Exception thrown when attempting to archive a warehouse that is already archived.
+ * Exception thrown when attempting to archive or replace a warehouse that is already archived.
  */
-
 @Getter
 public class WarehouseAlreadyArchivedException extends RuntimeException {
 
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.domain.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a warehouse change is conditional on a version the warehouse no longer has.
+ */
+@Getter
+public class WarehouseVersionMismatchException extends RuntimeException {
+
+  private final String businessUnitCode;
+  private final Long expectedVersion;
+  private final Long actualVersion;
+
+  public WarehouseVersionMismatchException(String businessUnitCode, Long expectedVersion, Long actualVersion) {
+    super("Warehouse with business unit code '" + businessUnitCode + "' has version " + actualVersion
+        + ", expected " + expectedVersion + ".");
+    this.businessUnitCode = businessUnitCode;
+    this.expectedVersion = expectedVersion;
+    this.actualVersion = actualVersion;
+  }
+}
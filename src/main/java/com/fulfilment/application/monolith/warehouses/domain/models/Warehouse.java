@@ -23,4 +23,7 @@ public class Warehouse {
   private ZonedDateTime creationAt;
 
   private ZonedDateTime archivedAt;
+
+  /** Optimistic locking version as last read; null when unknown or not to be checked. */
+  private Long version;
 }
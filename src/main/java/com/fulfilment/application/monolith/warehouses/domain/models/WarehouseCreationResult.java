@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/**
+ * Outcome of creating one warehouse as part of a batch.
+ *
+ * @param warehouse the warehouse as requested, with its creation timestamp set if it was created
+ * @param failure the reason the warehouse was not created, or null if it was
+ */
+public record WarehouseCreationResult(Warehouse warehouse, RuntimeException failure) {
+
+  public static WarehouseCreationResult created(Warehouse warehouse) {
+    return new WarehouseCreationResult(warehouse, null);
+  }
+
+  public static WarehouseCreationResult failed(Warehouse warehouse, RuntimeException failure) {
+    return new WarehouseCreationResult(warehouse, failure);
+  }
+
+  public boolean isCreated() {
+    return failure == null;
+  }
+}
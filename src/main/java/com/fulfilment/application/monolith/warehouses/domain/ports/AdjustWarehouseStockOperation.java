@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+
+/**
+ * Port interface for adjusting warehouse stock.
+ * Defines the contract for stock movement use cases.
+ */
+public interface AdjustWarehouseStockOperation {
+
+  /**
+   * Adds a signed delta to the stock of an active warehouse.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @param delta the stock change, positive for inbound and negative for outbound movements
+   * @return the warehouse after the movement
+   */
+  Warehouse adjustStock(String businessUnitCode, int delta);
+}
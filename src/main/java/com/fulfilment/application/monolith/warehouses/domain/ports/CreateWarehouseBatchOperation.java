@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import java.util.List;
+
+/**
+ * Port interface for creating warehouses in batches.
+ * Defines the contract for batch warehouse creation use cases.
+ */
+public interface CreateWarehouseBatchOperation {
+
+  /**
+   * Creates the given warehouses, validating each one independently.
+   *
+   * @param warehouses the warehouses to create
+   * @return one result per warehouse, in request order
+   */
+  List<WarehouseCreationResult> createAll(List<Warehouse> warehouses);
+}
@@ -1,6 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.location.Location;
+import java.util.Collection;
 
 /**
  * Port interface for resolving location information.
@@ -15,4 +16,11 @@ public interface LocationResolver {
    * @return the resolved Location with constraints
    */
   Location resolveByIdentifier(String identifier);
+
+  /**
+   * Lists every known location.
+   *
+   * @return the locations with their constraints, in no particular order
+   */
+  Collection<Location> listAll();
 }
@@ -12,6 +12,7 @@ public interface ReplaceWarehouseOperation {
    * Replaces an existing warehouse with new values.
    *
    * @param warehouse the warehouse with updated values
+   * @return the replaced warehouse as stored
    */
-  void replace(Warehouse warehouse);
+  Warehouse replace(Warehouse warehouse);
 }
@@ -1,6 +1,10 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Port interface for warehouse persistence operations.
@@ -16,11 +20,39 @@ public interface WarehouseStore {
   void create(Warehouse warehouse);
 
   /**
-   * Updates an existing warehouse.
+   * Persists new warehouses in one batch.
+   *
+   * @param warehouses the warehouses to create
+   */
+  void createAll(List<Warehouse> warehouses);
+
+  /**
+   * Updates an existing warehouse. If the warehouse carries a version, only that version is updated.
    *
    * @param warehouse the warehouse with updated values
+   * @return the warehouse as stored, with its new version
+   */
+  Warehouse update(Warehouse warehouse);
+
+  /**
+   * Archives an active warehouse in one conditional update.
+   *
+   * @param buCode the business unit code
+   * @param expectedVersion the version the warehouse must have, or null to archive any version
+   * @param archivedAt the archive timestamp
+   * @return the warehouse as archived, or null if no active warehouse at the expected version matched
+   */
+  Warehouse archive(String buCode, Long expectedVersion, ZonedDateTime archivedAt);
+
+  /**
+   * Atomically adds a signed delta to the stock of an active warehouse, provided the resulting
+   * stock stays between zero and the warehouse capacity.
+   *
+   * @param buCode the business unit code
+   * @param delta the stock change
+   * @return the warehouse after the movement, or null if no active warehouse satisfied the condition
    */
-  void update(Warehouse warehouse);
+  Warehouse adjustStock(String buCode, int delta);
 
   /**
    * Removes a warehouse from storage.
@@ -36,4 +68,21 @@ public interface WarehouseStore {
    * @return the warehouse, or null if not found
    */
   Warehouse findByBusinessUnitCode(String buCode);
+
+  /**
+   * Finds a warehouse by its business unit code as currently stored, never from a cached copy.
+   * Write use cases validate against it, since a cached copy may lag behind other nodes.
+   *
+   * @param buCode the business unit code
+   * @return the warehouse, or null if not found
+   */
+  Warehouse findCurrentByBusinessUnitCode(String buCode);
+
+  /**
+   * Returns which of the given business unit codes are already taken, archived warehouses included.
+   *
+   * @param buCodes the business unit codes to check
+   * @return the subset of codes that already exist
+   */
+  Set<String> findExistingBusinessUnitCodes(Collection<String> buCodes);
 }
@@ -0,0 +1,71 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseRequestException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.StockOutOfRangeException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.AdjustWarehouseStockOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Use case for inbound and outbound stock movements.
+ * The movement is applied by the store as one conditional update; the warehouse is only read
+ * when the update was rejected, to report why.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+@JBossLog
+public class AdjustWarehouseStockUseCase implements AdjustWarehouseStockOperation {
+
+  private final WarehouseStore warehouseStore;
+  private final Event<WarehouseChangedEvent> warehouseEvents;
+
+  /**
+   * Adds a signed delta to the stock of an active warehouse.
+   *
+   * @param businessUnitCode the business unit code of the warehouse
+   * @param delta the stock change, positive for inbound and negative for outbound movements
+   * @return the warehouse after the movement
+   * @throws InvalidWarehouseRequestException if the delta is zero
+   * @throws WarehouseNotFoundException if warehouse does not exist
+   * @throws WarehouseAlreadyArchivedException if warehouse is archived
+   * @throws StockOutOfRangeException if the stock would drop below zero or exceed the capacity
+   */
+  @Override
+  public Warehouse adjustStock(String businessUnitCode, int delta) {
+    if (delta == 0) {
+      throw new InvalidWarehouseRequestException("Stock movement delta cannot be zero.");
+    }
+
+    Warehouse adjusted = warehouseStore.adjustStock(businessUnitCode, delta);
+    if (adjusted == null) {
+      throw rejection(businessUnitCode, delta);
+    }
+    warehouseEvents.fire(WarehouseChangedEvent.stockAdjusted(adjusted, delta));
+    return adjusted;
+  }
+
+  /**
+   * Determines why a conditional stock update matched no row.
+   */
+  private RuntimeException rejection(String businessUnitCode, int delta) {
+    Warehouse existing = warehouseStore.findCurrentByBusinessUnitCode(businessUnitCode);
+    if (existing == null) {
+      log.warnf("Warehouse not found for stock movement: '%s'", businessUnitCode);
+      return new WarehouseNotFoundException(businessUnitCode);
+    }
+    if (existing.getArchivedAt() != null) {
+      log.warnf("Stock movement on archived warehouse '%s'", businessUnitCode);
+      return new WarehouseAlreadyArchivedException(businessUnitCode);
+    }
+    log.warnf("Stock movement of %d out of range for warehouse '%s' (stock: %d, capacity: %d)",
+        delta, businessUnitCode, existing.getStock(), existing.getCapacity());
+    return new StockOutOfRangeException(businessUnitCode, existing.getStock(), delta, existing.getCapacity());
+  }
+}
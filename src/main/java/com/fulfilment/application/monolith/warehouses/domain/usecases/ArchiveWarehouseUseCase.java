@@ -1,18 +1,22 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseVersionMismatchException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import java.time.ZonedDateTime;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
 
 /**
  * Use case for archiving warehouses.
- * Sets the archived timestamp to mark a warehouse as archived.
+ * Sets the archived timestamp to mark a warehouse as archived and releases
+ * its slot at the location.
  */
 @ApplicationScoped
 @RequiredArgsConstructor
@@ -20,33 +24,46 @@ import lombok.extern.jbosslog.JBossLog;
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
+  private final WarehouseValidationHelper validationHelper;
+  private final Event<WarehouseChangedEvent> warehouseEvents;
 
   /**
-   * Archives a warehouse by setting its archived timestamp.
-   * Validates that the warehouse exists and is not already archived.
+   * Archives a warehouse by setting its archived timestamp, in one conditional update of an active
+   * warehouse at the expected version. The warehouse is only read if the update matched nothing,
+   * to report why.
    *
-   * @param warehouse the warehouse to archive
+   * @param warehouse the warehouse to archive, with the expected version if conditional
    * @throws WarehouseNotFoundException if warehouse does not exist
+   * @throws WarehouseVersionMismatchException if the expected version is not the current one
    * @throws WarehouseAlreadyArchivedException if warehouse is already archived
    */
   @Override
   public void archive(Warehouse warehouse) {
     log.debugf("Archiving warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
 
-    Warehouse existing = warehouseStore.findByBusinessUnitCode(warehouse.getBusinessUnitCode());
-    if (existing == null) {
-      log.warnf("Warehouse not found for archiving: '%s'", warehouse.getBusinessUnitCode());
-      throw new WarehouseNotFoundException(warehouse.getBusinessUnitCode());
-    }
-
-    if (existing.getArchivedAt() != null) {
-      log.warnf("Warehouse already archived: '%s'", warehouse.getBusinessUnitCode());
-      throw new WarehouseAlreadyArchivedException(warehouse.getBusinessUnitCode());
+    Warehouse archived = warehouseStore.archive(warehouse.getBusinessUnitCode(), warehouse.getVersion(),
+        ZonedDateTime.now());
+    if (archived == null) {
+      throw rejection(warehouse);
     }
 
-    existing.setArchivedAt(ZonedDateTime.now());
-    warehouseStore.update(existing);
+    validationHelper.releaseWarehouseSlot(archived);
+    warehouseEvents.fire(WarehouseChangedEvent.archived(archived));
     
     log.infof("Successfully archived warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
   }
+
+  /**
+   * Determines why a conditional archive matched no row.
+   */
+  private RuntimeException rejection(Warehouse warehouse) {
+    Warehouse existing = warehouseStore.findCurrentByBusinessUnitCode(warehouse.getBusinessUnitCode());
+    if (existing == null) {
+      log.warnf("Warehouse not found for archiving: '%s'", warehouse.getBusinessUnitCode());
+      return new WarehouseNotFoundException(warehouse.getBusinessUnitCode());
+    }
+    validationHelper.validateExpectedVersion(warehouse, existing);
+    log.warnf("Warehouse already archived: '%s'", warehouse.getBusinessUnitCode());
+    return new WarehouseAlreadyArchivedException(warehouse.getBusinessUnitCode());
+  }
 }
@@ -0,0 +1,167 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.location.Location;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.DuplicateBusinessUnitCodeException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationWarehouseLimitExceededException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseBatchOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Use case for creating warehouses in batches.
+ * Applies the same business rules as {@link CreateWarehouseUseCase}, but validates the whole batch
+ * with set-based queries: one uniqueness lookup for all business unit codes, one resolution per
+ * distinct location and one slot reservation per location. Warehouses that fail a rule are
+ * reported individually and do not prevent the others from being created.
+ */
+@ApplicationScoped
+@RequiredArgsConstructor
+@JBossLog
+public class CreateWarehouseBatchUseCase implements CreateWarehouseBatchOperation {
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final WarehouseValidationHelper validationHelper;
+  private final Event<WarehouseChangedEvent> warehouseEvents;
+
+  /**
+   * Creates the given warehouses after validating each one.
+   * Validates: business unit code uniqueness (within the batch and against existing warehouses),
+   * location existence, capacity constraints and warehouse count limits, in that order.
+   *
+   * @param warehouses the warehouses to create
+   * @return one result per warehouse, in request order
+   */
+  @Override
+  public List<WarehouseCreationResult> createAll(List<Warehouse> warehouses) {
+    log.debugf("Creating batch of %d warehouses", warehouses.size());
+    RuntimeException[] failures = new RuntimeException[warehouses.size()];
+
+    validateBusinessUnitCodeUniqueness(warehouses, failures);
+    Map<String, Location> locations = validateLocationsAndCapacity(warehouses, failures);
+    reserveWarehouseSlots(warehouses, locations, failures);
+
+    ZonedDateTime now = ZonedDateTime.now();
+    List<Warehouse> accepted = new ArrayList<>();
+    List<WarehouseCreationResult> results = new ArrayList<>(warehouses.size());
+    for (int i = 0; i < warehouses.size(); i++) {
+      Warehouse warehouse = warehouses.get(i);
+      if (failures[i] == null) {
+        warehouse.setCreationAt(now);
+        accepted.add(warehouse);
+        results.add(WarehouseCreationResult.created(warehouse));
+      } else {
+        results.add(WarehouseCreationResult.failed(warehouse, failures[i]));
+      }
+    }
+
+    if (!accepted.isEmpty()) {
+      warehouseStore.createAll(accepted);
+      accepted.forEach(warehouse -> warehouseEvents.fire(WarehouseChangedEvent.created(warehouse)));
+    }
+
+    log.infof("Created %d of %d warehouses in batch", accepted.size(), warehouses.size());
+    return results;
+  }
+
+  /**
+   * Rejects business unit codes that already exist or occur earlier in the same batch.
+   */
+  private void validateBusinessUnitCodeUniqueness(List<Warehouse> warehouses, RuntimeException[] failures) {
+    Set<String> codes = new HashSet<>();
+    warehouses.forEach(warehouse -> codes.add(warehouse.getBusinessUnitCode()));
+    Set<String> existing = warehouseStore.findExistingBusinessUnitCodes(codes);
+
+    Set<String> seen = new HashSet<>();
+    for (int i = 0; i < warehouses.size(); i++) {
+      String businessUnitCode = warehouses.get(i).getBusinessUnitCode();
+      if (existing.contains(businessUnitCode) || !seen.add(businessUnitCode)) {
+        log.warnf("Attempted to create warehouse with duplicate business unit code '%s'", businessUnitCode);
+        failures[i] = new DuplicateBusinessUnitCodeException(businessUnitCode);
+      }
+    }
+  }
+
+  /**
+   * Resolves each distinct location once and validates capacity constraints against it.
+   *
+   * @return the resolved locations by identifier
+   */
+  private Map<String, Location> validateLocationsAndCapacity(List<Warehouse> warehouses, RuntimeException[] failures) {
+    Map<String, Location> locations = new HashMap<>();
+    Map<String, RuntimeException> unresolved = new HashMap<>();
+    for (int i = 0; i < warehouses.size(); i++) {
+      if (failures[i] != null) {
+        continue;
+      }
+      Warehouse warehouse = warehouses.get(i);
+      String identifier = warehouse.getLocation();
+      try {
+        if (unresolved.containsKey(identifier)) {
+          throw unresolved.get(identifier);
+        }
+        Location location = locations.get(identifier);
+        if (location == null) {
+          location = resolve(identifier, unresolved);
+          locations.put(identifier, location);
+        }
+        validationHelper.validateCapacityConstraints(warehouse, location.maxCapacity());
+      } catch (RuntimeException e) {
+        failures[i] = e;
+      }
+    }
+    return locations;
+  }
+
+  private Location resolve(String identifier, Map<String, RuntimeException> unresolved) {
+    try {
+      return locationResolver.resolveByIdentifier(identifier);
+    } catch (RuntimeException e) {
+      unresolved.put(identifier, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Reserves location slots for the remaining warehouses, one reservation per location, visiting
+   * locations in a fixed order so concurrent batches cannot deadlock on each other's rows.
+   */
+  private void reserveWarehouseSlots(List<Warehouse> warehouses, Map<String, Location> locations,
+      RuntimeException[] failures) {
+    Map<String, List<Integer>> candidatesByLocation = new TreeMap<>();
+    for (int i = 0; i < warehouses.size(); i++) {
+      if (failures[i] == null) {
+        candidatesByLocation.computeIfAbsent(warehouses.get(i).getLocation(), key -> new ArrayList<>()).add(i);
+      }
+    }
+
+    candidatesByLocation.forEach((identifier, candidates) -> {
+      int maxWarehouses = locations.get(identifier).maxNumberOfWarehouses();
+      List<Warehouse> requested = candidates.stream().map(warehouses::get).toList();
+      int granted = validationHelper.reserveWarehouseSlots(identifier, requested, maxWarehouses);
+      if (granted == candidates.size()) {
+        return;
+      }
+      int currentCount = validationHelper.reservedWarehouseCount(identifier);
+      for (int slot = granted; slot < candidates.size(); slot++) {
+        failures[candidates.get(slot)] =
+            new LocationWarehouseLimitExceededException(identifier, currentCount, maxWarehouses);
+      }
+    });
+  }
+}
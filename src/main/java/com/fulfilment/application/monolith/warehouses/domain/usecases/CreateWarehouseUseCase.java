@@ -1,19 +1,21 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
-import com.fulfilment.application.monolith.warehouses.domain.exceptions.DuplicateBusinessUnitCodeException;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import java.time.ZonedDateTime;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
 
 /**
  * Use case for creating new warehouses.
- * Validates business rules including business unit code uniqueness,
- * location validity, warehouse count limits, and capacity constraints.
+ * Validates business rules including location validity, warehouse count limits,
+ * and capacity constraints. Business unit code uniqueness is enforced by the
+ * store's unique constraint rather than checked up front.
  */
 @ApplicationScoped
 @RequiredArgsConstructor
@@ -23,11 +25,13 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
   private final WarehouseValidationHelper validationHelper;
+  private final Event<WarehouseChangedEvent> warehouseEvents;
 
   /**
    * Creates a new warehouse after performing all necessary validations.
-   * Validates: business unit code uniqueness, location existence,
-   * warehouse count limits, and capacity constraints.
+   * Validates: location existence, warehouse count limits, and capacity constraints.
+   * A duplicate business unit code is rejected by the store's unique constraint when
+   * the warehouse is inserted.
    *
    * @param warehouse the warehouse to create
    * @throws DuplicateBusinessUnitCodeException if business unit code already exists
@@ -40,30 +44,15 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
   public void create(Warehouse warehouse) {
     log.debugf("Creating warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
 
-    validateBusinessUnitCodeUniqueness(warehouse.getBusinessUnitCode());
-    
     var location = locationResolver.resolveByIdentifier(warehouse.getLocation());
     
-    validationHelper.validateWarehouseCountLimit(warehouse.getLocation(), location.maxNumberOfWarehouses());
     validationHelper.validateCapacityConstraints(warehouse, location.maxCapacity());
+    validationHelper.reserveWarehouseSlot(warehouse, location.maxNumberOfWarehouses());
 
     warehouse.setCreationAt(ZonedDateTime.now());
     warehouseStore.create(warehouse);
+    warehouseEvents.fire(WarehouseChangedEvent.created(warehouse));
     
     log.infof("Successfully created warehouse with business unit code '%s'", warehouse.getBusinessUnitCode());
   }
-
-  /**
-   * Validates that the business unit code is unique.
-   *
-   * @param businessUnitCode the business unit code to validate
-   * @throws DuplicateBusinessUnitCodeException if code already exists
-   */
-  private void validateBusinessUnitCodeUniqueness(String businessUnitCode) {
-    Warehouse existing = warehouseStore.findByBusinessUnitCode(businessUnitCode);
-    if (existing != null) {
-      log.warnf("Attempted to create warehouse with duplicate business unit code '%s'", businessUnitCode);
-      throw new DuplicateBusinessUnitCodeException(businessUnitCode);
-    }
-  }
 }
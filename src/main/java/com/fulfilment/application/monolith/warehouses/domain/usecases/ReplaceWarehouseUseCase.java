@@ -1,21 +1,25 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.DuplicateBusinessUnitCodeException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.InsufficientCapacityException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.StockMismatchException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseVersionMismatchException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
 
 /**
  * Use case for replacing existing warehouses.
  * Validates business rules including warehouse existence, capacity accommodation,
- * stock matching, and location constraints.
+ * stock matching, and location constraints. Archived warehouses cannot be replaced.
  */
 @ApplicationScoped
 @RequiredArgsConstructor
@@ -25,14 +29,21 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
   private final WarehouseValidationHelper validationHelper;
+  private final Event<WarehouseChangedEvent> warehouseEvents;
 
   /**
    * Replaces an existing warehouse with new values.
    * Validates: warehouse existence, business unit code uniqueness,
    * capacity accommodation, stock matching, and location constraints.
    *
-   * @param newWarehouse the warehouse with updated values
+   * The warehouse is read once for validation and then updated only at the version that was read,
+   * so a concurrent change in between fails the update instead of being overwritten.
+   *
+   * @param newWarehouse the warehouse with updated values, and the expected version if conditional
+   * @return the replaced warehouse as stored
    * @throws WarehouseNotFoundException if warehouse does not exist
+   * @throws WarehouseAlreadyArchivedException if warehouse is archived
+   * @throws WarehouseVersionMismatchException if the expected version is not the current one
    * @throws DuplicateBusinessUnitCodeException if new business unit code already exists
    * @throws LocationWarehouseLimitExceededException if location warehouse limit is reached
    * @throws LocationCapacityExceededException if capacity exceeds location maximum
@@ -40,29 +51,36 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
    * @throws StockMismatchException if new stock does not match existing stock
    */
   @Override
-  public void replace(Warehouse newWarehouse) {
+  public Warehouse replace(Warehouse newWarehouse) {
     log.debugf("Replacing warehouse with business unit code '%s'", newWarehouse.getBusinessUnitCode());
 
-    Warehouse existing = warehouseStore.findByBusinessUnitCode(newWarehouse.getBusinessUnitCode());
+    Warehouse existing = warehouseStore.findCurrentByBusinessUnitCode(newWarehouse.getBusinessUnitCode());
     if (existing == null) {
       log.warnf("Warehouse not found for replacement: '%s'", newWarehouse.getBusinessUnitCode());
       throw new WarehouseNotFoundException(newWarehouse.getBusinessUnitCode());
     }
+    validationHelper.validateExpectedVersion(newWarehouse, existing);
+    // The store finds archived warehouses whether or not they were moved to the archive table yet.
+    if (existing.getArchivedAt() != null) {
+      log.warnf("Attempted to replace archived warehouse '%s'", newWarehouse.getBusinessUnitCode());
+      throw new WarehouseAlreadyArchivedException(newWarehouse.getBusinessUnitCode());
+    }
 
     validateNewBusinessUnitCodeUniqueness(newWarehouse.getBusinessUnitCode(), existing.getBusinessUnitCode());
     
     var location = locationResolver.resolveByIdentifier(newWarehouse.getLocation());
     
-    if (!newWarehouse.getLocation().equals(existing.getLocation())) {
-      validationHelper.validateWarehouseCountLimit(newWarehouse.getLocation(), location.maxNumberOfWarehouses());
-    }
-    
     validationHelper.validateCapacityAgainstLocationMax(newWarehouse, location.maxCapacity());
     validateReplacementConstraints(newWarehouse, existing);
+    validationHelper.moveWarehouseSlot(existing, newWarehouse, location.maxNumberOfWarehouses());
 
-    warehouseStore.update(newWarehouse);
+    // Update only the version that was validated, so a concurrent change in between is rejected.
+    newWarehouse.setVersion(existing.getVersion());
+    Warehouse replaced = warehouseStore.update(newWarehouse);
+    warehouseEvents.fire(WarehouseChangedEvent.replaced(existing, replaced));
     
     log.infof("Successfully replaced warehouse with business unit code '%s'", newWarehouse.getBusinessUnitCode());
+    return replaced;
   }
 
   /**
@@ -74,7 +92,7 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
    */
   private void validateNewBusinessUnitCodeUniqueness(String newBusinessUnitCode, String existingBusinessUnitCode) {
     if (!newBusinessUnitCode.equals(existingBusinessUnitCode)) {
-      Warehouse duplicate = warehouseStore.findByBusinessUnitCode(newBusinessUnitCode);
+      Warehouse duplicate = warehouseStore.findCurrentByBusinessUnitCode(newBusinessUnitCode);
       if (duplicate != null) {
         log.warnf("Attempted to replace warehouse with duplicate business unit code '%s'", newBusinessUnitCode);
         throw new DuplicateBusinessUnitCodeException(newBusinessUnitCode);
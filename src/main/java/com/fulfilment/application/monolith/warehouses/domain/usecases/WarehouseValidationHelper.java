@@ -1,17 +1,19 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancyRepository;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.InsufficientCapacityException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationCapacityExceededException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationWarehouseLimitExceededException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseVersionMismatchException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import java.util.List;
 import lombok.extern.jbosslog.JBossLog;
 
 /**
  * Helper class for warehouse validation operations.
- * Provides reusable validation methods for warehouse count limits,
+ * Provides reusable validation methods for warehouse slot reservations,
  * capacity constraints, and stock validation.
  */
 @ApplicationScoped
@@ -19,21 +21,108 @@ import lombok.extern.jbosslog.JBossLog;
 public class WarehouseValidationHelper {
 
   @Inject
-  WarehouseRepository warehouseRepository;
+  LocationOccupancyRepository occupancyRepository;
 
   /**
-   * Validates that the warehouse count for a location does not exceed the maximum.
+   * Reserves a warehouse slot and the warehouse's capacity at a location, enforcing the location's
+   * warehouse count limit atomically. The reservation joins the current transaction and is undone
+   * if that transaction rolls back.
    *
-   * @param locationIdentifier the location identifier
-   * @param maxWarehouses the maximum number of warehouses allowed at this location
+   * @param warehouse the warehouse taking the slot
+   * @param maxWarehouses the maximum number of warehouses allowed at its location
    * @throws LocationWarehouseLimitExceededException if limit is exceeded
    */
-  public void validateWarehouseCountLimit(String locationIdentifier, int maxWarehouses) {
-    long currentCount = warehouseRepository.countByLocation(locationIdentifier);
-    if (currentCount >= maxWarehouses) {
+  public void reserveWarehouseSlot(Warehouse warehouse, int maxWarehouses) {
+    String locationIdentifier = warehouse.getLocation();
+    if (locationIdentifier == null || locationIdentifier.isBlank()) {
+      return;
+    }
+    if (!occupancyRepository.tryReserve(locationIdentifier, warehouse.getCapacity(), maxWarehouses)) {
+      int currentCount = occupancyRepository.reservedWarehouses(locationIdentifier);
       log.warnf("Warehouse limit exceeded for location '%s'. Current: %d, Max: %d",
           locationIdentifier, currentCount, maxWarehouses);
-      throw new LocationWarehouseLimitExceededException(locationIdentifier, (int) currentCount, maxWarehouses);
+      throw new LocationWarehouseLimitExceededException(locationIdentifier, currentCount, maxWarehouses);
+    }
+  }
+
+  /**
+   * Reserves slots for several warehouses at the same location, granting them in list order until
+   * the location's warehouse count limit is reached.
+   *
+   * @param locationIdentifier the location shared by all warehouses
+   * @param warehouses the warehouses asking for a slot, in priority order
+   * @param maxWarehouses the maximum number of warehouses allowed at the location
+   * @return the number of leading warehouses that were granted a slot
+   */
+  public int reserveWarehouseSlots(String locationIdentifier, List<Warehouse> warehouses, int maxWarehouses) {
+    int[] capacities = warehouses.stream().mapToInt(Warehouse::getCapacity).toArray();
+    int granted = occupancyRepository.reserveUpTo(locationIdentifier, capacities, maxWarehouses);
+    if (granted < warehouses.size()) {
+      log.warnf("Warehouse limit reached for location '%s'. Granted %d of %d slots, Max: %d",
+          locationIdentifier, granted, warehouses.size(), maxWarehouses);
+    }
+    return granted;
+  }
+
+  /**
+   * Returns the number of warehouse slots currently reserved at a location.
+   *
+   * @param locationIdentifier the location to look up
+   * @return the reserved slot count
+   */
+  public int reservedWarehouseCount(String locationIdentifier) {
+    return occupancyRepository.reservedWarehouses(locationIdentifier);
+  }
+
+  /**
+   * Releases the slot and capacity held by a warehouse at its location.
+   *
+   * @param warehouse the warehouse giving up its slot
+   */
+  public void releaseWarehouseSlot(Warehouse warehouse) {
+    occupancyRepository.release(warehouse.getLocation(), warehouse.getCapacity());
+  }
+
+  /**
+   * Moves the reservation held by an existing warehouse to its replacement. A location change
+   * reserves a slot at the new location and releases the old one, touching the two rows in a fixed
+   * order so concurrent moves in opposite directions cannot deadlock; a capacity change at the same
+   * location only adjusts the reserved capacity.
+   *
+   * @param existing the warehouse currently holding the slot
+   * @param replacement the replacing warehouse
+   * @param maxWarehouses the maximum number of warehouses allowed at the replacement's location
+   * @throws LocationWarehouseLimitExceededException if the new location is full
+   */
+  public void moveWarehouseSlot(Warehouse existing, Warehouse replacement, int maxWarehouses) {
+    if (existing.getLocation().equals(replacement.getLocation())) {
+      int capacityDelta = replacement.getCapacity() - existing.getCapacity();
+      if (capacityDelta != 0) {
+        occupancyRepository.adjustCapacity(existing.getLocation(), capacityDelta);
+      }
+    } else if (existing.getLocation().compareTo(replacement.getLocation()) < 0) {
+      releaseWarehouseSlot(existing);
+      reserveWarehouseSlot(replacement, maxWarehouses);
+    } else {
+      reserveWarehouseSlot(replacement, maxWarehouses);
+      releaseWarehouseSlot(existing);
+    }
+  }
+
+  /**
+   * Validates that a conditional change targets the current version of the warehouse.
+   * Requests without a version are unconditional.
+   *
+   * @param requested the requested change, carrying the expected version if any
+   * @param existing the stored warehouse
+   * @throws WarehouseVersionMismatchException if the expected version is not the stored one
+   */
+  public void validateExpectedVersion(Warehouse requested, Warehouse existing) {
+    if (requested.getVersion() != null && !requested.getVersion().equals(existing.getVersion())) {
+      log.warnf("Version mismatch for warehouse '%s' (expected: %d, actual: %d)",
+          existing.getBusinessUnitCode(), requested.getVersion(), existing.getVersion());
+      throw new WarehouseVersionMismatchException(existing.getBusinessUnitCode(), requested.getVersion(),
+          existing.getVersion());
     }
   }
 
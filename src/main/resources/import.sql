@@ -8,10 +8,16 @@ INSERT INTO product(id, name, stock) VALUES (2, 'KALLAX', 5);
 INSERT INTO product(id, name, stock) VALUES (3, 'BESTÅ', 3);
 ALTER SEQUENCE product_seq RESTART WITH 4;
 
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt) 
-VALUES (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01', null);
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)
-VALUES (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null);
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)
-VALUES (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version) 
+VALUES (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01', null, 0);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)
+VALUES (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null, 0);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)
+VALUES (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null, 0);
 ALTER SEQUENCE warehouse_seq RESTART WITH 4;
+INSERT INTO warehouse_version(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version, validFrom, validTo)
+SELECT nextval('warehouse_version_seq'), businessUnitCode, location, capacity, stock, createdAt, archivedAt, version, createdAt, null FROM warehouse;
+-- Partial: serves location filters on active warehouses only (archived=false)
+CREATE INDEX idx_warehouse_active_location ON warehouse (location) WHERE archivedAt IS NULL;
+-- Partial: serves the due-job claim and next-due lookup on waiting legacy sync jobs only
+CREATE INDEX idx_store_legacy_sync_job_due ON store_legacy_sync_job (nextAttemptAt) WHERE status IN ('PENDING', 'RETRY');
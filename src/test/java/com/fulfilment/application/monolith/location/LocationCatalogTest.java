@@ -0,0 +1,81 @@
+package com.fulfilment.application.monolith.location;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocationCatalogTest {
+
+  @Test
+  @DisplayName("fromCsv should index locations and skip header, comments and blank lines")
+  void shouldParseCsvIntoIndex() {
+    LocationCatalog catalog = LocationCatalog.fromCsv(new StringReader("""
+        # comment
+        identification,maxNumberOfWarehouses,maxCapacity
+
+        ZWOLLE-001,1,40
+         AMSTERDAM-001 , 5 , 100
+        """));
+
+    assertEquals(2, catalog.size(), "Then only data lines should be indexed");
+    assertEquals(new Location("ZWOLLE-001", 1, 40), catalog.find("ZWOLLE-001"));
+    assertEquals(new Location("AMSTERDAM-001", 5, 100), catalog.find("AMSTERDAM-001"),
+        "Then surrounding whitespace should be stripped");
+    assertNull(catalog.find("TILBURG-001"), "Then unknown identifiers should not resolve");
+  }
+
+  @Test
+  @DisplayName("fromCsv should reject duplicate identifiers")
+  void shouldRejectDuplicateIdentifiers() {
+    assertThrows(InvalidLocationCatalogException.class,
+        () -> LocationCatalog.fromCsv(new StringReader("ZWOLLE-001,1,40\nZWOLLE-001,2,50\n")),
+        "Then duplicated identifiers should be rejected");
+  }
+
+  @Test
+  @DisplayName("fromCsv should reject malformed lines")
+  void shouldRejectMalformedLines() {
+    assertThrows(InvalidLocationCatalogException.class,
+        () -> LocationCatalog.fromCsv(new StringReader("ZWOLLE-001,1\n")),
+        "Then lines with missing columns should be rejected");
+    assertThrows(InvalidLocationCatalogException.class,
+        () -> LocationCatalog.fromCsv(new StringReader("ZWOLLE-001,one,40\n")),
+        "Then non-numeric limits should be rejected");
+  }
+
+  @Test
+  @DisplayName("Bundled catalog should contain the predefined locations")
+  void shouldLoadBundledCatalog() {
+    LocationCatalog catalog = LocationGateway.loadBundled();
+
+    assertEquals(8, catalog.size(), "Then all predefined locations should be loaded");
+    assertEquals(new Location("VETSBY-001", 1, 90), catalog.find("VETSBY-001"));
+  }
+
+  @Test
+  @DisplayName("Watcher should notify when the catalog file changes")
+  void shouldNotifyWhenCatalogFileChanges(@TempDir Path directory) throws Exception {
+    Path file = directory.resolve("locations.csv");
+    Files.writeString(file, "ZWOLLE-001,1,40\n");
+    CountDownLatch changed = new CountDownLatch(1);
+
+    try (LocationCatalogWatcher watcher = new LocationCatalogWatcher(file, changed::countDown)) {
+      watcher.start();
+      Files.writeString(file, "ZWOLLE-001,1,40\nZWOLLE-002,2,50\n");
+
+      // The JDK falls back to a polling watch service on some platforms, hence the generous timeout.
+      assertTrue(changed.await(30, TimeUnit.SECONDS), "Then the change callback should fire");
+    }
+    assertEquals(2, LocationGateway.loadFromFile(file).size(), "Then the reloaded catalog should see the new line");
+  }
+}
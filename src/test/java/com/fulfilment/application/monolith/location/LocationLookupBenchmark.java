@@ -0,0 +1,86 @@
+package com.fulfilment.application.monolith.location;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the former stream scan over a list of locations with the hash-indexed
+ * {@link LocationCatalog} lookup.
+ *
+ * <p>Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fulfilment.application.monolith.location.LocationLookupBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationLookupBenchmark {
+
+  @Param({"8", "1000", "10000"})
+  int catalogSize;
+
+  private List<Location> locations;
+  private LocationCatalog catalog;
+  private String[] identifiers;
+  private int cursor;
+
+  @Setup
+  public void setUp() {
+    locations = new ArrayList<>(catalogSize);
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < catalogSize; i++) {
+      String identifier = "LOCATION-" + i;
+      locations.add(new Location(identifier, 1 + i % 5, 40 + i % 60));
+      csv.append(identifier).append(',').append(1 + i % 5).append(',').append(40 + i % 60).append('\n');
+    }
+    catalog = LocationCatalog.fromCsv(new StringReader(csv.toString()));
+
+    identifiers = new String[1024];
+    for (int i = 0; i < identifiers.length; i++) {
+      // Fresh String instances so equals() cannot short-circuit on identity.
+      identifiers[i] = new String("LOCATION-" + ThreadLocalRandom.current().nextInt(catalogSize));
+    }
+  }
+
+  private String nextIdentifier() {
+    cursor = (cursor + 1) & (identifiers.length - 1);
+    return identifiers[cursor];
+  }
+
+  @Benchmark
+  public Location streamScan() {
+    String identifier = nextIdentifier();
+    return locations.stream()
+        .filter(location -> identifier.equals(location.identification()))
+        .findFirst()
+        .orElse(null);
+  }
+
+  @Benchmark
+  public Location indexedLookup() {
+    return catalog.find(nextIdentifier());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(LocationLookupBenchmark.class.getSimpleName()).build()).run();
+  }
+}
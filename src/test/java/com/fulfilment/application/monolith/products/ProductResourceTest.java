@@ -5,13 +5,21 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import com.fulfilment.application.monolith.common.PageCursor;
+import com.fulfilment.application.monolith.common.PageParams;
 import com.fulfilment.application.monolith.products.domain.exceptions.ProductAlreadyExistsException;
+import com.fulfilment.application.monolith.common.PageCursor;
 import com.fulfilment.application.monolith.products.domain.exceptions.ProductNotFoundException;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -57,6 +65,57 @@ class ProductResourceTest {
         .statusCode(200);
   }
 
+  @Test
+  @DisplayName("GET /product should page through products by name following the next Link header")
+  void shouldPageThroughProductsWithCursor() {
+    String prefix = "TEST.PAGE." + System.currentTimeMillis();
+    for (String suffix : new String[] {".c", ".a", ".b"}) {
+      createTestProductViaApi(prefix + suffix, "Page", 1.0, 1);
+    }
+
+    List<String> names = new ArrayList<>();
+    String next = "/product?limit=2";
+    while (next != null) {
+      Response page = given().when().get(next).then().statusCode(200).extract().response();
+      names.addAll(page.jsonPath().getList("name", String.class));
+      String link = page.header("Link");
+      next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+    }
+
+    assertEquals(List.of(prefix + ".a", prefix + ".b", prefix + ".c"),
+        names.stream().filter(name -> name.startsWith(prefix)).toList(),
+        "Then every product should be listed once, in name order");
+    assertEquals(names.size(), names.stream().distinct().count(), "Then no product should appear on two pages");
+  }
+
+  @Test
+  @DisplayName("GET /product without cursor or limit should return every product, beyond the default page size")
+  void shouldReturnFullListWithoutPageParameters() {
+    String prefix = "TEST.FULL." + System.currentTimeMillis();
+    QuarkusTransaction.requiringNew().run(() -> {
+      for (int i = 0; i <= PageParams.DEFAULT_LIMIT; i++) {
+        productRepository.persist(new Product(String.format("%s.%03d", prefix, i)));
+      }
+    });
+
+    Response listed = given().when().get("/product").then().statusCode(200).extract().response();
+
+    assertEquals(PageParams.DEFAULT_LIMIT + 1,
+        listed.jsonPath().getList("name", String.class).stream().filter(name -> name.startsWith(prefix)).count(),
+        "Then an unpaged request should not be truncated");
+    assertNull(listed.header("Link"), "Then an unpaged request should not point to a next page");
+  }
+
+  @Test
+  @DisplayName("GET /product should return 400 for a malformed cursor, a cursor without id or an out-of-range limit")
+  void shouldRejectInvalidPageParameters() {
+    given().queryParam("cursor", "not a cursor").when().get("/product").then().statusCode(400)
+        .body("exceptionType", containsString("InvalidPageCursorException"));
+    given().queryParam("cursor", new PageCursor("name", null).encode()).when().get("/product").then().statusCode(400)
+        .body("exceptionType", containsString("InvalidPageCursorException"));
+    given().queryParam("limit", 0).when().get("/product").then().statusCode(400);
+  }
+
   @Test
   @DisplayName("GET /product/{id} should return product by id")
   void shouldReturnProductById() {
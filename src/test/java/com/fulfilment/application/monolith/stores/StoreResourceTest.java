@@ -15,7 +15,10 @@ import com.fulfilment.application.monolith.stores.domain.exceptions.LegacySyncEx
 import com.fulfilment.application.monolith.stores.domain.exceptions.StoreNotFoundException;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -230,6 +233,35 @@ public class StoreResourceTest {
         .statusCode(200);
   }
 
+  @Test
+  @DisplayName("GET /stores should page through stores by name following the next Link header")
+  public void testGetStoresWithCursor() {
+    String prefix = "Test Store PAGE " + System.currentTimeMillis();
+    for (String suffix : new String[] {" c", " a", " b"}) {
+      given()
+          .contentType(ContentType.JSON)
+          .body(String.format("{\"name\":\"%s\",\"quantityProductsInStock\":1}", prefix + suffix))
+          .when()
+          .post("/stores")
+          .then()
+          .statusCode(201);
+    }
+
+    List<String> names = new ArrayList<>();
+    String next = "/stores?limit=2";
+    while (next != null) {
+      Response page = given().when().get(next).then().statusCode(200).extract().response();
+      names.addAll(page.jsonPath().getList("name", String.class));
+      String link = page.header("Link");
+      next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+    }
+
+    assertEquals(List.of(prefix + " a", prefix + " b", prefix + " c"),
+        names.stream().filter(name -> name.startsWith(prefix)).toList(),
+        "Then every store should be listed once, in name order");
+    assertEquals(names.size(), names.stream().distinct().count(), "Then no store should appear on two pages");
+  }
+
   @Test
   @DisplayName("GET /stores/{id} should return 404 when store not found")
   public void testGetStoreNotFound() {
@@ -14,6 +14,8 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.UserTransaction;
 import jakarta.transaction.Transactional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -97,6 +99,33 @@ class StoreSyncServiceTest {
         "Legacy gateway should receive latest committed stock value");
   }
 
+  @Test
+  @DisplayName("Commit returns without waiting for the legacy system")
+  void commitDoesNotWaitForLegacySystem() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    QuarkusMock.installMockForType(new LegacyStoreManagerGateway() {
+      @Override
+      public void createStoreOnLegacySystem(Store store) {
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        createCalls.incrementAndGet();
+      }
+    }, LegacyStoreManagerGateway.class);
+    Store store = createStore("Test Store", 5);
+
+    commit(() -> {
+      store.persist();
+      storeSyncService.scheduleCreateSync(store);
+    });
+
+    assertEquals(0, createCalls.get(), "Commit should return while the legacy call is still running");
+    release.countDown();
+    awaitUntil(() -> createCalls.get() == 1, 1000);
+  }
+
   @Test
   @DisplayName("Sync does not happen if transaction rolls back")
   void syncDoesNotHappenOnRollback() throws Exception {
@@ -0,0 +1,23 @@
+package com.fulfilment.application.monolith.stores.adapters.legacy;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.Map;
+
+/**
+ * Test profile running one background legacy sync worker, which the shared test profile turns off.
+ *
+ * <p>The safety poll is far longer than any test, so a job is only picked up through a wake-up or
+ * because a retry fell due. One dispatch thread with a one-slot queue lets a test saturate the
+ * immediate attempts.</p>
+ */
+public class LegacySyncWorkersProfile implements QuarkusTestProfile {
+
+  @Override
+  public Map<String, String> getConfigOverrides() {
+    return Map.of(
+        "store.legacy-sync.workers", "1",
+        "store.legacy-sync.safety-poll-interval", "1h",
+        "store.legacy-sync.dispatch.threads", "1",
+        "store.legacy-sync.dispatch.queue-size", "1");
+  }
+}
@@ -0,0 +1,187 @@
+package com.fulfilment.application.monolith.stores.adapters.legacy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.stores.adapters.database.Store;
+import com.fulfilment.application.monolith.stores.domain.events.StoreChangeType;
+import com.fulfilment.application.monolith.stores.domain.exceptions.LegacySyncException;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestProfile(LegacySyncWorkersProfile.class)
+class StoreLegacySyncJobSchedulerTest {
+
+  private static final long WAIT_MS = 5_000;
+
+  @Inject StoreLegacySyncJobSignal signal;
+  @Inject StoreSyncService storeSyncService;
+  @Inject EntityManager entityManager;
+
+  private final Map<Long, String> callers = new ConcurrentHashMap<>();
+  private final AtomicInteger failuresLeft = new AtomicInteger();
+  private volatile CountDownLatch dispatchReleased = new CountDownLatch(0);
+
+  @BeforeEach
+  void cleanup() {
+    QuarkusTransaction.requiringNew().run(() -> {
+      StoreLegacySyncJob.deleteAll();
+      Store.delete("name LIKE ?1", "Test Store%");
+    });
+    callers.clear();
+    failuresLeft.set(0);
+    dispatchReleased = new CountDownLatch(0);
+
+    QuarkusMock.installMockForType(new LegacyStoreManagerGateway() {
+      @Override
+      public void createStoreOnLegacySystem(Store store) {
+        if (Thread.currentThread().getName().startsWith("store-legacy-sync-dispatch-")) {
+          try {
+            dispatchReleased.await(WAIT_MS * 2, TimeUnit.MILLISECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        callers.put(store.getId(), Thread.currentThread().getName());
+        if (failuresLeft.getAndDecrement() > 0) {
+          throw new LegacySyncException("Simulated legacy sync failure");
+        }
+      }
+
+      @Override
+      public void updateStoreOnLegacySystem(Store store) {
+        callers.put(store.getId(), Thread.currentThread().getName());
+      }
+    }, LegacyStoreManagerGateway.class);
+  }
+
+  @AfterEach
+  void release() {
+    dispatchReleased.countDown();
+  }
+
+  @Test
+  @DisplayName("An idle worker should drain an enqueued job as soon as it is woken up")
+  void shouldDrainJobAfterWakeUp() throws Exception {
+    UUID jobId = enqueueJob("Test Store Woken");
+
+    signal.wakeUp();
+
+    assertEquals(LegacySyncJobStatus.SUCCEEDED, awaitStatus(jobId, LegacySyncJobStatus.SUCCEEDED),
+        "Then the woken worker should process the job long before its safety poll");
+    assertTrue(callers.values().stream().allMatch(caller -> caller.startsWith("store-legacy-sync-job-worker-")),
+        "Then the legacy call should have been made by the background worker");
+  }
+
+  @Test
+  @DisplayName("An idle worker should retry a failed job once it is due, without a wake-up")
+  void shouldRetryWhenDueWithoutWakeUp() throws Exception {
+    failuresLeft.set(1);
+    UUID jobId = enqueueJob("Test Store Retried");
+    signal.wakeUp();
+
+    assertEquals(LegacySyncJobStatus.SUCCEEDED, awaitStatus(jobId, LegacySyncJobStatus.SUCCEEDED),
+        "Then the worker should sleep only until the retry is due");
+    StoreLegacySyncJob job = QuarkusTransaction.requiringNew().call(() -> entityManager.find(StoreLegacySyncJob.class, jobId));
+    assertEquals(2, job.attemptCount, "Then the failed attempt and the retry should both be counted");
+  }
+
+  @Test
+  @DisplayName("A NOTIFY from another node should wake a waiting worker through the listener")
+  void shouldWakeWorkerOnNotify() throws Exception {
+    awaitListener();
+    UUID jobId = enqueueJob("Test Store Notified");
+
+    QuarkusTransaction.requiringNew().run(signal::notifyNodes);
+
+    assertEquals(LegacySyncJobStatus.SUCCEEDED, awaitStatus(jobId, LegacySyncJobStatus.SUCCEEDED),
+        "Then the listener should wake the worker, which processes the job");
+  }
+
+  @Test
+  @DisplayName("A saturated dispatcher should leave the job to the background workers")
+  void shouldLeaveJobToWorkersWhenDispatcherIsSaturated() throws Exception {
+    dispatchReleased = new CountDownLatch(1);
+    // The first attempt blocks the only dispatch thread and the second fills its queue.
+    createStoreAndSync("Test Store Running");
+    createStoreAndSync("Test Store Queued");
+    Long rejected = createStoreAndSync("Test Store Rejected");
+
+    UUID rejectedJobId = QuarkusTransaction.requiringNew().call(() ->
+        StoreLegacySyncJob.<StoreLegacySyncJob>find("storeId", rejected).firstResult().id);
+    assertEquals(LegacySyncJobStatus.SUCCEEDED, awaitStatus(rejectedJobId, LegacySyncJobStatus.SUCCEEDED),
+        "Then the rejected job should be processed while the dispatcher is still blocked");
+    assertTrue(callers.get(rejected).startsWith("store-legacy-sync-job-worker-"),
+        "Then the rejected job should have been sent by a background worker");
+  }
+
+  private UUID enqueueJob(String name) {
+    return QuarkusTransaction.requiringNew().call(() -> {
+      Store store = persistStore(name);
+      StoreLegacySyncJob job = StoreLegacySyncJob.create(store.getId(), StoreChangeType.CREATED, null, "corr-" + name);
+      entityManager.persist(job);
+      return job.id;
+    });
+  }
+
+  private Long createStoreAndSync(String name) {
+    return QuarkusTransaction.requiringNew().call(() -> {
+      Store store = persistStore(name);
+      storeSyncService.scheduleCreateSync(store);
+      return store.getId();
+    });
+  }
+
+  private Store persistStore(String name) {
+    Store store = new Store();
+    store.setName(name + " " + System.nanoTime());
+    store.setQuantityProductsInStock(10);
+    entityManager.persist(store);
+    entityManager.flush();
+    return store;
+  }
+
+  /**
+   * Sends NOTIFYs until one comes back as a wake-up, so the listener is known to be connected.
+   */
+  private void awaitListener() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_MS * 2;
+    while (System.currentTimeMillis() < deadline) {
+      long seen = signal.generation();
+      QuarkusTransaction.requiringNew().run(signal::notifyNodes);
+      signal.await(seen, 500);
+      if (signal.generation() != seen) {
+        return;
+      }
+    }
+    throw new AssertionError("Then the listener should receive a NOTIFY within " + WAIT_MS * 2 + "ms");
+  }
+
+  private LegacySyncJobStatus awaitStatus(UUID jobId, LegacySyncJobStatus expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_MS;
+    LegacySyncJobStatus status;
+    do {
+      status = QuarkusTransaction.requiringNew().call(() -> entityManager.find(StoreLegacySyncJob.class, jobId).status);
+      if (status == expected) {
+        return status;
+      }
+      Thread.sleep(50);
+    } while (System.currentTimeMillis() < deadline);
+    return status;
+  }
+}
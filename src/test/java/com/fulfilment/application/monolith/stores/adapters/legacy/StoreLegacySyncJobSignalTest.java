@@ -0,0 +1,69 @@
+package com.fulfilment.application.monolith.stores.adapters.legacy;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class StoreLegacySyncJobSignalTest {
+
+  @Inject StoreLegacySyncJobSignal signal;
+
+  @Test
+  @DisplayName("Should release a waiting worker on wake-up")
+  void shouldReleaseWaitingWorkerOnWakeUp() throws Exception {
+    long seen = signal.generation();
+    long started = System.nanoTime();
+    CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+      try {
+        signal.await(seen, 10_000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    Thread.sleep(100);
+    signal.wakeUp();
+    waiting.get(5, TimeUnit.SECONDS);
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 5_000,
+        "Worker should be released long before its timeout");
+  }
+
+  @Test
+  @DisplayName("Should not wait for a wake-up that happened after the generation was read")
+  void shouldNotMissEarlierWakeUp() throws Exception {
+    long seen = signal.generation();
+    signal.wakeUp();
+
+    long started = System.nanoTime();
+    signal.await(seen, 10_000);
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1_000,
+        "Await should return right away after a wake-up it has not seen");
+  }
+
+  @Test
+  @DisplayName("Should return after the timeout without a wake-up")
+  void shouldReturnAfterTimeout() throws Exception {
+    long started = System.nanoTime();
+    signal.await(signal.generation(), 100);
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 90,
+        "Await should wait for about its timeout");
+  }
+
+  @Test
+  @DisplayName("Should send a notification to other nodes within a transaction")
+  void shouldNotifyNodesInTransaction() {
+    assertDoesNotThrow(() -> QuarkusTransaction.requiringNew().run(signal::notifyNodes),
+        "NOTIFY should be accepted by the database");
+  }
+}
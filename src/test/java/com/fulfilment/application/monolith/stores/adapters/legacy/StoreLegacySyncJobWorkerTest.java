@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.fulfilment.application.monolith.stores.adapters.database.Store;
 import com.fulfilment.application.monolith.stores.domain.events.StoreChangeType;
 import com.fulfilment.application.monolith.stores.domain.exceptions.LegacySyncException;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -15,8 +16,13 @@ import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,6 +37,7 @@ class StoreLegacySyncJobWorkerTest {
   private final AtomicInteger updateCalls = new AtomicInteger();
   private volatile boolean shouldFail = false;
   private volatile RuntimeException failureException = null;
+  private volatile Consumer<Store> onCreateCall = store -> { };
 
   @BeforeEach
   @Transactional
@@ -41,11 +48,13 @@ class StoreLegacySyncJobWorkerTest {
     updateCalls.set(0);
     shouldFail = false;
     failureException = null;
+    onCreateCall = store -> { };
 
     QuarkusMock.installMockForType(new LegacyStoreManagerGateway() {
       @Override
       public void createStoreOnLegacySystem(Store store) {
         createCalls.incrementAndGet();
+        onCreateCall.accept(store);
         if (shouldFail) {
           if (failureException != null) {
             throw failureException;
@@ -297,6 +306,120 @@ class StoreLegacySyncJobWorkerTest {
     assertEquals(3, createCalls.get(), "Legacy gateway create should be called 3 times");
   }
 
+  @Test
+  @DisplayName("Should not call the legacy system for a batch lease taken over during an earlier call")
+  void shouldSkipBatchLeaseTakenOverDuringEarlierCall() {
+    QuarkusTransaction.requiringNew().run(() -> {
+      createJob(createAndPersistStore("Test Store 1", 10).getId(), StoreChangeType.CREATED, "corr-1");
+      createJob(createAndPersistStore("Test Store 2", 20).getId(), StoreChangeType.CREATED, "corr-2");
+    });
+    // The first call outlasts the lease of the second job, which another worker then takes over.
+    onCreateCall = store -> QuarkusTransaction.requiringNew().run(() -> StoreLegacySyncJob.update(
+        "leasedBy = ?1, attemptCount = attemptCount + 1 WHERE storeId <> ?2", "other-worker", store.getId()));
+
+    assertEquals(2, worker.processDueJobs(), "Both jobs should be leased in one batch");
+
+    assertEquals(1, createCalls.get(), "The taken-over job should not be sent a second time");
+    StoreLegacySyncJob takenOver = QuarkusTransaction.requiringNew().call(() ->
+        StoreLegacySyncJob.<StoreLegacySyncJob>find("leasedBy", "other-worker").firstResult());
+    assertNotNull(takenOver, "The lease should remain with the worker that took it over");
+    assertEquals(LegacySyncJobStatus.PENDING, takenOver.status, "Its result should be left to that worker");
+  }
+
+  @Test
+  @DisplayName("Concurrent claims should lock disjoint batches without waiting")
+  void shouldClaimDisjointBatchesConcurrently() {
+    QuarkusTransaction.requiringNew().run(() -> {
+      Store store = createAndPersistStore("Test Store", 10);
+      for (int i = 0; i < 4; i++) {
+        createJob(store.getId(), StoreChangeType.UPDATED, "corr-" + i);
+      }
+    });
+
+    QuarkusTransaction.requiringNew().run(() -> {
+      List<StoreLegacySyncJob> first = worker.claimDueJobs(2);
+      // A new transaction on the same thread stands in for a second worker.
+      List<StoreLegacySyncJob> second = QuarkusTransaction.requiringNew().call(() -> worker.claimDueJobs(10));
+
+      assertEquals(2, first.size(), "First claim should lock up to its limit");
+      assertEquals(2, second.size(), "Second claim should skip the locked jobs and take the rest");
+      Set<UUID> claimed = new HashSet<>();
+      first.forEach(job -> claimed.add(job.id));
+      second.forEach(job -> claimed.add(job.id));
+      assertEquals(4, claimed.size(), "Claimed batches should not overlap");
+    });
+  }
+
+  @Test
+  @DisplayName("Should reclaim a job whose lease expired and record the result in its own transaction")
+  void shouldReclaimExpiredLease() {
+    UUID jobId = QuarkusTransaction.requiringNew().call(() -> {
+      Store store = createAndPersistStore("Test Store", 10);
+      StoreLegacySyncJob job = createJob(store.getId(), StoreChangeType.CREATED, "test-correlation");
+      job.attemptCount = 1;
+      job.leasedBy = "crashed-worker";
+      job.leaseUntil = Instant.now().minusSeconds(1);
+      job.nextAttemptAt = job.leaseUntil;
+      return job.id;
+    });
+
+    assertEquals(1, worker.processDueJobs(), "The expired lease should make the job due again");
+
+    StoreLegacySyncJob updated = QuarkusTransaction.requiringNew().call(() -> entityManager.find(StoreLegacySyncJob.class, jobId));
+    assertEquals(LegacySyncJobStatus.SUCCEEDED, updated.status, "Reclaimed job should be SUCCEEDED");
+    assertEquals(2, updated.attemptCount, "The expired attempt should be counted");
+    assertNull(updated.leasedBy, "Lease holder should be cleared once the result is recorded");
+    assertNull(updated.leaseUntil, "Lease expiry should be cleared once the result is recorded");
+    assertEquals(1, createCalls.get(), "Legacy gateway create should be called once");
+  }
+
+  @Test
+  @DisplayName("Should not process a job leased by another worker")
+  void shouldNotProcessLeasedJob() {
+    StoreLegacySyncJob job = QuarkusTransaction.requiringNew().call(() -> {
+      Store store = createAndPersistStore("Test Store", 10);
+      StoreLegacySyncJob leased = createJob(store.getId(), StoreChangeType.CREATED, "test-correlation");
+      leased.leasedBy = "other-worker";
+      leased.leaseUntil = Instant.now().plusSeconds(60);
+      leased.nextAttemptAt = leased.leaseUntil;
+      return leased;
+    });
+
+    worker.processJob(job);
+
+    StoreLegacySyncJob updated = QuarkusTransaction.requiringNew().call(() -> entityManager.find(StoreLegacySyncJob.class, job.id));
+    assertEquals(LegacySyncJobStatus.PENDING, updated.status, "Leased job should remain PENDING");
+    assertEquals("other-worker", updated.leasedBy, "Lease should remain with its holder");
+    assertEquals(0, createCalls.get(), "Legacy gateway should not be called for a leased job");
+  }
+
+  @Test
+  @DisplayName("Should collapse the waiting jobs of a store into the newest one")
+  void shouldCoalesceWaitingJobsPerStore() {
+    List<UUID> jobIds = QuarkusTransaction.requiringNew().call(() -> {
+      Store store = createAndPersistStore("Test Store", 10);
+      List<UUID> ids = new ArrayList<>();
+      for (long version = 1; version <= 3; version++) {
+        StoreChangeType type = version == 1 ? StoreChangeType.CREATED : StoreChangeType.UPDATED;
+        StoreLegacySyncJob job = StoreLegacySyncJob.create(store.getId(), type, version, "corr-" + version);
+        entityManager.persist(job);
+        ids.add(job.id);
+      }
+      return ids;
+    });
+
+    assertEquals(1, worker.processDueJobs(), "Only the newest job should be leased");
+
+    List<StoreLegacySyncJob> jobs = QuarkusTransaction.requiringNew().call(() ->
+        jobIds.stream().map(id -> entityManager.find(StoreLegacySyncJob.class, id)).toList());
+    assertEquals(LegacySyncJobStatus.SKIPPED, jobs.get(0).status, "Oldest job should be SKIPPED");
+    assertEquals(LegacySyncJobStatus.SKIPPED, jobs.get(1).status, "Intermediate job should be SKIPPED");
+    assertEquals(LegacySyncJobStatus.SUCCEEDED, jobs.get(2).status, "Newest job should be SUCCEEDED");
+    assertEquals(StoreChangeType.CREATED, jobs.get(2).type, "Newest job should create the store in place of the skipped one");
+    assertEquals(1, createCalls.get(), "Legacy gateway create should be called once");
+    assertEquals(0, updateCalls.get(), "Legacy gateway update should not be called");
+  }
+
   @Test
   @DisplayName("Should skip jobs that are not yet due")
   @Transactional
@@ -0,0 +1,174 @@
+package com.fulfilment.application.monolith.warehouses.adapters.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class CachingWarehouseStoreTest {
+
+  @Inject
+  WarehouseStore warehouseStore;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @Inject
+  WarehouseCache warehouseCache;
+
+  @Inject
+  ReplaceWarehouseUseCase replaceWarehouseUseCase;
+
+  @BeforeEach
+  void cleanup() {
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.CACHE.%"));
+    warehouseCache.invalidateAll();
+  }
+
+  @Test
+  @DisplayName("Repeated lookups should be served from the cache")
+  void shouldServeRepeatedLookupsFromCache() {
+    String code = createCommitted(30);
+    WarehouseCacheStats before = warehouseCache.stats();
+
+    Warehouse first = warehouseStore.findByBusinessUnitCode(code);
+    first.setCapacity(1);
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode", code));
+    Warehouse second = warehouseStore.findByBusinessUnitCode(code);
+
+    assertNotNull(second, "Then the second lookup should not reach the database");
+    assertEquals(30, second.getCapacity(), "Then callers should not be able to modify the cached warehouse");
+    WarehouseCacheStats after = warehouseCache.stats();
+    assertEquals(before.missCount() + 1, after.missCount(), "Then only the first lookup should miss");
+    assertEquals(before.hitCount() + 1, after.hitCount(), "Then the second lookup should hit");
+  }
+
+  @Test
+  @DisplayName("Update should be read back by its own transaction and invalidate the entry after commit")
+  void shouldInvalidateOnUpdateAfterCommit() {
+    String code = createCommitted(30);
+    warehouseStore.findByBusinessUnitCode(code);
+
+    QuarkusTransaction.requiringNew().run(() -> {
+      Warehouse warehouse = warehouseStore.findByBusinessUnitCode(code);
+      warehouse.setStock(10);
+      warehouseStore.update(warehouse);
+      assertEquals(10, warehouseStore.findByBusinessUnitCode(code).getStock(),
+          "Then the transaction should read its own write");
+    });
+
+    // Read in a new transaction; the request-scoped session of the test method still holds the old row.
+    assertEquals(10, QuarkusTransaction.requiringNew().call(() -> warehouseStore.findByBusinessUnitCode(code)).getStock(),
+        "Then other readers should see the committed update");
+  }
+
+  @Test
+  @DisplayName("Rolled back update should leave the committed warehouse readable")
+  void shouldKeepCommittedStateOnRollback() {
+    String code = createCommitted(30);
+    warehouseStore.findByBusinessUnitCode(code);
+
+    assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+      Warehouse warehouse = warehouseStore.findByBusinessUnitCode(code);
+      warehouse.setStock(20);
+      warehouseStore.update(warehouse);
+      throw new IllegalStateException("Roll back");
+    }));
+
+    assertEquals(0, warehouseStore.findByBusinessUnitCode(code).getStock(),
+        "Then the rolled back stock should not be visible");
+  }
+
+  @Test
+  @DisplayName("Unknown codes should be cached negatively until the warehouse is created")
+  void shouldCacheUnknownCodesUntilCreated() {
+    String code = "MWH.CACHE." + System.nanoTime();
+    long negativeHits = warehouseCache.stats().negativeHitCount();
+
+    assertNull(warehouseStore.findByBusinessUnitCode(code), "Then the unknown code should not resolve");
+    assertNull(warehouseStore.findByBusinessUnitCode(code), "Then the unknown code should still not resolve");
+    assertEquals(negativeHits + 1, warehouseCache.stats().negativeHitCount(),
+        "Then the second lookup should be a negative hit");
+
+    QuarkusTransaction.requiringNew().run(() -> warehouseStore.create(newWarehouse(code, 30)));
+
+    assertNotNull(warehouseStore.findByBusinessUnitCode(code), "Then the created warehouse should be found");
+  }
+
+  @Test
+  @DisplayName("Remove should invalidate the cached warehouse")
+  void shouldInvalidateOnRemove() {
+    String code = createCommitted(30);
+    Warehouse warehouse = warehouseStore.findByBusinessUnitCode(code);
+
+    QuarkusTransaction.requiringNew().run(() -> warehouseStore.remove(warehouse));
+
+    assertNull(warehouseStore.findByBusinessUnitCode(code), "Then the removed warehouse should not be found");
+  }
+
+  @Test
+  @DisplayName("Write use cases should validate against the stored warehouse, not a stale cached copy")
+  void shouldReplaceAgainstStoredWarehouse() {
+    String code = createCommitted(30);
+    warehouseStore.findByBusinessUnitCode(code);
+    // Stands in for a change committed on another node, which leaves this node's entry stale.
+    QuarkusTransaction.requiringNew().run(() ->
+        warehouseRepository.update("capacity = 40, version = version + 1 WHERE businessUnitCode = ?1", code));
+    Warehouse stored = QuarkusTransaction.requiringNew().call(() -> warehouseStore.findCurrentByBusinessUnitCode(code));
+    assertEquals(40, stored.getCapacity(), "Then the current lookup should bypass the stale entry");
+
+    Warehouse replacement = newWarehouse(code, 50);
+    replacement.setVersion(stored.getVersion());
+    Warehouse replaced = QuarkusTransaction.requiringNew().call(() -> replaceWarehouseUseCase.replace(replacement));
+
+    assertEquals(50, replaced.getCapacity(), "Then a replace at the stored version should succeed");
+  }
+
+  @Test
+  @DisplayName("Encoded lookup should only encode the warehouse once its body is asked for")
+  void shouldEncodeOnlyWhenBodyIsRead() {
+    String code = createCommitted(30);
+    AtomicInteger encodings = new AtomicInteger();
+
+    EncodedWarehouse encoded = warehouseCache.getEncoded(code, warehouseRepository::findByBusinessUnitCode,
+        warehouse -> {
+          encodings.incrementAndGet();
+          return warehouse.getBusinessUnitCode().getBytes(StandardCharsets.UTF_8);
+        });
+
+    assertNotNull(encoded.version(), "Then the version should be known for the entity tag");
+    assertEquals(0, encodings.get(), "Then nothing should be encoded before the body is read");
+    encoded.json();
+    warehouseCache.getEncoded(code, warehouseRepository::findByBusinessUnitCode, warehouse -> new byte[0]).json();
+    assertEquals(1, encodings.get(), "Then the body should be encoded once and shared by later lookups");
+  }
+
+  private String createCommitted(int capacity) {
+    String code = "MWH.CACHE." + System.nanoTime();
+    QuarkusTransaction.requiringNew().run(() -> warehouseStore.create(newWarehouse(code, capacity)));
+    return code;
+  }
+
+  private static Warehouse newWarehouse(String code, int capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode(code);
+    warehouse.setLocation("AMSTERDAM-001");
+    warehouse.setCapacity(capacity);
+    warehouse.setStock(0);
+    return warehouse;
+  }
+}
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.adapters.columnar;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.Map;
+
+/**
+ * Test profile loading the columnar registry, which is off by default.
+ */
+public class ColumnarEnabledProfile implements QuarkusTestProfile {
+
+  @Override
+  public Map<String, String> getConfigOverrides() {
+    return Map.of("warehouse.columnar.enabled", "true");
+  }
+}
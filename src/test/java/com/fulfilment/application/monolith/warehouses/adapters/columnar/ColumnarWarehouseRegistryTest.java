@@ -0,0 +1,153 @@
+package com.fulfilment.application.monolith.warehouses.adapters.columnar;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancySnapshot;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangeType;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseChangedEvent;
+import com.fulfilment.application.monolith.warehouses.domain.events.WarehouseState;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.AdjustWarehouseStockUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestProfile(ColumnarEnabledProfile.class)
+class ColumnarWarehouseRegistryTest {
+
+  private static final String LOCATION = "AMSTERDAM-001";
+
+  @Inject
+  ColumnarWarehouseRegistry registry;
+
+  @Inject
+  CreateWarehouseUseCase createWarehouseUseCase;
+
+  @Inject
+  ArchiveWarehouseUseCase archiveWarehouseUseCase;
+
+  @Inject
+  AdjustWarehouseStockUseCase adjustWarehouseStockUseCase;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @BeforeEach
+  void cleanup() {
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%"));
+    registry.rebuild();
+  }
+
+  @Test
+  @DisplayName("Sequential and parallel scans should match the SQL aggregation")
+  void shouldMatchSqlAggregation() {
+    for (int i = 0; i < 3; i++) {
+      Warehouse warehouse = createTestWarehouse("MWH.COLUMNAR." + System.nanoTime(), 30, 10 * i);
+      QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+    }
+    registry.rebuild();
+
+    List<LocationOccupancySnapshot> expected = sorted(
+        QuarkusTransaction.requiringNew().call(() -> warehouseRepository.occupancyByLocation()));
+    assertEquals(expected, sorted(registry.occupancyByLocation(false)),
+        "Then the sequential scan should sum the same totals as the database");
+    assertEquals(expected, sorted(registry.occupancyByLocation(true)),
+        "Then the parallel scan should sum the same totals as the database");
+  }
+
+  @Test
+  @DisplayName("Committed create, stock movement and archive should update the columns without a rebuild")
+  void shouldApplyCommittedChanges() {
+    Warehouse warehouse = createTestWarehouse("MWH.COLUMNAR." + System.nanoTime(), 40, 10);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+
+    assertFalse(registry.findUtilized(LOCATION, 0.5, false).contains(warehouse.getBusinessUnitCode()),
+        "Then a quarter-full warehouse should not reach half utilization");
+
+    QuarkusTransaction.requiringNew().run(() ->
+        adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 15));
+
+    assertTrue(registry.findUtilized(LOCATION, 0.5, true).contains(warehouse.getBusinessUnitCode()),
+        "Then the committed stock movement should be scanned");
+    assertTrue(registry.findUtilized(null, 0.5, false).contains(warehouse.getBusinessUnitCode()),
+        "Then a scan over every location should find it too");
+    assertEquals(new LocationOccupancySnapshot(LOCATION, 1, 40, 25),
+        registry.occupancyByLocation(false).stream()
+            .filter(snapshot -> LOCATION.equals(snapshot.location()))
+            .findFirst()
+            .orElseThrow(),
+        "Then the location totals should include the warehouse with its moved stock");
+
+    QuarkusTransaction.requiringNew().run(() -> archiveWarehouseUseCase.archive(warehouse));
+
+    assertTrue(registry.findUtilized(LOCATION, 0, false).isEmpty(),
+        "Then the archived warehouse should no longer be scanned");
+  }
+
+  @Test
+  @DisplayName("A change older than the slot should not bring it back to an earlier state")
+  void shouldIgnoreStaleChanges() {
+    Warehouse warehouse = createTestWarehouse("MWH.COLUMNAR." + System.nanoTime(), 40, 10);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+    Warehouse adjusted = QuarkusTransaction.requiringNew().call(() ->
+        adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 15));
+
+    registry.apply(new WarehouseChangedEvent(warehouse.getBusinessUnitCode(), WarehouseChangeType.STOCK_ADJUSTED,
+        new WarehouseState(LOCATION, 40, 10, null), new WarehouseState(LOCATION, 40, 10, adjusted.getVersion() - 1)));
+    registry.apply(WarehouseChangedEvent.created(warehouse));
+
+    assertTrue(registry.findUtilized(LOCATION, 0.5, false).contains(warehouse.getBusinessUnitCode()),
+        "Then changes delivered after the stock movement should not overwrite it");
+  }
+
+  @Test
+  @DisplayName("GET /warehouse/stats should be served from the columns when the registry is enabled")
+  void shouldServeStatsFromColumns() {
+    // Written past the use cases, so only a rebuild of the columns sees it, not the occupancy view.
+    Warehouse warehouse = createTestWarehouse("MWH.COLUMNAR." + System.nanoTime(), 40, 30);
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.create(warehouse));
+    registry.rebuild();
+
+    given()
+        .when()
+        .get("/warehouse/stats")
+        .then()
+        .statusCode(200)
+        .body("locations.find { it.location == '" + LOCATION + "' }.totals.activeWarehouses", is(1))
+        .body("locations.find { it.location == '" + LOCATION + "' }.totals.totalStock", is(30));
+  }
+
+  @Test
+  @DisplayName("Scanning an unknown location should match nothing")
+  void shouldMatchNothingForUnknownLocation() {
+    assertTrue(registry.findUtilized("NOWHERE-001", 0, true).isEmpty(),
+        "Then no warehouse should match a location that was never stored");
+  }
+
+  private static List<LocationOccupancySnapshot> sorted(List<LocationOccupancySnapshot> snapshots) {
+    return snapshots.stream().sorted(Comparator.comparing(LocationOccupancySnapshot::location)).toList();
+  }
+
+  private Warehouse createTestWarehouse(String businessUnitCode, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode(businessUnitCode);
+    warehouse.setLocation(LOCATION);
+    warehouse.setCapacity(capacity);
+    warehouse.setStock(stock);
+    return warehouse;
+  }
+}
@@ -0,0 +1,146 @@
+package com.fulfilment.application.monolith.warehouses.adapters.columnar;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancySnapshot;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the occupancy and utilization scans of {@link WarehouseColumns}, sequential and
+ * parallel, with the same aggregation and filter run as SQL against PostgreSQL.
+ *
+ * <p>The SQL side seeds a temporary table shaped like the warehouse table, with the same rows as
+ * the columns, and queries it over one JDBC connection; the round trip is part of what is measured,
+ * as it is for the repository. The database defaults to the one of the prod profile and can be
+ * changed with {@code -Dbenchmark.jdbc.url}, {@code -Dbenchmark.jdbc.user} and
+ * {@code -Dbenchmark.jdbc.password}.</p>
+ *
+ * <p>Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fulfilment.application.monolith.warehouses.adapters.columnar.ColumnarWarehouseScanBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarWarehouseScanBenchmark {
+
+  private static final int LOCATIONS = 500;
+
+  private static final String OCCUPANCY_SQL = "SELECT location, COUNT(*), COALESCE(SUM(capacity), 0),"
+      + " COALESCE(SUM(stock), 0) FROM bench_warehouse WHERE archivedAt IS NULL GROUP BY location";
+
+  private static final String UTILIZED_SQL = "SELECT businessUnitCode FROM bench_warehouse"
+      + " WHERE location = ? AND archivedAt IS NULL AND stock >= ? * capacity";
+
+  @Param({"10000", "100000"})
+  int rows;
+
+  private WarehouseColumns columns;
+
+  private Connection connection;
+
+  @Setup
+  public void setUp() throws SQLException {
+    columns = WarehouseColumns.withCapacity(rows);
+    for (int i = 0; i < rows; i++) {
+      if (!columns.hasRoom()) {
+        columns = columns.grow();
+      }
+      columns.put("MWH." + i, "BENCH-" + (i % LOCATIONS), 100, i % 100, i % 100 == 0, 0);
+    }
+
+    connection = DriverManager.getConnection(
+        System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:15432/quarkus_test"),
+        System.getProperty("benchmark.jdbc.user", "quarkus_test"),
+        System.getProperty("benchmark.jdbc.password", "quarkus_test"));
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TEMP TABLE bench_warehouse AS SELECT 'MWH.' || i AS businessUnitCode,"
+          + " 'BENCH-' || (i % " + LOCATIONS + ") AS location, 100 AS capacity, i % 100 AS stock,"
+          + " CASE WHEN i % 100 = 0 THEN now() END AS archivedAt FROM generate_series(0, " + (rows - 1) + ") AS i");
+      statement.execute("CREATE INDEX ON bench_warehouse (location) WHERE archivedAt IS NULL");
+      statement.execute("ANALYZE bench_warehouse");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    connection.close();
+  }
+
+  @Benchmark
+  public List<LocationOccupancySnapshot> occupancyColumnar() {
+    return columns.occupancyByLocation(false);
+  }
+
+  @Benchmark
+  public List<LocationOccupancySnapshot> occupancyColumnarParallel() {
+    return columns.occupancyByLocation(true);
+  }
+
+  @Benchmark
+  public List<LocationOccupancySnapshot> occupancySql() throws SQLException {
+    List<LocationOccupancySnapshot> snapshots = new ArrayList<>(LOCATIONS);
+    try (Statement statement = connection.createStatement();
+        ResultSet result = statement.executeQuery(OCCUPANCY_SQL)) {
+      while (result.next()) {
+        snapshots.add(new LocationOccupancySnapshot(result.getString(1), result.getLong(2), result.getLong(3),
+            result.getLong(4)));
+      }
+    }
+    return snapshots;
+  }
+
+  @Benchmark
+  public List<String> utilizedColumnar() {
+    return columns.matching("BENCH-7", 0.5, false);
+  }
+
+  @Benchmark
+  public List<String> utilizedColumnarParallel() {
+    return columns.matching("BENCH-7", 0.5, true);
+  }
+
+  @Benchmark
+  public List<String> utilizedSql() throws SQLException {
+    List<String> codes = new ArrayList<>();
+    try (PreparedStatement statement = connection.prepareStatement(UTILIZED_SQL)) {
+      statement.setString(1, "BENCH-7");
+      statement.setDouble(2, 0.5);
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          codes.add(result.getString(1));
+        }
+      }
+    }
+    return codes;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ColumnarWarehouseScanBenchmark.class.getSimpleName())
+        .build()).run();
+  }
+}
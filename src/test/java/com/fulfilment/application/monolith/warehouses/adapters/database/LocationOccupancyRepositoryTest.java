@@ -0,0 +1,187 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationWarehouseLimitExceededException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.jbosslog.JBossLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@JBossLog
+class LocationOccupancyRepositoryTest {
+
+  private static final int WRITERS = 64;
+  private static final int RESERVATIONS_PER_WRITER = 20;
+
+  @Inject
+  LocationOccupancyRepository occupancyRepository;
+
+  @Inject
+  CreateWarehouseUseCase createWarehouseUseCase;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @Inject
+  LocationOccupancyReconcileScheduler reconcileScheduler;
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    QuarkusTransaction.requiringNew().run(() -> {
+      warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%");
+      occupancyRepository.delete("location LIKE ?1", "STRESS-%");
+    });
+    executor = Executors.newFixedThreadPool(WRITERS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Concurrent creates at one location should never exceed its warehouse limit")
+  void shouldNeverOversubscribeLocationUnderConcurrentCreates() throws Exception {
+    String location = "AMSTERDAM-001";
+    long run = System.currentTimeMillis();
+    AtomicInteger rejected = new AtomicInteger();
+
+    int created = runConcurrently(writer -> {
+      Warehouse warehouse = new Warehouse();
+      warehouse.setBusinessUnitCode("MWH.STRESS." + run + "." + writer);
+      warehouse.setLocation(location);
+      warehouse.setCapacity(10);
+      warehouse.setStock(0);
+      try {
+        QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+        return 1;
+      } catch (LocationWarehouseLimitExceededException e) {
+        rejected.incrementAndGet();
+        return 0;
+      }
+    });
+
+    assertEquals(5, created, "Then exactly the location limit should be created");
+    assertEquals(WRITERS - 5, rejected.get(), "Then every other writer should be rejected");
+    assertEquals(5, QuarkusTransaction.requiringNew().call(() -> warehouseRepository.occupancyOf(location).activeWarehouses()),
+        "Then the warehouse table should hold exactly the location limit");
+    assertEquals(5, QuarkusTransaction.requiringNew().call(() -> occupancyRepository.reservedWarehouses(location)),
+        "Then the reserved slots should match the warehouse table");
+  }
+
+  @Test
+  @DisplayName("Reservations at distinct locations should not contend with each other")
+  void shouldScaleReservationsAcrossLocations() throws Exception {
+    long shared = measure(writer -> "STRESS-SHARED");
+    long distinct = measure(writer -> "STRESS-" + writer);
+
+    log.infof("%d writers x %d reservations: shared location %d ms, distinct locations %d ms",
+        WRITERS, RESERVATIONS_PER_WRITER, shared, distinct);
+    int total = QuarkusTransaction.requiringNew().call(() -> occupancyRepository.reservedWarehouses("STRESS-SHARED"));
+    assertEquals(WRITERS * RESERVATIONS_PER_WRITER, total, "Then no reservation on the shared row should be lost");
+    for (int writer = 0; writer < WRITERS; writer++) {
+      String location = "STRESS-" + writer;
+      assertEquals(RESERVATIONS_PER_WRITER,
+          QuarkusTransaction.requiringNew().call(() -> occupancyRepository.reservedWarehouses(location)),
+          "Then every distinct location should hold its own reservations");
+    }
+  }
+
+  @Test
+  @DisplayName("Periodic re-count should correct a ledger that under-counts its location")
+  void shouldCorrectUnderCountedLedger() {
+    String location = "AMSTERDAM-001";
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode("MWH.RESYNC." + System.currentTimeMillis());
+    warehouse.setLocation(location);
+    warehouse.setCapacity(10);
+    warehouse.setStock(0);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+    int expected = QuarkusTransaction.requiringNew().call(() -> (int) warehouseRepository.occupancyOf(location).activeWarehouses());
+    QuarkusTransaction.requiringNew().run(() ->
+        occupancyRepository.update("activeWarehouses = 0 where location = ?1", location));
+
+    assertTrue(reconcileScheduler.resyncLedger() >= 1, "Then the drifted location should be corrected");
+    assertEquals(expected, QuarkusTransaction.requiringNew().call(() -> occupancyRepository.reservedWarehouses(location)),
+        "Then the reserved slots should match the warehouse table again");
+  }
+
+  private long measure(LocationPerWriter locations) throws Exception {
+    long run = System.nanoTime();
+    long start = System.nanoTime();
+    int reserved = runConcurrently(writer -> {
+      String location = locations.of(writer);
+      int count = 0;
+      for (int i = 0; i < RESERVATIONS_PER_WRITER; i++) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("MWH.STRESS." + run + "." + location + "." + i);
+        warehouse.setLocation(location);
+        warehouse.setCapacity(1);
+        warehouse.setStock(0);
+        // Reserves the slot together with a real warehouse, so the ledger re-count keeps it
+        if (QuarkusTransaction.requiringNew().call(() -> {
+          boolean reserved = occupancyRepository.tryReserve(location, 1, Integer.MAX_VALUE);
+          warehouseRepository.create(warehouse);
+          return reserved;
+        })) {
+          count++;
+        }
+      }
+      return count;
+    });
+    assertEquals(WRITERS * RESERVATIONS_PER_WRITER, reserved, "Then every reservation below the limit should succeed");
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  /**
+   * Starts all writers at once and returns the sum of their results.
+   */
+  private int runConcurrently(Writer writer) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int i = 0; i < WRITERS; i++) {
+      int id = i;
+      Callable<Integer> task = () -> {
+        start.await();
+        return writer.run(id);
+      };
+      results.add(executor.submit(task));
+    }
+    start.countDown();
+    int sum = 0;
+    for (Future<Integer> result : results) {
+      sum += result.get(60, TimeUnit.SECONDS);
+    }
+    return sum;
+  }
+
+  @FunctionalInterface
+  private interface Writer {
+    int run(int writer) throws Exception;
+  }
+
+  @FunctionalInterface
+  private interface LocationPerWriter {
+    String of(int writer);
+  }
+}
@@ -0,0 +1,127 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.AdjustWarehouseStockUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class LocationOccupancyViewTest {
+
+  private static final String LOCATION = "AMSTERDAM-001";
+
+  @Inject
+  LocationOccupancyView occupancyView;
+
+  @Inject
+  CreateWarehouseUseCase createWarehouseUseCase;
+
+  @Inject
+  ArchiveWarehouseUseCase archiveWarehouseUseCase;
+
+  @Inject
+  AdjustWarehouseStockUseCase adjustWarehouseStockUseCase;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @BeforeEach
+  void cleanup() {
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%"));
+    occupancyView.reconcile();
+  }
+
+  @Test
+  @DisplayName("Committed create and archive should update counters without a reconcile")
+  void shouldApplyCommittedChanges() {
+    Warehouse warehouse = createTestWarehouse("MWH.OCCUPANCY." + System.currentTimeMillis(), 40);
+
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+
+    assertEquals(new LocationOccupancySnapshot(LOCATION, 1, 40, 0), snapshot(),
+        "Then the committed create should be counted with its capacity");
+
+    QuarkusTransaction.requiringNew().run(() -> archiveWarehouseUseCase.archive(warehouse));
+
+    assertEquals(new LocationOccupancySnapshot(LOCATION, 0, 0, 0), snapshot(),
+        "Then the archived warehouse and its capacity should be released");
+  }
+
+  @Test
+  @DisplayName("Committed stock movements should advance the summed stock")
+  void shouldApplyCommittedStockMovements() {
+    Warehouse warehouse = createTestWarehouse("MWH.OCCUPANCY." + System.currentTimeMillis(), 40);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+
+    QuarkusTransaction.requiringNew().run(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 15));
+    QuarkusTransaction.requiringNew().run(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -5));
+
+    assertEquals(new LocationOccupancySnapshot(LOCATION, 1, 40, 10), snapshot(),
+        "Then the snapshot should hold the warehouse with its stock after both movements");
+  }
+
+  @Test
+  @DisplayName("reconcile should correct drift caused by rows changed outside the use cases")
+  void shouldCorrectDriftOnReconcile() {
+    Warehouse warehouse = createTestWarehouse("MWH.OCCUPANCY." + System.currentTimeMillis(), 30);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+    QuarkusTransaction.requiringNew().run(() ->
+        warehouseRepository.delete("businessUnitCode", warehouse.getBusinessUnitCode()));
+
+    assertEquals(1, snapshot().activeWarehouses(), "Then the counters should still hold the stale count");
+    occupancyView.reconcile();
+    assertEquals(0, snapshot().activeWarehouses(), "Then the counters should be corrected");
+  }
+
+  @Test
+  @DisplayName("Changes committed while a reconcile reads should be neither lost nor double counted")
+  void shouldKeepChangesCommittedDuringReconcile() throws Exception {
+    Warehouse warehouse = createTestWarehouse("MWH.OCCUPANCY." + System.currentTimeMillis(), 100);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> movements = executor.submit(() -> {
+        for (int i = 0; i < 50; i++) {
+          QuarkusTransaction.requiringNew().run(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 1));
+        }
+      });
+      while (!movements.isDone()) {
+        occupancyView.reconcile();
+      }
+      movements.get(60, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(new LocationOccupancySnapshot(LOCATION, 1, 100, 50), snapshot(),
+        "Then every movement committed during the reconciles should be counted exactly once");
+  }
+
+  private LocationOccupancySnapshot snapshot() {
+    return occupancyView.committedSnapshots().stream()
+        .filter(candidate -> LOCATION.equals(candidate.location()))
+        .findFirst()
+        .orElse(new LocationOccupancySnapshot(LOCATION, 0, 0, 0));
+  }
+
+  private Warehouse createTestWarehouse(String businessUnitCode, int capacity) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode(businessUnitCode);
+    warehouse.setLocation(LOCATION);
+    warehouse.setCapacity(capacity);
+    warehouse.setStock(0);
+    return warehouse;
+  }
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL Hibernate sends on the current thread while {@link #record(Runnable)} runs, so
+ * tests can inspect the statements generated for a repository call. Registered for the test
+ * profile in {@code application.properties}.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+  private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+  @Override
+  public String inspect(String sql) {
+    List<String> recorded = RECORDED.get();
+    if (recorded != null) {
+      recorded.add(sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Runs the work and returns the SQL statements it sent, in order.
+   *
+   * @param work the work to run on the current thread
+   * @return the statements sent while it ran
+   */
+  public static List<String> record(Runnable work) {
+    List<String> recorded = new ArrayList<>();
+    RECORDED.set(recorded);
+    try {
+      work.run();
+    } finally {
+      RECORDED.remove();
+    }
+    return recorded;
+  }
+}
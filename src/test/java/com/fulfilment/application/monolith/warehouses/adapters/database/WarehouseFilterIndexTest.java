@@ -0,0 +1,135 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseResponse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class WarehouseFilterIndexTest {
+
+  private static final int SEEDED_WAREHOUSES = 20_000;
+  private static final int SEEDED_LOCATIONS = 500;
+  private static final long FIRST_SEEDED_ID = 1_000_000;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @BeforeEach
+  void seed() {
+    // Every 100th warehouse is archived, so both the location and the archive criteria are selective.
+    QuarkusTransaction.requiringNew().run(() -> {
+      warehouseRepository.getEntityManager().createNativeQuery(
+              "INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)"
+                  + " SELECT ?1 + i, 'PLAN.' || i, 'PLAN-' || (i % ?2), 100, i % 100, now(),"
+                  + " CASE WHEN i % 100 = 0 THEN now() END, 0"
+                  + " FROM generate_series(1, ?3) AS i")
+          .setParameter(1, FIRST_SEEDED_ID)
+          .setParameter(2, SEEDED_LOCATIONS)
+          .setParameter(3, SEEDED_WAREHOUSES)
+          .executeUpdate();
+      warehouseRepository.getEntityManager().createNativeQuery("ANALYZE warehouse").executeUpdate();
+    });
+  }
+
+  @AfterEach
+  void cleanup() {
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode LIKE ?1", "PLAN.%"));
+  }
+
+  @Test
+  @DisplayName("The generated listing of active warehouses at a location should use the partial location index")
+  void shouldUseActiveLocationIndex() {
+    WarehouseFilter filter = new WarehouseFilter("PLAN-7", false, null, null, null, null, null, null);
+    String sql = generatedSql(() -> warehouseRepository.listAs(WarehouseResponse.class, filter));
+
+    String plan = explain(sql, "PLAN-7");
+
+    assertTrue(plan.contains("idx_warehouse_active_location"), "Then the plan should use the location index:\n" + plan);
+  }
+
+  @Test
+  @DisplayName("The generated page of active warehouses at a location should use the partial location index")
+  void shouldUseActiveLocationIndexForPages() {
+    WarehouseFilter filter = new WarehouseFilter("PLAN-7", false, null, null, null, null, null, null);
+    String sql = generatedSql(() -> warehouseRepository.listPageAs(
+        WarehouseResponse.class, filter, null, 50, WarehouseResponse::businessUnitCode));
+
+    assertTrue(sql.toLowerCase().matches(".* order by \\w+\\.businessunitcode.*"),
+        "Then the page should be ordered by business unit code:\n" + sql);
+    String plan = explain(sql, "PLAN-7", 51);
+
+    assertTrue(plan.contains("idx_warehouse_active_location"), "Then the plan should use the location index:\n" + plan);
+  }
+
+  @Test
+  @DisplayName("The generated listing of archived warehouses should use the archive index")
+  void shouldUseArchivedAtIndex() {
+    WarehouseFilter filter = new WarehouseFilter(null, true, null, null, null, null, null, null);
+    String sql = generatedSql(() -> warehouseRepository.listAs(WarehouseResponse.class, filter));
+
+    String plan = explain(sql);
+
+    assertTrue(plan.contains("idx_warehouse_archived_at"), "Then the plan should use the archive index:\n" + plan);
+  }
+
+  @Test
+  @DisplayName("Filtered listing should return only the matching warehouses")
+  void shouldListOnlyMatchingWarehouses() {
+    List<WarehouseResponse> active = QuarkusTransaction.requiringNew().call(() -> warehouseRepository.listAs(
+        WarehouseResponse.class, new WarehouseFilter("PLAN-7", false, null, null, 50, null, null, null)));
+    List<WarehouseResponse> archived = QuarkusTransaction.requiringNew().call(() -> warehouseRepository.listAs(
+        WarehouseResponse.class, new WarehouseFilter("PLAN-0", true, null, null, null, null, null, null)));
+
+    // PLAN-7 holds i = 7, 507, 1007, ...; their stock i % 100 is 7 for every one of them.
+    assertTrue(active.isEmpty(), "Then no warehouse below the minimum stock should be listed");
+    assertEquals(SEEDED_WAREHOUSES / SEEDED_LOCATIONS, archived.size(),
+        "Then every warehouse at PLAN-0 should be archived, since 500 is a multiple of 100");
+    assertTrue(archived.stream().allMatch(warehouse -> warehouse.archivedAt() != null),
+        "Then only archived warehouses should be listed");
+  }
+
+  /**
+   * Runs a repository call and returns the single warehouse query Hibernate generated for it.
+   */
+  private String generatedSql(Runnable call) {
+    List<String> statements = RecordingStatementInspector.record(() -> QuarkusTransaction.requiringNew().run(call));
+    List<String> selects = statements.stream()
+        .filter(sql -> sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains(" from warehouse "))
+        .toList();
+    assertEquals(1, selects.size(), "Then the call should send one warehouse query: " + statements);
+    return selects.get(0);
+  }
+
+  /**
+   * Explains a generated statement, binding its JDBC parameters in order.
+   */
+  private String explain(String sql, Object... parameters) {
+    StringBuilder numbered = new StringBuilder();
+    int position = 0;
+    for (char c : sql.toCharArray()) {
+      numbered.append(c);
+      if (c == '?') {
+        numbered.append(++position);
+      }
+    }
+    assertEquals(parameters.length, position, "Then every parameter of the statement should be bound:\n" + sql);
+    return QuarkusTransaction.requiringNew().call(() -> {
+      var query = warehouseRepository.getEntityManager().createNativeQuery("EXPLAIN " + numbered, String.class);
+      for (int i = 0; i < parameters.length; i++) {
+        query.setParameter(i + 1, parameters[i]);
+      }
+      @SuppressWarnings("unchecked")
+      List<String> lines = query.getResultList();
+      return String.join("\n", lines);
+    });
+  }
+}
@@ -6,12 +6,19 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseResponse;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.DuplicateBusinessUnitCodeException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import jakarta.persistence.OptimisticLockException;
+import java.util.List;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -27,6 +34,10 @@ class WarehouseRepositoryTest {
   @Transactional
   void cleanup() {
     warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.EDGE.%");
+    warehouseRepository.getEntityManager()
+        .createQuery("DELETE FROM DbArchivedWarehouse WHERE businessUnitCode LIKE ?1")
+        .setParameter(1, "MWH.EDGE.%")
+        .executeUpdate();
   }
 
   @Test
@@ -50,42 +61,6 @@ class WarehouseRepositoryTest {
     assertNull(result, "Then result should be null when searching with whitespace-only business unit code");
   }
 
-  @Test
-  @DisplayName("Should count zero warehouses for non-existent location")
-  void shouldCountZeroForNonExistentLocation() {
-    long count = warehouseRepository.countByLocation("NON-EXISTENT-LOCATION");
-    assertEquals(0, count, "Then count should be zero for non-existent location");
-  }
-
-  @Test
-  @DisplayName("Should count zero warehouses for null location")
-  void shouldCountZeroForNullLocation() {
-    long count = warehouseRepository.countByLocation(null);
-    assertEquals(0, count, "Then count should be zero for null location");
-  }
-
-  @Test
-  @DisplayName("Should exclude archived warehouses from count")
-  void shouldExcludeArchivedWarehousesFromCount() {
-    String location = "ZWOLLE-002";
-    String businessUnitCode1 = "MWH.EDGE.1." + System.currentTimeMillis();
-    String businessUnitCode2 = "MWH.EDGE.2." + System.currentTimeMillis();
-
-    Warehouse warehouse1 = createTestWarehouse(businessUnitCode1, location, 30, 10);
-    Warehouse warehouse2 = createTestWarehouse(businessUnitCode2, location, 30, 10);
-    warehouseRepository.create(warehouse1);
-    warehouseRepository.create(warehouse2);
-
-    long countBefore = warehouseRepository.countByLocation(location);
-    assertEquals(2, countBefore, "Then both warehouses should be counted before archiving");
-
-    warehouse1.setArchivedAt(ZonedDateTime.now());
-    warehouseRepository.update(warehouse1);
-
-    long countAfter = warehouseRepository.countByLocation(location);
-    assertEquals(1, countAfter, "Then only active warehouse should be counted after archiving one");
-  }
-
   @Test
   @DisplayName("Should throw exception when updating non-existent warehouse")
   void shouldThrowExceptionWhenUpdatingNonExistentWarehouse() {
@@ -201,6 +176,100 @@ class WarehouseRepositoryTest {
     assertEquals(longCode, retrieved.getBusinessUnitCode(), "Then business unit code should match the long code");
   }
 
+  @Test
+  @DisplayName("Read queries should project rows without loading entities into the persistence context")
+  void shouldProjectReadsWithoutManagedEntities() {
+    String businessUnitCode = "MWH.EDGE.PROJECTION." + System.currentTimeMillis();
+    warehouseRepository.create(createTestWarehouse(businessUnitCode, "ZWOLLE-002", 30, 10));
+    Session session = warehouseRepository.getEntityManager().unwrap(Session.class);
+    session.clear();
+
+    List<WarehouseResponse> responses = warehouseRepository.listAllAs(WarehouseResponse.class);
+    Warehouse found = warehouseRepository.findByBusinessUnitCode(businessUnitCode);
+
+    WarehouseResponse projected = responses.stream()
+        .filter(response -> businessUnitCode.equals(response.businessUnitCode()))
+        .findFirst()
+        .orElseThrow();
+    assertEquals(30, projected.capacity(), "Then the projection should carry the stored capacity");
+    assertNotNull(projected.creationAt(), "Then the creation timestamp should be projected");
+    assertEquals(10, found.getStock(), "Then the lookup should carry the stored stock");
+    assertEquals(0, session.getStatistics().getEntityCount(), "Then no entity should be managed");
+  }
+
+  @Test
+  @DisplayName("Update should reject a warehouse read at an older version")
+  void shouldRejectUpdateOfStaleVersion() {
+    String businessUnitCode = "MWH.EDGE.VERSION." + System.currentTimeMillis();
+    warehouseRepository.create(createTestWarehouse(businessUnitCode, "ZWOLLE-002", 30, 10));
+    Warehouse first = warehouseRepository.findByBusinessUnitCode(businessUnitCode);
+    Warehouse second = warehouseRepository.findByBusinessUnitCode(businessUnitCode);
+
+    first.setCapacity(40);
+    warehouseRepository.update(first);
+    warehouseRepository.flush();
+    second.setCapacity(50);
+
+    assertThrows(OptimisticLockException.class, () -> warehouseRepository.update(second),
+        "Then the second writer should not silently overwrite the first");
+    assertEquals(first.getVersion() + 1, warehouseRepository.findByBusinessUnitCode(businessUnitCode).getVersion(),
+        "Then the version should have been incremented once");
+  }
+
+  @Test
+  @DisplayName("Moved archived warehouses should leave the warehouse table but still be found and keep their code")
+  void shouldMoveArchivedWarehousesToArchiveTable() {
+    String businessUnitCode = "MWH.EDGE.MOVE." + System.currentTimeMillis();
+    warehouseRepository.create(createTestWarehouse(businessUnitCode, "ZWOLLE-002", 30, 10));
+    warehouseRepository.archive(businessUnitCode, null, ZonedDateTime.now(ZoneOffset.UTC).minusHours(2));
+
+    int moved = warehouseRepository.moveArchived(LocalDateTime.now(ZoneOffset.UTC).minusHours(1), 100);
+
+    assertTrue(moved >= 1, "Then the archived warehouse should be moved");
+    assertEquals(0, warehouseRepository.count("businessUnitCode", businessUnitCode),
+        "Then the warehouse table should no longer hold it");
+    Warehouse found = warehouseRepository.findByBusinessUnitCode(businessUnitCode);
+    assertNotNull(found, "Then the lookup should fall back to the archive table");
+    assertNotNull(found.getArchivedAt(), "Then it should still be reported as archived");
+    assertThrows(DuplicateBusinessUnitCodeException.class,
+        () -> warehouseRepository.create(createTestWarehouse(businessUnitCode, "ZWOLLE-002", 30, 10)),
+        "Then its business unit code should not be reusable");
+    assertTrue(warehouseRepository.findExistingBusinessUnitCodes(List.of(businessUnitCode)).contains(businessUnitCode),
+        "Then batch creation should see the code as taken");
+  }
+
+  @Test
+  @DisplayName("Every change should append a version that as-of lookups resolve by its validity range")
+  void shouldResolveWarehouseVersionsAsOf() {
+    String businessUnitCode = "MWH.EDGE.HISTORY." + System.currentTimeMillis();
+    warehouseRepository.create(createTestWarehouse(businessUnitCode, "ZWOLLE-002", 30, 10));
+    warehouseRepository.adjustStock(businessUnitCode, 5);
+    warehouseRepository.archive(businessUnitCode, null, ZonedDateTime.now(ZoneOffset.UTC));
+
+    List<LocalDateTime> validFrom = warehouseRepository.getEntityManager()
+        .createQuery("SELECT v.validFrom FROM DbWarehouseVersion v WHERE v.businessUnitCode = ?1"
+            + " ORDER BY v.validFrom, v.id", LocalDateTime.class)
+        .setParameter(1, businessUnitCode)
+        .getResultList();
+    assertEquals(3, validFrom.size(), "Then creation, stock movement and archive should each append a version");
+
+    assertNull(warehouseRepository.findByBusinessUnitCodeAsOf(businessUnitCode, validFrom.get(0).minusNanos(1000)),
+        "Then the warehouse should not exist before its creation");
+    assertEquals(10, warehouseRepository.findByBusinessUnitCodeAsOf(businessUnitCode, validFrom.get(0)).getStock(),
+        "Then the first version should carry the initial stock");
+    Warehouse adjusted = warehouseRepository.findByBusinessUnitCodeAsOf(businessUnitCode, validFrom.get(1));
+    assertEquals(15, adjusted.getStock(), "Then the second version should carry the moved stock");
+    assertNull(adjusted.getArchivedAt(), "Then the second version should still be active");
+    assertNotNull(warehouseRepository.findByBusinessUnitCodeAsOf(businessUnitCode, validFrom.get(2)).getArchivedAt(),
+        "Then the latest version should be archived");
+
+    List<WarehouseResponse> listed = warehouseRepository.listAs(WarehouseResponse.class,
+        new WarehouseFilter("ZWOLLE-002", false, null, null, null, null, null, validFrom.get(1)));
+    assertTrue(listed.stream().anyMatch(warehouse -> warehouse.businessUnitCode().equals(businessUnitCode)
+            && warehouse.stock() == 15),
+        "Then listing as of the stock movement should show the warehouse active with its stock then");
+  }
+
   private Warehouse createTestWarehouse(String businessUnitCode, String location, int capacity, int stock) {
     Warehouse warehouse = new Warehouse();
     warehouse.setBusinessUnitCode(businessUnitCode);
@@ -0,0 +1,111 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.fulfilment.application.monolith.warehouses.adapters.restapi.dto.WarehouseResponse;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the per-request mapping work of the former entity read path, which copied each row into
+ * a {@link DbWarehouse}, then a {@link Warehouse} and then a {@link WarehouseResponse} while resolving
+ * {@code ZoneId.of("UTC")} per timestamp, with the constructor-expression projection that maps the
+ * selected columns straight into the response.
+ *
+ * <p>The allocation per request is reported as {@code gc.alloc.rate.norm} with the GC profiler, which
+ * the main method enables. Entity management itself (persistence context entries and dirty-checking
+ * snapshots) comes on top of the entity path and is not part of this benchmark.</p>
+ *
+ * <p>Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fulfilment.application.monolith.warehouses.adapters.restapi.WarehouseReadMappingBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseReadMappingBenchmark {
+
+  @Param({"1", "100"})
+  int rows;
+
+  private Object[][] columns;
+
+  @Setup
+  public void setUp() {
+    columns = new Object[rows][];
+    LocalDateTime createdAt = LocalDateTime.of(2024, 7, 1, 12, 0);
+    for (int i = 0; i < rows; i++) {
+      columns[i] = new Object[] {"MWH." + i, "AMSTERDAM-001", 100, i % 100, createdAt.plusMinutes(i),
+          i % 10 == 0 ? createdAt.plusDays(1) : null, (long) i};
+    }
+  }
+
+  @Benchmark
+  public List<WarehouseResponse> entityPath() {
+    List<WarehouseResponse> responses = new ArrayList<>(rows);
+    for (Object[] row : columns) {
+      DbWarehouse entity = new DbWarehouse();
+      entity.setBusinessUnitCode((String) row[0]);
+      entity.setLocation((String) row[1]);
+      entity.setCapacity((Integer) row[2]);
+      entity.setStock((Integer) row[3]);
+      entity.setCreatedAt((LocalDateTime) row[4]);
+      entity.setArchivedAt((LocalDateTime) row[5]);
+      entity.setVersion((Long) row[6]);
+
+      Warehouse warehouse = new Warehouse();
+      warehouse.setBusinessUnitCode(entity.getBusinessUnitCode());
+      warehouse.setLocation(entity.getLocation());
+      warehouse.setCapacity(entity.getCapacity());
+      warehouse.setStock(entity.getStock());
+      if (entity.getCreatedAt() != null) {
+        warehouse.setCreationAt(entity.getCreatedAt().atZone(ZoneId.of("UTC")));
+      }
+      if (entity.getArchivedAt() != null) {
+        warehouse.setArchivedAt(entity.getArchivedAt().atZone(ZoneId.of("UTC")));
+      }
+      warehouse.setVersion(entity.getVersion());
+
+      responses.add(new WarehouseResponse(warehouse.getBusinessUnitCode(), warehouse.getLocation(),
+          warehouse.getCapacity(), warehouse.getStock(), warehouse.getCreationAt(), warehouse.getArchivedAt(),
+          warehouse.getVersion()));
+    }
+    return responses;
+  }
+
+  @Benchmark
+  public List<WarehouseResponse> projectionPath() {
+    List<WarehouseResponse> responses = new ArrayList<>(rows);
+    for (Object[] row : columns) {
+      responses.add(new WarehouseResponse((String) row[0], (String) row[1], (Integer) row[2], (Integer) row[3],
+          (LocalDateTime) row[4], (LocalDateTime) row[5], (Long) row[6]));
+    }
+    return responses;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(WarehouseReadMappingBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build()).run();
+  }
+}
@@ -3,17 +3,33 @@ package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.fulfilment.application.monolith.common.PageCursor;
+import com.fulfilment.application.monolith.warehouses.adapters.cache.WarehouseCache;
+import com.fulfilment.application.monolith.warehouses.adapters.database.LocationOccupancyView;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseArchiveScheduler;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,10 +40,110 @@ class WarehouseResourceTest {
   @Inject
   WarehouseRepository warehouseRepository;
 
+  @Inject
+  WarehouseCache warehouseCache;
+
+  @Inject
+  LocationOccupancyView occupancyView;
+
+  @Inject
+  WarehouseArchiveScheduler archiveScheduler;
+
   @BeforeEach
-  @Transactional
   void cleanup() {
-    warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%");
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%"));
+    // The delete bypasses the store port, so cached lookups have to be dropped explicitly.
+    warehouseCache.invalidateAll();
+  }
+
+  @Test
+  @DisplayName("GET /warehouse/stats should report utilization and headroom per location and in total from the occupancy view")
+  void testGetWarehouseStats() {
+    // The cleanup deletes bypass the use cases, so the counters are brought back in line first.
+    occupancyView.reconcile();
+    given()
+        .contentType(ContentType.JSON)
+        .body(String.format(
+            "{\"businessUnitCode\":\"%s\",\"location\":\"EINDHOVEN-001\",\"capacity\":40,\"stock\":10}",
+            "MWH.STATS." + System.currentTimeMillis()))
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(201);
+
+    given()
+        .when()
+        .get("/warehouse/stats")
+        .then()
+        .statusCode(200)
+        .body("locations.find { it.location == 'EINDHOVEN-001' }.totals.activeWarehouses", is(1))
+        .body("locations.find { it.location == 'EINDHOVEN-001' }.totals.totalStock", is(10))
+        .body("locations.find { it.location == 'EINDHOVEN-001' }.totals.utilization", is(0.25f))
+        .body("locations.find { it.location == 'EINDHOVEN-001' }.totals.warehouseHeadroom", is(1))
+        .body("locations.find { it.location == 'EINDHOVEN-001' }.totals.capacityHeadroom", is(100))
+        .body("total.activeWarehouses", greaterThan(0));
+  }
+
+  @Test
+  @DisplayName("GET /warehouse/cache/stats should count repeated lookups as hits")
+  void testGetWarehouseCacheStats() {
+    String businessUnitCode = "MWH.CACHESTATS." + System.currentTimeMillis();
+    given()
+        .contentType(ContentType.JSON)
+        .body(String.format(
+            "{\"businessUnitCode\":\"%s\",\"location\":\"AMSTERDAM-002\",\"capacity\":50,\"stock\":10}",
+            businessUnitCode))
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(201);
+    long hits = warehouseCache.stats().hitCount();
+
+    given().when().get("/warehouse/" + businessUnitCode).then().statusCode(200);
+    given().when().get("/warehouse/" + businessUnitCode).then().statusCode(200);
+
+    given()
+        .when()
+        .get("/warehouse/cache/stats")
+        .then()
+        .statusCode(200)
+        .body("enabled", is(true))
+        .body("hitCount", is((int) hits + 1))
+        .body("missCount", greaterThan(0));
+  }
+
+  @Test
+  @DisplayName("GET /warehouse/{id} should serve the cached encoding until the warehouse changes")
+  void testGetWarehouseServesCachedEncoding() {
+    String businessUnitCode = "MWH.ENCODED." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+
+    Response first = given().when().get("/warehouse/" + businessUnitCode).then()
+        .statusCode(200)
+        .contentType(ContentType.JSON)
+        .body("businessUnitCode", is(businessUnitCode))
+        .body("stock", is(10))
+        .extract()
+        .response();
+    Response second = given().when().get("/warehouse/" + businessUnitCode).then()
+        .statusCode(200)
+        .extract()
+        .response();
+    assertEquals(first.asString(), second.asString(), "Then a repeated read should return the same body");
+    assertEquals(first.header("ETag"), second.header("ETag"), "Then a repeated read should return the same ETag");
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\":3}")
+        .when()
+        .post("/warehouse/" + businessUnitCode + "/stock-movements")
+        .then()
+        .statusCode(200);
+
+    given().when().get("/warehouse/" + businessUnitCode).then()
+        .statusCode(200)
+        .header("ETag", not(first.header("ETag")))
+        .body("stock", is(13));
   }
 
   @Test
@@ -40,6 +156,149 @@ class WarehouseResourceTest {
         .statusCode(200);
   }
 
+  @Test
+  @DisplayName("GET /warehouse should still return a JSON array by default")
+  void testGetAllWarehousesDefaultsToJsonArray() {
+    given()
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .contentType(ContentType.JSON)
+        .body(startsWith("["));
+  }
+
+  @Test
+  @DisplayName("GET /warehouse with Accept application/x-ndjson should stream one warehouse per line")
+  void testStreamAllWarehousesAsNdjson() {
+    String businessUnitCode = "MWH.STREAM." + System.currentTimeMillis();
+    given()
+        .contentType(ContentType.JSON)
+        .body(String.format(
+            "{\"businessUnitCode\":\"%s\",\"location\":\"AMSTERDAM-002\",\"capacity\":50,\"stock\":10}",
+            businessUnitCode))
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(201);
+
+    String body = given()
+        .accept("application/x-ndjson")
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .contentType(containsString("application/x-ndjson"))
+        .extract()
+        .asString();
+
+    String[] lines = body.split("\n");
+    assertEquals(warehouseRepository.count(), lines.length, "Then every warehouse should be streamed on its own line");
+    assertTrue(body.endsWith("\n"), "Then every line should be terminated");
+    assertEquals(1, Arrays.stream(lines)
+        .filter(line -> line.startsWith("{") && line.contains("\"businessUnitCode\":\"" + businessUnitCode + "\""))
+        .count(), "Then the created warehouse should be streamed as a JSON object");
+  }
+
+  @Test
+  @DisplayName("GET /warehouse should only return warehouses matching the query filters")
+  void testGetWarehousesWithFilters() {
+    String nearlyFull = "MWH.FILTER.FULL." + System.currentTimeMillis();
+    String nearlyEmpty = "MWH.FILTER.EMPTY." + System.currentTimeMillis();
+    for (String businessUnitCode : new String[] {nearlyFull, nearlyEmpty}) {
+      given()
+          .contentType(ContentType.JSON)
+          .body(String.format(
+              "{\"businessUnitCode\":\"%s\",\"location\":\"AMSTERDAM-002\",\"capacity\":20,\"stock\":%d}",
+              businessUnitCode, businessUnitCode.equals(nearlyFull) ? 18 : 2))
+          .when()
+          .post("/warehouse")
+          .then()
+          .statusCode(201);
+    }
+
+    given()
+        .queryParam("location", "AMSTERDAM-002")
+        .queryParam("status", "active")
+        .queryParam("minUtilization", 0.5)
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .body("size()", is(1))
+        .body("[0].businessUnitCode", is(nearlyFull));
+
+    given()
+        .queryParam("location", "AMSTERDAM-002")
+        .queryParam("maxStock", 5)
+        .accept("application/x-ndjson")
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .body(containsString(nearlyEmpty), not(containsString(nearlyFull)));
+  }
+
+  @Test
+  @DisplayName("GET /warehouse should page by business unit code and keep the filters in the next Link header")
+  void testGetWarehousesWithCursor() {
+    String prefix = "MWH.PAGE." + System.currentTimeMillis();
+    for (String suffix : new String[] {".C", ".A", ".B"}) {
+      given()
+          .contentType(ContentType.JSON)
+          .body(String.format(
+              "{\"businessUnitCode\":\"%s\",\"location\":\"AMSTERDAM-001\",\"capacity\":10,\"stock\":1}",
+              prefix + suffix))
+          .when()
+          .post("/warehouse")
+          .then()
+          .statusCode(201);
+    }
+
+    List<String> codes = new ArrayList<>();
+    String next = "/warehouse?location=AMSTERDAM-001&limit=2";
+    while (next != null) {
+      Response page = given().when().get(next).then().statusCode(200).extract().response();
+      codes.addAll(page.jsonPath().getList("businessUnitCode", String.class));
+      String link = page.header("Link");
+      next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+      assertTrue(next == null || next.contains("location=AMSTERDAM-001"), "Then the next page should keep the filter");
+    }
+
+    assertEquals(List.of(prefix + ".A", prefix + ".B", prefix + ".C"), codes,
+        "Then every matching warehouse should be listed once, in business unit code order");
+  }
+
+  @Test
+  @DisplayName("GET /warehouse should read committed changes from the database when the snapshot is disabled")
+  void testGetWarehousesFromDatabase() {
+    String businessUnitCode = "MWH.DATABASE." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\":5}")
+        .when()
+        .post("/warehouse/" + businessUnitCode + "/stock-movements")
+        .then()
+        .statusCode(200);
+
+    given()
+        .queryParam("location", "AMSTERDAM-002")
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .header("X-Snapshot-Sequence", nullValue())
+        .body("find { it.businessUnitCode == '" + businessUnitCode + "' }.stock", is(15));
+  }
+
+  @Test
+  @DisplayName("GET /warehouse should return 400 for an unknown status or an out-of-range utilization")
+  void testGetWarehousesWithInvalidFilters() {
+    given().queryParam("status", "deleted").when().get("/warehouse").then().statusCode(400);
+    given().queryParam("minUtilization", 1.5).when().get("/warehouse").then().statusCode(400);
+  }
+
   @Test
   @DisplayName("POST /warehouse should create warehouse and return 201")
   void testCreateWarehouse() {
@@ -61,6 +320,50 @@ class WarehouseResourceTest {
         .body("creationAt", notNullValue());
   }
 
+  @Test
+  @DisplayName("POST /warehouse/batch should report the outcome of every item")
+  void testCreateWarehouseBatch() {
+    String prefix = "MWH.BATCH." + System.currentTimeMillis();
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(String.format("["
+            + "{\"businessUnitCode\":\"%1$s.1\",\"location\":\"AMSTERDAM-002\",\"capacity\":50,\"stock\":10},"
+            + "{\"businessUnitCode\":\"%1$s.1\",\"location\":\"AMSTERDAM-002\",\"capacity\":50,\"stock\":10},"
+            + "{\"businessUnitCode\":\"%1$s.2\",\"location\":\"UNKNOWN-001\",\"capacity\":50,\"stock\":10},"
+            + "{\"businessUnitCode\":\"%1$s.3\",\"location\":\"AMSTERDAM-002\",\"capacity\":-1,\"stock\":10}"
+            + "]", prefix))
+        .when()
+        .post("/warehouse/batch")
+        .then()
+        .statusCode(200)
+        .body("created", is(1))
+        .body("failed", is(3))
+        .body("items[0].status", is(201))
+        .body("items[0].warehouse.businessUnitCode", is(prefix + ".1"))
+        .body("items[0].warehouse.creationAt", notNullValue())
+        .body("items[1].status", is(409))
+        .body("items[1].error.exceptionType", containsString("DuplicateBusinessUnitCodeException"))
+        .body("items[2].status", is(404))
+        .body("items[3].status", is(400))
+        .body("items[3].error.violations.size()", greaterThan(0));
+
+    assertNotNull(warehouseRepository.findByBusinessUnitCode(prefix + ".1"), "Then the valid item should be persisted");
+  }
+
+  @Test
+  @DisplayName("POST /warehouse/batch should reject an empty batch (Bean Validation)")
+  void testCreateWarehouseBatchEmpty() {
+    given()
+        .contentType(ContentType.JSON)
+        .body("[]")
+        .when()
+        .post("/warehouse/batch")
+        .then()
+        .statusCode(400)
+        .body("exceptionType", containsString("ConstraintViolationException"));
+  }
+
   @Test
   @DisplayName("POST /warehouse should reject warehouse with id set (Bean Validation)")
   void testCreateWarehouseWithIdSet() {
@@ -284,6 +587,170 @@ class WarehouseResourceTest {
         .body("exceptionType", containsString("ConstraintViolationException"));
   }
 
+  @Test
+  @DisplayName("GET /warehouse/{id} should return an ETag and 304 without a body on a matching If-None-Match")
+  void testGetWarehouseConditionally() {
+    String businessUnitCode = "MWH.ETAG." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+
+    String etag = given()
+        .when()
+        .get("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(200)
+        .header("ETag", notNullValue())
+        .extract()
+        .header("ETag");
+
+    String body = given()
+        .header("If-None-Match", etag)
+        .when()
+        .get("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(304)
+        .header("ETag", is(etag))
+        .extract()
+        .asString();
+    assertEquals("", body, "Then the 304 response should have no body");
+  }
+
+  @Test
+  @DisplayName("PUT /warehouse/{id} should honour If-Match and return the new ETag")
+  void testReplaceWarehouseWithIfMatch() {
+    String businessUnitCode = "MWH.REPLACE.IFMATCH." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 20);
+    String etag = given().when().get("/warehouse/" + businessUnitCode).then().extract().header("ETag");
+
+    String newEtag = given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"location\":\"AMSTERDAM-002\",\"capacity\":50,\"stock\":20}")
+        .when()
+        .put("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(200)
+        .extract()
+        .header("ETag");
+    assertTrue(!etag.equals(newEtag), "Then the replace should change the ETag");
+
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"location\":\"AMSTERDAM-002\",\"capacity\":40,\"stock\":20}")
+        .when()
+        .put("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(412)
+        .body("exceptionType", containsString("WarehouseVersionMismatchException"));
+    assertEquals(50, verifyCommitted(businessUnitCode).getCapacity(), "Then the stale replace should not be applied");
+  }
+
+  @Test
+  @DisplayName("DELETE /warehouse/{id} should return 412 when If-Match is stale and 400 when it is malformed")
+  void testArchiveWarehouseWithStaleIfMatch() {
+    String businessUnitCode = "MWH.ARCHIVE.IFMATCH." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+
+    given().header("If-Match", "\"99\"").when().delete("/warehouse/" + businessUnitCode).then().statusCode(412);
+    given().header("If-Match", "W/\"0\"").when().delete("/warehouse/" + businessUnitCode).then().statusCode(400);
+    String etag = given().when().get("/warehouse/" + businessUnitCode).then().extract().header("ETag");
+    given().header("If-Match", etag).when().delete("/warehouse/" + businessUnitCode).then().statusCode(204);
+  }
+
+  @Test
+  @DisplayName("POST /warehouse/{id}/stock-movements should apply a signed delta")
+  void testMoveWarehouseStock() {
+    String businessUnitCode = "MWH.MOVE." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\":-4}")
+        .when()
+        .post("/warehouse/" + businessUnitCode + "/stock-movements")
+        .then()
+        .statusCode(200)
+        .header("ETag", notNullValue())
+        .body("stock", is(6))
+        .body("capacity", is(30));
+  }
+
+  @Test
+  @DisplayName("POST /warehouse/{id}/stock-movements should return 422 beyond capacity and 400 without a delta")
+  void testMoveWarehouseStockRejected() {
+    String businessUnitCode = "MWH.MOVE." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\":21}")
+        .when()
+        .post("/warehouse/" + businessUnitCode + "/stock-movements")
+        .then()
+        .statusCode(422)
+        .body("exceptionType", containsString("StockOutOfRangeException"));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{}")
+        .when()
+        .post("/warehouse/" + businessUnitCode + "/stock-movements")
+        .then()
+        .statusCode(400);
+    assertEquals(10, verifyCommitted(businessUnitCode).getStock(), "Then the stock should be unchanged");
+  }
+
+  @Test
+  @DisplayName("GET /warehouse/{id} and GET /warehouse with asOf should return the version valid at that instant")
+  void testGetWarehouseAsOf() {
+    String businessUnitCode = "MWH.ASOF." + System.currentTimeMillis();
+    OffsetDateTime beforeCreation = OffsetDateTime.now(ZoneOffset.UTC);
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+    OffsetDateTime afterCreation = OffsetDateTime.now(ZoneOffset.UTC);
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\":-4}")
+        .when()
+        .post("/warehouse/" + businessUnitCode + "/stock-movements")
+        .then()
+        .statusCode(200);
+
+    given()
+        .queryParam("asOf", afterCreation.toString())
+        .when()
+        .get("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(200)
+        .body("stock", is(10));
+    given()
+        .when()
+        .get("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(200)
+        .body("stock", is(6));
+    given()
+        .queryParam("asOf", afterCreation.toString())
+        .queryParam("location", "AMSTERDAM-002")
+        .queryParam("limit", 1000)
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .body("find { it.businessUnitCode == '" + businessUnitCode + "' }.stock", is(10));
+    given()
+        .queryParam("asOf", beforeCreation.toString())
+        .when()
+        .get("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(404);
+    given()
+        .queryParam("asOf", "yesterday")
+        .when()
+        .get("/warehouse/" + businessUnitCode)
+        .then()
+        .statusCode(400);
+  }
+
   @Test
   @DisplayName("PUT /warehouse/{id} should reject when stock mismatch")
   void testReplaceWarehouseWithStockMismatch() {
@@ -345,6 +812,33 @@ class WarehouseResourceTest {
     assertNotNull(archived.getArchivedAt(), "Then archived timestamp should be set");
   }
 
+  @Test
+  @DisplayName("GET /warehouse/archive should list warehouses moved out of the warehouse table")
+  void testListArchivedWarehouses() {
+    String businessUnitCode = "MWH.HISTORY." + System.currentTimeMillis();
+    createWarehouseWithAvailableLocation(businessUnitCode, 10);
+    given().when().delete("/warehouse/" + businessUnitCode).then().statusCode(204);
+
+    archiveScheduler.moveArchived(LocalDateTime.now(ZoneOffset.UTC).plusMinutes(1));
+
+    // Start just before the code, so earlier archive rows cannot push it off the first page.
+    given()
+        .queryParam("cursor", new PageCursor(businessUnitCode.substring(0, businessUnitCode.length() - 1), null).encode())
+        .when()
+        .get("/warehouse/archive")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", hasItem(businessUnitCode));
+    given()
+        .queryParam("status", "archived")
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .body("businessUnitCode", not(hasItem(businessUnitCode)));
+    given().when().get("/warehouse/" + businessUnitCode).then().statusCode(200);
+  }
+
   @Test
   @DisplayName("DELETE /warehouse/{id} should return 404 when warehouse not found")
   void testArchiveWarehouseNotFound() {
@@ -0,0 +1,73 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.snapshot.SnapshotEnabledProfile;
+import com.fulfilment.application.monolith.warehouses.adapters.snapshot.WarehouseSnapshotView;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@TestProfile(SnapshotEnabledProfile.class)
+class WarehouseSnapshotResourceTest {
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @Inject
+  WarehouseSnapshotView snapshotView;
+
+  @BeforeEach
+  void cleanup() {
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%"));
+    // The delete bypasses the store port, so the snapshot has to be rebuilt explicitly.
+    snapshotView.rebuild();
+  }
+
+  @Test
+  @DisplayName("GET /warehouse should serve committed changes from a new snapshot with a higher sequence number")
+  void testGetWarehousesFromSnapshot() {
+    String businessUnitCode = "MWH.SNAPSHOT." + System.currentTimeMillis();
+    long before = Long.parseLong(given().when().get("/warehouse").then().statusCode(200)
+        .extract().header(WarehouseResource.SNAPSHOT_SEQUENCE_HEADER));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(String.format(
+            "{\"businessUnitCode\":\"%s\",\"location\":\"AMSTERDAM-002\",\"capacity\":30,\"stock\":10}",
+            businessUnitCode))
+        .when()
+        .post("/warehouse")
+        .then()
+        .statusCode(201);
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\":5}")
+        .when()
+        .post("/warehouse/" + businessUnitCode + "/stock-movements")
+        .then()
+        .statusCode(200);
+
+    Response listed = given()
+        .queryParam("location", "AMSTERDAM-002")
+        .when()
+        .get("/warehouse")
+        .then()
+        .statusCode(200)
+        .body("find { it.businessUnitCode == '" + businessUnitCode + "' }.stock", is(15))
+        .extract()
+        .response();
+    assertTrue(Long.parseLong(listed.header(WarehouseResource.SNAPSHOT_SEQUENCE_HEADER)) >= before + 2,
+        "Then the create and the stock movement should each have published a snapshot");
+  }
+}
@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.adapters.snapshot;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.Map;
+
+/**
+ * Test profile serving {@code GET /warehouse} from the in-memory snapshot, which is off by default.
+ */
+public class SnapshotEnabledProfile implements QuarkusTestProfile {
+
+  @Override
+  public Map<String, String> getConfigOverrides() {
+    return Map.of("warehouse.snapshot.enabled", "true");
+  }
+}
@@ -0,0 +1,227 @@
+package com.fulfilment.application.monolith.warehouses.adapters.stock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.StockMovementLog;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InsufficientCapacityException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.StockOutOfRangeException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.AdjustWarehouseStockUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class WriteBehindStockStoreTest {
+
+  @Inject
+  StockLedger ledger;
+
+  @Inject
+  StockFlushScheduler flushScheduler;
+
+  @Inject
+  StockMovementLog movementLog;
+
+  @Inject
+  CreateWarehouseUseCase createWarehouseUseCase;
+
+  @Inject
+  ArchiveWarehouseUseCase archiveWarehouseUseCase;
+
+  @Inject
+  AdjustWarehouseStockUseCase adjustWarehouseStockUseCase;
+
+  @Inject
+  ReplaceWarehouseUseCase replaceWarehouseUseCase;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @BeforeEach
+  void enable() {
+    QuarkusTransaction.requiringNew().run(() -> {
+      movementLog.deleteAll();
+      warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.WB.%");
+    });
+    ledger.clear();
+    ledger.setEnabled(true);
+  }
+
+  @AfterEach
+  void disable() {
+    ledger.setEnabled(false);
+    ledger.clear();
+  }
+
+  @Test
+  @DisplayName("Movements should be logged and applied to the warehouse on flush")
+  void shouldApplyMovementsOnFlush() {
+    Warehouse warehouse = createCommitted(40, 10);
+
+    Warehouse inbound = inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 25));
+    Warehouse outbound = inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -5));
+
+    assertEquals(35, inbound.getStock(), "Then the movement should return the projected stock");
+    assertEquals(30, outbound.getStock(), "Then later movements should build on the projection");
+    assertEquals(10, storedStock(warehouse), "Then the warehouse row should be untouched until the flush");
+
+    flushScheduler.flush();
+
+    assertEquals(30, storedStock(warehouse), "Then the flush should apply the summed movements");
+    assertEquals(0, inTransaction(() -> movementLog.count()), "Then the flushed movements should leave the log");
+  }
+
+  @Test
+  @DisplayName("Out of range movements and movements on archived warehouses should be rejected locally")
+  void shouldEnforceBoundsLocally() {
+    Warehouse warehouse = createCommitted(40, 10);
+
+    inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 30));
+    assertThrows(StockOutOfRangeException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 1)),
+        "Then the unflushed movement should count against the capacity");
+
+    QuarkusTransaction.requiringNew().run(() -> archiveWarehouseUseCase.archive(warehouse));
+    assertThrows(WarehouseAlreadyArchivedException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -1)),
+        "Then an archived warehouse should not take movements");
+  }
+
+  @Test
+  @DisplayName("A rolled back movement should be released from the projection")
+  void shouldReleaseRolledBackMovements() {
+    Warehouse warehouse = createCommitted(40, 10);
+
+    assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+      adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -10);
+      throw new IllegalStateException("Roll back");
+    }));
+
+    Warehouse adjusted = inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -10));
+    assertEquals(0, adjusted.getStock(), "Then the rolled back stock should be available again");
+    flushScheduler.flush();
+    assertEquals(0, storedStock(warehouse), "Then only the committed movement should be applied");
+  }
+
+  @Test
+  @DisplayName("Movements left in the log should be seen by a fresh ledger and applied by the next flush")
+  void shouldRecoverPendingMovements() {
+    Warehouse warehouse = createCommitted(40, 10);
+    inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 20));
+
+    // Simulates a restart: the counters are lost, the committed log is not.
+    ledger.clear();
+    assertThrows(StockOutOfRangeException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 11)),
+        "Then a fresh ledger should seed from the stored stock plus the pending movements");
+
+    flushScheduler.flush();
+    assertEquals(30, storedStock(warehouse), "Then the pending movement should be applied");
+  }
+
+  @Test
+  @DisplayName("Movements of a warehouse that no longer exists should stay in the log")
+  void shouldKeepMovementsOfRemovedWarehouse() {
+    Warehouse removed = createCommitted(40, 10);
+    inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(removed.getBusinessUnitCode(), 5));
+    QuarkusTransaction.requiringNew().run(
+        () -> warehouseRepository.delete("businessUnitCode", removed.getBusinessUnitCode()));
+    Warehouse kept = createCommitted(40, 10);
+    inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(kept.getBusinessUnitCode(), 5));
+
+    flushScheduler.flush();
+
+    assertEquals(15, storedStock(kept), "Then the movement of the existing warehouse should be applied");
+    assertEquals(1, inTransaction(() -> movementLog.count("businessUnitCode", removed.getBusinessUnitCode())),
+        "Then the movement of the removed warehouse should not be dropped");
+    assertEquals(List.of(removed.getBusinessUnitCode()), inTransaction(movementLog::orphans),
+        "Then the kept movement should be reported as orphaned");
+  }
+
+  @Test
+  @DisplayName("A replace should not lower the capacity below the stock of pending movements")
+  void shouldCheckReplacedCapacityAgainstProjectedStock() {
+    Warehouse warehouse = createCommitted(40, 10);
+    inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 20));
+
+    Warehouse replacement = new Warehouse();
+    replacement.setBusinessUnitCode(warehouse.getBusinessUnitCode());
+    replacement.setLocation(warehouse.getLocation());
+    replacement.setCapacity(20);
+    replacement.setStock(10);
+    assertThrows(InsufficientCapacityException.class,
+        () -> inTransaction(() -> replaceWarehouseUseCase.replace(replacement)),
+        "Then the capacity should be checked against the projected stock, not the stored one");
+
+    Warehouse adjusted = inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 10));
+    assertEquals(40, adjusted.getStock(), "Then the rejected replace should leave the previous capacity in place");
+    flushScheduler.flush();
+    assertEquals(40, storedStock(warehouse), "Then the flushed stock should stay within the capacity");
+  }
+
+  @Test
+  @DisplayName("Concurrent movements on one warehouse should all be admitted and applied")
+  void shouldApplyConcurrentMovements() throws Exception {
+    int movements = 80;
+    Warehouse warehouse = createCommitted(200, 100);
+
+    runConcurrentMovements(warehouse, movements, 1);
+    flushScheduler.flush();
+
+    assertEquals(100 + movements, storedStock(warehouse), "Then every concurrent movement should be applied");
+    assertEquals(0, inTransaction(() -> movementLog.count()), "Then the flushed movements should leave the log");
+  }
+
+  private void runConcurrentMovements(Warehouse warehouse, int movements, int delta) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < movements; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        return inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), delta));
+      }));
+    }
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get();
+    }
+    executor.shutdown();
+  }
+
+  private Warehouse createCommitted(int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode("MWH.WB." + System.nanoTime());
+    warehouse.setLocation("VETSBY-001");
+    warehouse.setCapacity(capacity);
+    warehouse.setStock(stock);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+    return warehouse;
+  }
+
+  private int storedStock(Warehouse warehouse) {
+    return inTransaction(() -> warehouseRepository.findByBusinessUnitCode(warehouse.getBusinessUnitCode())).getStock();
+  }
+
+  private static <T> T inTransaction(Callable<T> work) {
+    return QuarkusTransaction.requiringNew().call(work);
+  }
+}
@@ -0,0 +1,143 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InvalidWarehouseRequestException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.StockOutOfRangeException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+class AdjustWarehouseStockUseCaseTest {
+
+  @Inject
+  CreateWarehouseUseCase createWarehouseUseCase;
+
+  @Inject
+  ArchiveWarehouseUseCase archiveWarehouseUseCase;
+
+  @Inject
+  AdjustWarehouseStockUseCase adjustWarehouseStockUseCase;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @BeforeEach
+  void cleanup() {
+    QuarkusTransaction.requiringNew().run(() -> warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.STOCK.%"));
+  }
+
+  @Test
+  @DisplayName("Should apply inbound and outbound movements and bump the version")
+  void shouldApplyMovements() {
+    Warehouse warehouse = createCommitted(40, 10);
+
+    Warehouse inbound = inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 25));
+    Warehouse outbound = inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -35));
+
+    assertEquals(35, inbound.getStock(), "Then the inbound movement should add to the stock");
+    assertEquals(0, outbound.getStock(), "Then the outbound movement should take the stock down to zero");
+    assertEquals(inbound.getVersion() + 1, outbound.getVersion(), "Then every movement should bump the version");
+    assertEquals(0, storedStock(warehouse), "Then the stored stock should match");
+  }
+
+  @Test
+  @DisplayName("Should reject movements that leave the stock outside zero and the capacity")
+  void shouldRejectOutOfRangeMovements() {
+    Warehouse warehouse = createCommitted(40, 10);
+
+    StockOutOfRangeException below = assertThrows(StockOutOfRangeException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -11)),
+        "Then stock should not drop below zero");
+    assertThrows(StockOutOfRangeException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 31)),
+        "Then stock should not exceed the capacity");
+    assertThrows(StockOutOfRangeException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), Integer.MAX_VALUE)),
+        "Then a huge delta should be rejected instead of overflowing");
+
+    assertEquals(10, below.getStock(), "Then the exception should report the current stock");
+    assertEquals(10, storedStock(warehouse), "Then the stock should be unchanged");
+  }
+
+  @Test
+  @DisplayName("Should report unknown, archived and zero movements")
+  void shouldReportRejectedTargets() {
+    Warehouse warehouse = createCommitted(40, 10);
+    QuarkusTransaction.requiringNew().run(() -> archiveWarehouseUseCase.archive(warehouse));
+
+    assertThrows(WarehouseNotFoundException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock("MWH.STOCK.UNKNOWN", 1)),
+        "Then an unknown warehouse should not be found");
+    assertThrows(WarehouseAlreadyArchivedException.class,
+        () -> inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 1)),
+        "Then an archived warehouse should not take movements");
+    assertThrows(InvalidWarehouseRequestException.class,
+        () -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), 0),
+        "Then a zero movement should be rejected");
+  }
+
+  @Test
+  @DisplayName("Concurrent outbound movements should never take the stock below zero")
+  void shouldNotOversellUnderConcurrency() throws Exception {
+    Warehouse warehouse = createCommitted(40, 20);
+    int movements = 32;
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < movements; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        try {
+          inTransaction(() -> adjustWarehouseStockUseCase.adjustStock(warehouse.getBusinessUnitCode(), -1));
+          return true;
+        } catch (StockOutOfRangeException e) {
+          return false;
+        }
+      }));
+    }
+    start.countDown();
+    int applied = 0;
+    for (Future<Boolean> result : results) {
+      applied += result.get() ? 1 : 0;
+    }
+    executor.shutdown();
+
+    assertEquals(20, applied, "Then exactly as many movements as there was stock should be applied");
+    assertEquals(0, storedStock(warehouse), "Then the stock should end at zero");
+  }
+
+  private Warehouse createCommitted(int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode("MWH.STOCK." + System.nanoTime());
+    warehouse.setLocation("AMSTERDAM-001");
+    warehouse.setCapacity(capacity);
+    warehouse.setStock(stock);
+    QuarkusTransaction.requiringNew().run(() -> createWarehouseUseCase.create(warehouse));
+    return warehouse;
+  }
+
+  private int storedStock(Warehouse warehouse) {
+    return inTransaction(() -> warehouseRepository.findByBusinessUnitCode(warehouse.getBusinessUnitCode())).getStock();
+  }
+
+  private static <T> T inTransaction(Callable<T> work) {
+    return QuarkusTransaction.requiringNew().call(work);
+  }
+}
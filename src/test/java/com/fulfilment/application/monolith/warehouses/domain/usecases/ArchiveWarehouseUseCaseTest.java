@@ -1,11 +1,15 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseVersionMismatchException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
@@ -52,6 +56,29 @@ class ArchiveWarehouseUseCaseTest {
     assertNotNull(archived.getArchivedAt(), "Then archived timestamp should be set");
   }
 
+  @Test
+  @DisplayName("Should free the location slot when a warehouse is archived")
+  void shouldFreeLocationSlotWhenArchived() {
+    String businessUnitCode = "MWH.ARCHIVE." + System.currentTimeMillis();
+
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode(businessUnitCode);
+    warehouse.setLocation("ZWOLLE-001");
+    warehouse.setCapacity(30);
+    warehouse.setStock(10);
+    createWarehouseUseCase.create(warehouse);
+    archiveWarehouseUseCase.archive(warehouse);
+
+    Warehouse successor = new Warehouse();
+    successor.setBusinessUnitCode(businessUnitCode + ".SUCCESSOR");
+    successor.setLocation("ZWOLLE-001");
+    successor.setCapacity(30);
+    successor.setStock(10);
+
+    assertDoesNotThrow(() -> createWarehouseUseCase.create(successor),
+        "Then a new warehouse should fit in the slot released by the archived one");
+  }
+
   @Test
   @DisplayName("Should throw WarehouseNotFoundException when warehouse does not exist or has invalid business unit code")
   void shouldThrowWarehouseNotFoundException() {
@@ -101,4 +128,30 @@ class ArchiveWarehouseUseCaseTest {
       archiveWarehouseUseCase.archive(warehouse);
     }, "Then exception should be thrown when warehouse is already archived");
   }
+
+  @Test
+  @DisplayName("Should only archive the expected version and leave a stale archive request without effect")
+  void shouldRejectArchiveOfStaleVersion() {
+    String businessUnitCode = "MWH.ARCHIVE." + System.currentTimeMillis();
+
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode(businessUnitCode);
+    warehouse.setLocation("ZWOLLE-002");
+    warehouse.setCapacity(45);
+    warehouse.setStock(10);
+    createWarehouseUseCase.create(warehouse);
+    Long version = warehouseRepository.findByBusinessUnitCode(businessUnitCode).getVersion();
+
+    warehouse.setVersion(version + 1);
+    assertThrows(WarehouseVersionMismatchException.class, () -> archiveWarehouseUseCase.archive(warehouse),
+        "Then a stale expected version should be rejected");
+    assertNull(warehouseRepository.findByBusinessUnitCode(businessUnitCode).getArchivedAt(),
+        "Then the warehouse should still be active");
+
+    warehouse.setVersion(version);
+    archiveWarehouseUseCase.archive(warehouse);
+    Warehouse archived = warehouseRepository.findByBusinessUnitCode(businessUnitCode);
+    assertNotNull(archived.getArchivedAt(), "Then the current version should be archived");
+    assertEquals(version + 1, archived.getVersion(), "Then archiving should bump the version");
+  }
 }
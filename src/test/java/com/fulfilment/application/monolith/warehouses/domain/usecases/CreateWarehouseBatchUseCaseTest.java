@@ -0,0 +1,117 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.location.LocationNotFoundException;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.DuplicateBusinessUnitCodeException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.InsufficientCapacityException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationCapacityExceededException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationWarehouseLimitExceededException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+@Transactional
+class CreateWarehouseBatchUseCaseTest {
+
+  @Inject
+  CreateWarehouseBatchUseCase createWarehouseBatchUseCase;
+
+  @Inject
+  CreateWarehouseUseCase createWarehouseUseCase;
+
+  @Inject
+  WarehouseRepository warehouseRepository;
+
+  @BeforeEach
+  @Transactional
+  void cleanup() {
+    warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%");
+  }
+
+  @Test
+  @DisplayName("Should create every warehouse of a valid batch")
+  void shouldCreateValidBatch() {
+    String prefix = "MWH.BATCH." + System.currentTimeMillis();
+
+    List<WarehouseCreationResult> results = createWarehouseBatchUseCase.createAll(List.of(
+        createTestWarehouse(prefix + ".1", "AMSTERDAM-001", 50, 10),
+        createTestWarehouse(prefix + ".2", "AMSTERDAM-001", 60, 0),
+        createTestWarehouse(prefix + ".3", "EINDHOVEN-001", 70, 70)));
+
+    assertEquals(3, results.size(), "Then there should be one result per warehouse");
+    assertTrue(results.stream().allMatch(WarehouseCreationResult::isCreated), "Then every warehouse should be created");
+    Warehouse stored = warehouseRepository.findByBusinessUnitCode(prefix + ".3");
+    assertNotNull(stored, "Then the warehouse should be persisted");
+    assertNotNull(stored.getCreationAt(), "Then the creation timestamp should be set");
+  }
+
+  @Test
+  @DisplayName("Should report each failing warehouse individually and create the rest")
+  void shouldReportFailuresPerWarehouse() {
+    String prefix = "MWH.BATCH." + System.currentTimeMillis();
+    createWarehouseUseCase.create(createTestWarehouse(prefix + ".EXISTING", "AMSTERDAM-002", 30, 0));
+
+    List<WarehouseCreationResult> results = createWarehouseBatchUseCase.createAll(List.of(
+        createTestWarehouse(prefix + ".1", "AMSTERDAM-002", 30, 10),
+        createTestWarehouse(prefix + ".EXISTING", "AMSTERDAM-002", 30, 10),
+        createTestWarehouse(prefix + ".1", "AMSTERDAM-002", 30, 10),
+        createTestWarehouse(prefix + ".2", "UNKNOWN-001", 30, 10),
+        createTestWarehouse(prefix + ".3", "AMSTERDAM-002", 80, 10),
+        createTestWarehouse(prefix + ".4", "AMSTERDAM-002", 30, 40)));
+
+    assertTrue(results.get(0).isCreated(), "Then the valid warehouse should be created");
+    assertInstanceOf(DuplicateBusinessUnitCodeException.class, results.get(1).failure(),
+        "Then an existing business unit code should be rejected");
+    assertInstanceOf(DuplicateBusinessUnitCodeException.class, results.get(2).failure(),
+        "Then a business unit code repeated within the batch should be rejected");
+    assertInstanceOf(LocationNotFoundException.class, results.get(3).failure(),
+        "Then an unknown location should be rejected");
+    assertInstanceOf(LocationCapacityExceededException.class, results.get(4).failure(),
+        "Then a capacity above the location maximum should be rejected");
+    assertInstanceOf(InsufficientCapacityException.class, results.get(5).failure(),
+        "Then stock above capacity should be rejected");
+    assertEquals(2, warehouseRepository.occupancyOf("AMSTERDAM-002").activeWarehouses(),
+        "Then only the existing and the valid warehouse should be stored");
+  }
+
+  @Test
+  @DisplayName("Should grant location slots in batch order until the location limit is reached")
+  void shouldGrantSlotsUntilLimitReached() {
+    String prefix = "MWH.BATCH." + System.currentTimeMillis();
+
+    List<WarehouseCreationResult> results = createWarehouseBatchUseCase.createAll(List.of(
+        createTestWarehouse(prefix + ".1", "ZWOLLE-002", 30, 10),
+        createTestWarehouse(prefix + ".2", "ZWOLLE-002", 30, 10),
+        createTestWarehouse(prefix + ".3", "ZWOLLE-002", 30, 10)));
+
+    assertTrue(results.get(0).isCreated(), "Then the first warehouse should get a slot");
+    assertTrue(results.get(1).isCreated(), "Then the second warehouse should get a slot");
+    assertInstanceOf(LocationWarehouseLimitExceededException.class, results.get(2).failure(),
+        "Then the warehouse beyond the limit should be rejected");
+    assertEquals(2, ((LocationWarehouseLimitExceededException) results.get(2).failure()).getCurrentCount(),
+        "Then the rejection should report the slots actually taken");
+    assertEquals(2, warehouseRepository.occupancyOf("ZWOLLE-002").activeWarehouses(),
+        "Then exactly the location limit should be stored");
+  }
+
+  private Warehouse createTestWarehouse(String businessUnitCode, String location, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.setBusinessUnitCode(businessUnitCode);
+    warehouse.setLocation(location);
+    warehouse.setCapacity(capacity);
+    warehouse.setStock(stock);
+    return warehouse;
+  }
+}
@@ -61,14 +61,14 @@ class CreateWarehouseUseCaseTest {
     
     Warehouse first = new Warehouse();
     first.setBusinessUnitCode(businessUnitCode);
-    first.setLocation("HELMOND-001");
+    first.setLocation("AMSTERDAM-001");
     first.setCapacity(40);
     first.setStock(10);
     createWarehouseUseCase.create(first);
 
     Warehouse duplicate = new Warehouse();
     duplicate.setBusinessUnitCode(businessUnitCode);
-    duplicate.setLocation("HELMOND-001");
+    duplicate.setLocation("AMSTERDAM-001");
     duplicate.setCapacity(40);
     duplicate.setStock(10);
 
@@ -1,16 +1,23 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.InsufficientCapacityException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationCapacityExceededException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.LocationWarehouseLimitExceededException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.StockMismatchException;
+import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseAlreadyArchivedException;
 import com.fulfilment.application.monolith.warehouses.domain.exceptions.WarehouseNotFoundException;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -52,7 +59,38 @@ class ReplaceWarehouseUseCaseTest {
     replacement.setCapacity(70);
     replacement.setStock(20);
 
-    replaceWarehouseUseCase.replace(replacement);
+    Warehouse replaced = replaceWarehouseUseCase.replace(replacement);
+
+    Warehouse stored = warehouseRepository.findByBusinessUnitCode(businessUnitCode);
+    assertEquals(70, replaced.getCapacity(), "Then the returned warehouse should carry the new capacity");
+    assertEquals(stored.getVersion(), replaced.getVersion(), "Then the returned version should be the stored one");
+    assertNotNull(replaced.getCreationAt(), "Then the returned warehouse should keep its creation timestamp");
+  }
+
+  @Test
+  @DisplayName("Should throw WarehouseAlreadyArchivedException for an archived warehouse, before and after it is moved")
+  void shouldRejectReplacingArchivedWarehouse() {
+    String businessUnitCode = "MWH.REPLACE.ARCHIVED." + System.currentTimeMillis();
+
+    Warehouse existing = new Warehouse();
+    existing.setBusinessUnitCode(businessUnitCode);
+    existing.setLocation("AMSTERDAM-002");
+    existing.setCapacity(60);
+    existing.setStock(20);
+    createWarehouseUseCase.create(existing);
+    warehouseRepository.archive(businessUnitCode, null, ZonedDateTime.now(ZoneOffset.UTC).minusHours(2));
+
+    Warehouse replacement = new Warehouse();
+    replacement.setBusinessUnitCode(businessUnitCode);
+    replacement.setLocation("AMSTERDAM-002");
+    replacement.setCapacity(70);
+    replacement.setStock(20);
+
+    assertThrows(WarehouseAlreadyArchivedException.class, () -> replaceWarehouseUseCase.replace(replacement),
+        "Then an archived warehouse should not be replaced");
+    warehouseRepository.moveArchived(LocalDateTime.now(ZoneOffset.UTC).minusHours(1), 100);
+    assertThrows(WarehouseAlreadyArchivedException.class, () -> replaceWarehouseUseCase.replace(replacement),
+        "Then an archived warehouse should be rejected the same way once moved to the archive table");
   }
 
   @Test
@@ -180,6 +218,36 @@ class ReplaceWarehouseUseCaseTest {
     replaceWarehouseUseCase.replace(replacement);
   }
 
+  @Test
+  @DisplayName("Should throw exception when location changes to a location at its warehouse limit")
+  void shouldThrowWhenNewLocationIsFull() {
+    String businessUnitCode = "MWH.REPLACE." + System.currentTimeMillis();
+
+    Warehouse occupant = new Warehouse();
+    occupant.setBusinessUnitCode(businessUnitCode + ".OCCUPANT");
+    occupant.setLocation("VETSBY-001");
+    occupant.setCapacity(30);
+    occupant.setStock(10);
+    createWarehouseUseCase.create(occupant);
+
+    Warehouse existing = new Warehouse();
+    existing.setBusinessUnitCode(businessUnitCode);
+    existing.setLocation("ZWOLLE-002");
+    existing.setCapacity(30);
+    existing.setStock(10);
+    createWarehouseUseCase.create(existing);
+
+    Warehouse replacement = new Warehouse();
+    replacement.setBusinessUnitCode(businessUnitCode);
+    replacement.setLocation("VETSBY-001");
+    replacement.setCapacity(30);
+    replacement.setStock(10);
+
+    assertThrows(LocationWarehouseLimitExceededException.class, () -> {
+      replaceWarehouseUseCase.replace(replacement);
+    }, "Then exception should be thrown when the new location has no free slot");
+  }
+
   @Test
   @DisplayName("Should throw exception when replacing with zero capacity but positive stock")
   void shouldThrowWhenReplacingWithZeroCapacityButPositiveStock() {
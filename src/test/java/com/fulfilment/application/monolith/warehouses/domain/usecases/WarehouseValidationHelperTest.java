@@ -28,7 +28,7 @@ class WarehouseValidationHelperTest {
   @BeforeEach
   @Transactional
   void cleanup() {
-    warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.VALIDATION.%");
+    warehouseRepository.delete("businessUnitCode LIKE ?1", "MWH.%");
   }
 
   @Test
@@ -37,11 +37,13 @@ class WarehouseValidationHelperTest {
     String location = "ZWOLLE-001";
     String businessUnitCode = "MWH.VALIDATION.1." + System.currentTimeMillis();
     
-    Warehouse warehouse = createTestWarehouse(businessUnitCode, location, 30, 10);
-    warehouseRepository.create(warehouse);
+    Warehouse first = createTestWarehouse(businessUnitCode, location, 30, 10);
+    validationHelper.reserveWarehouseSlot(first, 1);
+    warehouseRepository.create(first);
+    Warehouse warehouse = createTestWarehouse(businessUnitCode + ".2", location, 30, 10);
     
     assertThrows(LocationWarehouseLimitExceededException.class, () -> {
-      validationHelper.validateWarehouseCountLimit(location, 1);
+      validationHelper.reserveWarehouseSlot(warehouse, 1);
     });
   }
 
@@ -51,11 +53,13 @@ class WarehouseValidationHelperTest {
     String location = "ZWOLLE-002";
     String businessUnitCode = "MWH.VALIDATION.1." + System.currentTimeMillis();
     
-    Warehouse warehouse = createTestWarehouse(businessUnitCode, location, 30, 10);
-    warehouseRepository.create(warehouse);
+    Warehouse first = createTestWarehouse(businessUnitCode, location, 30, 10);
+    validationHelper.reserveWarehouseSlot(first, 2);
+    warehouseRepository.create(first);
+    Warehouse warehouse = createTestWarehouse(businessUnitCode + ".2", location, 30, 10);
     
     assertDoesNotThrow(() -> {
-      validationHelper.validateWarehouseCountLimit(location, 2);
+      validationHelper.reserveWarehouseSlot(warehouse, 2);
     }, "Then validation should pass when warehouse count is one below limit");
   }
 
@@ -65,11 +69,13 @@ class WarehouseValidationHelperTest {
     String location = "ZWOLLE-001";
     String businessUnitCode = "MWH.VALIDATION.1." + System.currentTimeMillis();
     
-    Warehouse warehouse = createTestWarehouse(businessUnitCode, location, 30, 10);
-    warehouseRepository.create(warehouse);
+    Warehouse first = createTestWarehouse(businessUnitCode, location, 30, 10);
+    validationHelper.reserveWarehouseSlot(first, 1);
+    warehouseRepository.create(first);
+    Warehouse warehouse = createTestWarehouse(businessUnitCode + ".2", location, 30, 10);
     
     assertThrows(LocationWarehouseLimitExceededException.class, () -> {
-      validationHelper.validateWarehouseCountLimit(location, 1);
+      validationHelper.reserveWarehouseSlot(warehouse, 1);
     });
   }
 
@@ -197,7 +203,7 @@ class WarehouseValidationHelperTest {
   @DisplayName("Should handle null location identifier")
   void shouldHandleNullLocationIdentifier() {
     assertDoesNotThrow(() -> {
-      validationHelper.validateWarehouseCountLimit(null, 1);
+      validationHelper.reserveWarehouseSlot(createTestWarehouse("MWH.VALIDATION.TEST", null, 30, 10), 1);
     }, "Then validation should pass for null location identifier");
   }
 
@@ -205,10 +211,26 @@ class WarehouseValidationHelperTest {
   @DisplayName("Should handle empty location identifier")
   void shouldHandleEmptyLocationIdentifier() {
     assertDoesNotThrow(() -> {
-      validationHelper.validateWarehouseCountLimit("", 1);
+      validationHelper.reserveWarehouseSlot(createTestWarehouse("MWH.VALIDATION.TEST", "", 30, 10), 1);
     }, "Then validation should pass for empty location identifier");
   }
 
+  @Test
+  @DisplayName("Should free the slot when a warehouse is released")
+  void shouldFreeSlotOnRelease() {
+    String location = "ZWOLLE-001";
+    Warehouse first = createTestWarehouse("MWH.VALIDATION.1." + System.currentTimeMillis(), location, 30, 10);
+    validationHelper.reserveWarehouseSlot(first, 1);
+    warehouseRepository.create(first);
+
+    warehouseRepository.delete("businessUnitCode", first.getBusinessUnitCode());
+    validationHelper.releaseWarehouseSlot(first);
+
+    assertDoesNotThrow(() -> {
+      validationHelper.reserveWarehouseSlot(createTestWarehouse("MWH.VALIDATION.2", location, 30, 10), 1);
+    }, "Then the released slot should be available again");
+  }
+
   private Warehouse createTestWarehouse(String businessUnitCode, String location, int capacity, int stock) {
     Warehouse warehouse = new Warehouse();
     warehouse.setBusinessUnitCode(businessUnitCode);